@@ -26,16 +26,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ua.mibal.booking.adapter.in.web.security.annotation.ManagerAllowed;
 import ua.mibal.booking.application.ApartmentService;
+import ua.mibal.booking.application.dto.request.ApartmentFilterDto;
 import ua.mibal.booking.application.dto.request.CreateApartmentDto;
+import ua.mibal.booking.application.dto.request.ReservationDto;
 import ua.mibal.booking.application.dto.request.UpdateApartmentDto;
 import ua.mibal.booking.application.dto.response.ApartmentCardDto;
+import ua.mibal.booking.application.dto.response.ApartmentCardPageDto;
 import ua.mibal.booking.application.dto.response.ApartmentDto;
+import ua.mibal.booking.application.dto.response.FreeApartmentDto;
+import ua.mibal.booking.domain.Amenity;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Mykhailo Balakhon
@@ -53,8 +60,18 @@ public class ApartmentController {
     }
 
     @GetMapping
-    public List<ApartmentCardDto> getAll() {
-        return apartmentService.getAllFetchPhotosBeds();
+    public List<ApartmentCardDto> getAll(@RequestParam(name = "amenities", defaultValue = "") Set<Amenity> amenities) {
+        return apartmentService.getAllFetchPhotosBeds(amenities);
+    }
+
+    @GetMapping("/search")
+    public ApartmentCardPageDto search(@Valid ApartmentFilterDto filter) {
+        return apartmentService.search(filter);
+    }
+
+    @GetMapping("/free")
+    public List<FreeApartmentDto> getFree(@Valid ReservationDto reservationDto) {
+        return apartmentService.getFree(reservationDto);
     }
 
     @ManagerAllowed
@@ -16,17 +16,24 @@
 
 package ua.mibal.booking.adapter.in.web;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ua.mibal.booking.application.CalendarService;
+import ua.mibal.booking.application.dto.request.CalendarWindowDto;
 import ua.mibal.booking.application.dto.response.calendar.Calendar;
+import ua.mibal.booking.application.dto.response.calendar.ColumnarCalendars;
 
 import java.util.List;
 
 /**
+ * Calendars are returned as lists of events by default, or in compact
+ * columnar form if {@value #COLUMNAR_CALENDAR_VALUE} is accepted.
+ *
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
@@ -34,15 +41,41 @@ import java.util.List;
 @RestController
 @RequestMapping("/api")
 public class CalendarController {
+    public static final String COLUMNAR_CALENDAR_VALUE = "application/vnd.booking.calendar.columnar+json";
+
     private final CalendarService calendarService;
 
     @GetMapping("/apartments/{id}/calendar")
-    public List<Calendar> getCalendarForApartment(@PathVariable Long id) {
-        return calendarService.getCalendarsForApartment(id);
+    public List<Calendar> getCalendarForApartment(@PathVariable Long id,
+                                                  @Valid CalendarWindowDto window,
+                                                  @RequestParam(name = "coalesce", defaultValue = "false") boolean coalesce) {
+        return calendarService.getCalendarsForApartment(id, window, coalesce);
     }
 
     @GetMapping("/apartments/instances/{id}/calendar")
-    public Calendar getCalendarForApartmentInstance(@PathVariable Long id) {
-        return calendarService.getCalendarForApartmentInstance(id);
+    public Calendar getCalendarForApartmentInstance(@PathVariable Long id,
+                                                    @Valid CalendarWindowDto window,
+                                                    @RequestParam(name = "coalesce", defaultValue = "false") boolean coalesce) {
+        return calendarService.getCalendarForApartmentInstance(id, window, coalesce);
+    }
+
+    @GetMapping(
+            value = "/apartments/{id}/calendar",
+            produces = COLUMNAR_CALENDAR_VALUE
+    )
+    public ColumnarCalendars getColumnarCalendarForApartment(@PathVariable Long id,
+                                                             @Valid CalendarWindowDto window,
+                                                             @RequestParam(name = "coalesce", defaultValue = "false") boolean coalesce) {
+        return calendarService.getColumnarCalendarsForApartment(id, window, coalesce);
+    }
+
+    @GetMapping(
+            value = "/apartments/instances/{id}/calendar",
+            produces = COLUMNAR_CALENDAR_VALUE
+    )
+    public ColumnarCalendars getColumnarCalendarForApartmentInstance(@PathVariable Long id,
+                                                                     @Valid CalendarWindowDto window,
+                                                                     @RequestParam(name = "coalesce", defaultValue = "false") boolean coalesce) {
+        return calendarService.getColumnarCalendarForApartmentInstance(id, window, coalesce);
     }
 }
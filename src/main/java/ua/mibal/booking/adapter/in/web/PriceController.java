@@ -18,10 +18,12 @@ package ua.mibal.booking.adapter.in.web;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -31,9 +33,15 @@ import org.springframework.web.bind.annotation.RestController;
 import ua.mibal.booking.adapter.in.web.security.annotation.ManagerAllowed;
 import ua.mibal.booking.application.PriceService;
 import ua.mibal.booking.application.dto.request.PriceDto;
+import ua.mibal.booking.application.dto.request.QuotesDto;
+import ua.mibal.booking.application.dto.request.SeasonalPriceDto;
+import ua.mibal.booking.application.dto.response.StayQuoteDto;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE;
+
 /**
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
@@ -64,4 +72,32 @@ public class PriceController {
                        @RequestParam("person") Integer person) {
         priceService.delete(apartmentId, person);
     }
+
+    @GetMapping("/seasonal")
+    public List<SeasonalPriceDto> getSeasonalPrices(@PathVariable Long apartmentId) {
+        return priceService.getAllSeasonalByApartment(apartmentId);
+    }
+
+    @ManagerAllowed
+    @PutMapping("/seasonal")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void putSeasonal(@PathVariable Long apartmentId,
+                            @RequestBody @Valid SeasonalPriceDto seasonalPriceDto) {
+        priceService.putSeasonal(apartmentId, seasonalPriceDto);
+    }
+
+    @ManagerAllowed
+    @DeleteMapping("/seasonal")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteSeasonal(@PathVariable Long apartmentId,
+                               @RequestParam("person") Integer person,
+                               @RequestParam("from") @DateTimeFormat(iso = DATE) LocalDate from) {
+        priceService.deleteSeasonal(apartmentId, person, from);
+    }
+
+    @PostMapping("/quotes")
+    public List<StayQuoteDto> quote(@PathVariable Long apartmentId,
+                                    @RequestBody @Valid QuotesDto quotesDto) {
+        return priceService.quote(apartmentId, quotesDto.quotes());
+    }
 }
@@ -17,12 +17,19 @@
 package ua.mibal.booking.adapter.in.web;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ua.mibal.booking.application.ReservationCalendarExportService;
 
+import java.time.LocalDate;
+
 /**
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
@@ -31,13 +38,27 @@ import ua.mibal.booking.application.ReservationCalendarExportService;
 @RestController
 @RequestMapping("/api")
 public class ReservationCalendarExportController {
+    private static final String TEXT_CALENDAR_VALUE = "text/calendar";
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType(TEXT_CALENDAR_VALUE);
+
     private final ReservationCalendarExportService reservationCalendarExportService;
 
     @GetMapping(
             value = "/apartments/instances/{id}/calendar.ics",
-            produces = "text/calendar"
+            produces = TEXT_CALENDAR_VALUE
     )
-    public String getICalForApartmentInstance(@PathVariable Long id) {
-        return reservationCalendarExportService.getCalendarForApartmentInstanceBy(id);
+    public ResponseEntity<StreamingResponseBody> getICalForApartmentInstance(@PathVariable Long id,
+                                                                             WebRequest request) {
+        LocalDate exportDay = reservationCalendarExportService.exportDay();
+        String eTag = reservationCalendarExportService.getCalendarETag(id, exportDay);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(TEXT_CALENDAR)
+                .body(calendarStream ->
+                        reservationCalendarExportService.writeCalendar(id, exportDay, calendarStream));
     }
 }
@@ -21,8 +21,10 @@ import org.springframework.data.jpa.repository.Query;
 import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.booking.domain.TurningOffTime;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +34,46 @@ import java.util.Optional;
  */
 public interface ApartmentInstanceJpaRepository extends JpaRepository<ApartmentInstance, Long>, ApartmentInstanceRepository {
 
+    @Query(value = """
+            select ai.id
+                from apartment_instances ai
+            where
+                ai.apartment_id = ?1
+                and exists (select 1
+                                from prices p
+                            where p.apartment_id = ai.apartment_id
+                                and p.person = ?4)
+                and not exists (select 1
+                                    from reservations r
+                                where r.apartment_instance_id = ai.id
+                                    and r.state <> 'REJECTED'
+                                    and r.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp)))
+                and not exists (select 1
+                                    from apartment_instances_turning_off_times tot
+                                where tot.apartment_instance_id = ai.id
+                                    and tot.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp)))
+                and not exists (select 1
+                                    from hotel_turning_off_times htot
+                                where htot.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp)))
+            """, nativeQuery = true)
+    List<Long> findFreeIdsByRequest(Long id, LocalDateTime from, LocalDateTime to, int people);
+
+    default List<ApartmentInstance> findFreeByRequestFetchApartmentAndPrices(Long id, LocalDateTime from, LocalDateTime to, int people) {
+        List<Long> ids = findFreeIdsByRequest(id, from, to, people);
+        return ids.isEmpty()
+                ? List.of()
+                : findByIdsFetchApartmentAndPrices(ids);
+    }
+
+    default List<ApartmentInstance> findFreeByRequestFetchApartmentAndPrices(ReservationRequest request) {
+        return findFreeByRequestFetchApartmentAndPrices(
+                request.apartmentId(),
+                request.from(),
+                request.to(),
+                request.people()
+        );
+    }
+
     @Query("""
             select ai
                 from ApartmentInstance ai
@@ -39,34 +81,77 @@ public interface ApartmentInstanceJpaRepository extends JpaRepository<ApartmentI
                 left join fetch a.prices
             where
                 ai.apartment.id = ?1
-                and (select (count(r.id) = 0)
-                        from Reservation r
-                        where r.apartmentInstance.id = ai.id
-                            and not (r.state = 'REJECTED' or r.details.to < ?2 or r.details.from > ?3))
-                and (select (count(distinct tot) = 0)
-                        from ApartmentInstance ai
-                            left join ai.turningOffTimes tot
-                        where not (tot.to < ?2 or tot.from > ?3))
-                and (select (count(htot.id) = 0)
-                        from HotelTurningOffTime htot
-                        where not (htot.to < ?2 or htot.from > ?3))
-                and (select (count(a.id) > 0)
-                        from Apartment a
-                            left join a.prices p
-                        where a.id = ?1
-                            and p.person = ?4)
+                and exists (select p
+                                from Apartment pa
+                                    join pa.prices p
+                            where pa.id = ?1
+                                and p.person = ?2)
             """)
-    List<ApartmentInstance> findFreeByRequestFetchApartmentAndPrices(Long id, LocalDateTime from, LocalDateTime to, int people);
+    List<ApartmentInstance> findByApartmentIdAndPeopleFetchApartmentAndPrices(Long apartmentId, int people);
 
-    default List<ApartmentInstance> findFreeByRequestFetchApartmentAndPrices(ReservationRequest request) {
-        return findFreeByRequestFetchApartmentAndPrices(
-                request.apartmentId(),
+    @Query("""
+            select ai
+                from ApartmentInstance ai
+                left join fetch ai.apartment a
+                left join fetch a.prices
+            where
+                exists (select p
+                            from Apartment pa
+                                join pa.prices p
+                        where pa.id = a.id
+                            and p.person = ?1)
+                order by a.id, ai.id
+            """)
+    List<ApartmentInstance> findByPeopleFetchApartmentAndPrices(int people);
+
+    @Query(value = """
+            select ai.id
+                from apartment_instances ai
+            where
+                exists (select 1
+                            from prices p
+                        where p.apartment_id = ai.apartment_id
+                            and p.person = ?3)
+                and not exists (select 1
+                                    from reservations r
+                                where r.apartment_instance_id = ai.id
+                                    and r.state <> 'REJECTED'
+                                    and r.during && tsrange(cast(?1 as timestamp), cast(?2 as timestamp)))
+                and not exists (select 1
+                                    from apartment_instances_turning_off_times tot
+                                where tot.apartment_instance_id = ai.id
+                                    and tot.during && tsrange(cast(?1 as timestamp), cast(?2 as timestamp)))
+                and not exists (select 1
+                                    from hotel_turning_off_times htot
+                                where htot.during && tsrange(cast(?1 as timestamp), cast(?2 as timestamp)))
+            """, nativeQuery = true)
+    List<Long> findFreeIdsByPeriodAndPeople(LocalDateTime from, LocalDateTime to, int people);
+
+    default List<ApartmentInstance> findFreeByPeriodAndPeopleFetchApartmentAndPrices(LocalDateTime from, LocalDateTime to, int people) {
+        List<Long> ids = findFreeIdsByPeriodAndPeople(from, to, people);
+        return ids.isEmpty()
+                ? List.of()
+                : findByIdsFetchApartmentAndPrices(ids);
+    }
+
+    default List<ApartmentInstance> findFreeByPeriodAndPeopleFetchApartmentAndPrices(ReservationRequest request) {
+        return findFreeByPeriodAndPeopleFetchApartmentAndPrices(
                 request.from(),
                 request.to(),
                 request.people()
         );
     }
 
+    @Query("""
+            select ai
+                from ApartmentInstance ai
+                left join fetch ai.apartment a
+                left join fetch a.prices
+            where ai.id in ?1
+                order by a.id, ai.id
+            """)
+    List<ApartmentInstance> findByIdsFetchApartmentAndPrices(Collection<Long> ids);
+
     @Query("""
             select ai
                 from ApartmentInstance ai
@@ -75,6 +160,86 @@ public interface ApartmentInstanceJpaRepository extends JpaRepository<ApartmentI
             """)
     Optional<ApartmentInstance> findByIdFetchReservations(Long id);
 
+    /**
+     * Namespace of advisory locks of apartment instance reservations,
+     * so they can not clash with advisory locks of other features
+     */
+    int RESERVATION_LOCK_NAMESPACE = 1;
+
+    @Query(value = """
+            select count(*)
+                from (select pg_advisory_xact_lock(?1, ?2)) l
+            """, nativeQuery = true)
+    long acquireAdvisoryTransactionLock(int namespace, int key);
+
+    /**
+     * Key is a hash of id: colliding instances are only serialized together
+     */
+    default void lockForReservation(Long id) {
+        acquireAdvisoryTransactionLock(RESERVATION_LOCK_NAMESPACE, Long.hashCode(id));
+    }
+
+    @Query("""
+            select ai
+                from ApartmentInstance ai
+                left join fetch ai.turningOffTimes
+            """)
+    List<ApartmentInstance> findAllFetchTurningOffTimes();
+
+    @Query("""
+            select ai
+                from ApartmentInstance ai
+            where ai.apartment.id = ?1
+                order by ai.id
+            """)
+    List<ApartmentInstance> findByApartmentId(Long apartmentId);
+
+    @Query("""
+            select new ua.mibal.booking.domain.TurningOffTime(t.from, t.to, ai)
+                from ApartmentInstance ai
+                join ai.turningOffTimes t
+            where ai.apartment.id = ?1
+                and t.to > ?2
+                and t.from < ?3
+                order by t.from
+            """)
+    List<TurningOffTime> findTurningOffTimesByApartmentIdIntersectingRange(Long apartmentId, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            select new ua.mibal.booking.domain.TurningOffTime(t.from, t.to, ai)
+                from ApartmentInstance ai
+                join ai.turningOffTimes t
+            where ai.id = ?1
+                and t.to > ?2
+                and t.from < ?3
+                order by t.from
+            """)
+    List<TurningOffTime> findTurningOffTimesByIdIntersectingRange(Long id, LocalDateTime from, LocalDateTime to);
+
+    @Query(value = """
+            select exists(select 1
+                              from apartment_instances_turning_off_times tot
+                          where tot.apartment_instance_id = ?1
+                              and tot.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp)))
+            """, nativeQuery = true)
+    boolean existsTurningOffTimeByIdIntersectingRange(Long id, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            select ai
+                from ApartmentInstance ai
+            where ai.bookingICalUrl is not null
+            """)
+    List<ApartmentInstance> findAllWithBookingICalUrl();
+
+    @Query(value = """
+            select ai.calendar_version || '-' || h.version
+                from apartment_instances ai,
+                     calendar_versions h
+            where ai.id = ?1
+                and h.name = 'hotel'
+            """, nativeQuery = true)
+    Optional<String> findCalendarVersionById(Long id);
+
     @Query("""
             select ai
                 from ApartmentInstance ai
@@ -17,11 +17,14 @@
 package ua.mibal.booking.adapter.out.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Photo;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,4 +63,65 @@ public interface ApartmentJpaRepository extends JpaRepository<Apartment, Long>,
             where a.id = ?1 and p = ?2
             """)
     boolean doesApartmentHavePhoto(Long id, Photo photo);
+
+    @Query(nativeQuery = true, value = """
+            select a.id from apartments a
+            where (cast(?1 as bigint) is null or a.id > ?1)
+                and (cast(?2 as varchar) is null or a.class = cast(?2 as varchar))
+                and a.amenities in (?3)
+                and (cast(?4 as integer) is null or a.capacity >= ?4)
+                and (cast(?5 as numeric) is null or (
+                        select min(p.price)
+                            from prices p
+                        where p.apartment_id = a.id
+                    ) >= ?5)
+                and (cast(?6 as numeric) is null or (
+                        select min(p.price)
+                            from prices p
+                        where p.apartment_id = a.id
+                    ) <= ?6)
+            order by a.id
+            limit ?7
+            """)
+    List<Long> findIdsByFilter(Long after,
+                               String apartmentClass,
+                               Collection<Integer> amenities,
+                               Integer people,
+                               BigDecimal priceFrom,
+                               BigDecimal priceTo,
+                               int limit);
+
+    @Query("""
+            select a from Apartment a
+                left join fetch a.photos
+            where a.id in ?1
+            order by a.id
+            """)
+    List<Apartment> findAllByIdInFetchPhotos(Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            update Apartment a
+                set a.ratingSum = a.ratingSum + ?2,
+                    a.ratingCount = a.ratingCount + 1
+            where a.id = ?1
+            """)
+    void addRate(Long id, Double rate);
+
+    @Modifying
+    @Query("""
+            update Apartment a
+                set a.ratingSum = case when a.ratingCount > 1 then a.ratingSum - ?2 else 0 end,
+                    a.ratingCount = a.ratingCount - 1
+            where a.id = ?1 and a.ratingCount > 0
+            """)
+    void removeRate(Long id, Double rate);
+
+    @Modifying
+    @Query("""
+            update Apartment a
+                set a.capacity = a.capacity + ?2
+            where a.id = ?1
+            """)
+    void addCapacity(Long id, int delta);
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ua.mibal.booking.application.port.jpa.ExternalEventRepository;
+import ua.mibal.booking.domain.ExternalEvent;
+import ua.mibal.booking.domain.ExternalEventSource;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public interface ExternalEventJpaRepository extends JpaRepository<ExternalEvent, Long>, ExternalEventRepository {
+
+    @Query("""
+            select ee
+                from ExternalEvent ee
+            where ee.apartmentInstance.id = ?1
+                and ee.source = ?2
+            """)
+    List<ExternalEvent> findByApartmentInstanceIdAndSource(Long apartmentInstanceId, ExternalEventSource source);
+
+    @Query("""
+            select ee
+                from ExternalEvent ee
+            where ee.apartmentInstance.id = ?1
+                and ee.to > now()
+            """)
+    List<ExternalEvent> findByApartmentInstanceIdFromNow(Long apartmentInstanceId);
+
+    @Query(value = """
+            select ee.*
+                from external_events ee
+            where ee.apartment_instance_id in (?1)
+                and ee.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp))
+            """, nativeQuery = true)
+    List<ExternalEvent> findByApartmentInstanceIdsIntersectingRange(Collection<Long> apartmentInstanceIds, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = """
+            select exists (select 1
+                               from external_events ee
+                           where ee.apartment_instance_id = ?1
+                               and ee.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp)))
+            """, nativeQuery = true)
+    boolean existsByApartmentInstanceIdIntersectingRange(Long apartmentInstanceId, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = """
+            select distinct ee.apartment_instance_id
+                from external_events ee
+            where ee.apartment_instance_id in (?1)
+                and ee.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp))
+            """, nativeQuery = true)
+    List<Long> findApartmentInstanceIdsIntersectingRange(Collection<Long> apartmentInstanceIds, LocalDateTime start, LocalDateTime end);
+}
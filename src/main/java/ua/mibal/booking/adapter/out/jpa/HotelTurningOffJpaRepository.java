@@ -21,6 +21,7 @@ import org.springframework.data.jpa.repository.Query;
 import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
 import ua.mibal.booking.domain.HotelTurningOffTime;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -35,4 +36,53 @@ public interface HotelTurningOffJpaRepository extends JpaRepository<HotelTurning
             where htot.to > now()
             """)
     List<HotelTurningOffTime> findFromNow();
+
+    @Query("""
+            select htot
+                from HotelTurningOffTime htot
+            where htot.to > ?1
+            """)
+    List<HotelTurningOffTime> findEndingAfter(LocalDateTime dateTime);
+
+    @Query(value = """
+            select htot.*
+                from hotel_turning_off_times htot
+            where htot.during && tsrange(cast(?1 as timestamp), cast(?2 as timestamp))
+            order by htot."from"
+            """, nativeQuery = true)
+    List<HotelTurningOffTime> findIntersectingRange(LocalDateTime from, LocalDateTime to);
+
+    @Query(value = """
+            select exists(select 1
+                              from hotel_turning_off_times htot
+                          where htot.during && tsrange(cast(?1 as timestamp), cast(?2 as timestamp)))
+            """, nativeQuery = true)
+    boolean existsIntersectingRange(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Namespace of hotel advisory lock, differs from
+     * {@link ApartmentInstanceJpaRepository#RESERVATION_LOCK_NAMESPACE}
+     */
+    int HOTEL_LOCK_NAMESPACE = 2;
+    int HOTEL_LOCK_KEY = 0;
+
+    @Query(value = """
+            select count(*)
+                from (select pg_advisory_xact_lock_shared(?1, ?2)) l
+            """, nativeQuery = true)
+    long acquireSharedAdvisoryTransactionLock(int namespace, int key);
+
+    @Query(value = """
+            select count(*)
+                from (select pg_advisory_xact_lock(?1, ?2)) l
+            """, nativeQuery = true)
+    long acquireAdvisoryTransactionLock(int namespace, int key);
+
+    default void lockForReservation() {
+        acquireSharedAdvisoryTransactionLock(HOTEL_LOCK_NAMESPACE, HOTEL_LOCK_KEY);
+    }
+
+    default void lockForTurningOff() {
+        acquireAdvisoryTransactionLock(HOTEL_LOCK_NAMESPACE, HOTEL_LOCK_KEY);
+    }
 }
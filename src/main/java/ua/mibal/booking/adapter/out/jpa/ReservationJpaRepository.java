@@ -20,11 +20,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ua.mibal.booking.application.dto.response.SimpleEvent;
 import ua.mibal.booking.application.port.jpa.ReservationRepository;
 import ua.mibal.booking.domain.Reservation;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationJpaRepository extends JpaRepository<Reservation, Long>, ReservationRepository {
 
@@ -45,12 +48,67 @@ public interface ReservationJpaRepository extends JpaRepository<Reservation, Lon
             """)
     Optional<Reservation> findByIdFetchRejections(Long id);
 
+    @Query(value = """
+            select exists (select 1
+                               from reservations r
+                           where r.state <> 'REJECTED'
+                               and r.during && tsrange(cast(?1 as timestamp), cast(?2 as timestamp)))
+            """, nativeQuery = true)
+    boolean existsReservationThatIntersectsRange(LocalDateTime start, LocalDateTime end);
+
+    @Query(value = """
+            select exists (select 1
+                               from reservations r
+                           where r.apartment_instance_id = ?1
+                               and r.state <> 'REJECTED'
+                               and r.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp)))
+            """, nativeQuery = true)
+    boolean existsNotRejectedByApartmentInstanceIdIntersectingRange(Long apartmentInstanceId, LocalDateTime start, LocalDateTime end);
+
     @Query("""
-            select count(r.id) > 0
-                from Reservation r
+            select r from Reservation r
             where
                 r.state != 'REJECTED'
-                and r.details.to > ?1 and r.details.from < ?2
+                and r.details.to > now()
             """)
-    boolean existsReservationThatIntersectsRange(LocalDateTime start, LocalDateTime end);
+    List<Reservation> findNotRejectedFromNow();
+
+    /**
+     * Streams events instead of {@link Reservation} entities,
+     * so long streams do not fill persistence context.
+     * Event name is the same as {@link Reservation#getEventName()}.
+     */
+    @Query("""
+            select new ua.mibal.booking.application.dto.response.SimpleEvent(
+                r.details.from, r.details.to, concat(ai.name, ' reservation')
+            )
+            from Reservation r
+                join r.apartmentInstance ai
+            where ai.id = ?1
+                and r.state != 'REJECTED'
+                and r.details.to > ?2
+            order by r.details.from
+            """)
+    Stream<SimpleEvent> streamNotRejectedEventsByApartmentInstanceIdEndingAfter(Long apartmentInstanceId, LocalDateTime dateTime);
+
+    @Query(value = """
+            select r.*
+                from reservations r
+                join apartment_instances ai on ai.id = r.apartment_instance_id
+            where ai.apartment_id = ?1
+                and r.state <> 'REJECTED'
+                and r.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp))
+            order by r."from"
+            """, nativeQuery = true)
+    List<Reservation> findNotRejectedByApartmentIdIntersectingRange(Long apartmentId, LocalDateTime from, LocalDateTime to);
+
+    @Query(value = """
+            select r.*
+                from reservations r
+            where r.apartment_instance_id = ?1
+                and r.state <> 'REJECTED'
+                and r.during && tsrange(cast(?2 as timestamp), cast(?3 as timestamp))
+            order by r."from"
+            """, nativeQuery = true)
+    List<Reservation> findNotRejectedByApartmentInstanceIdIntersectingRange(Long apartmentInstanceId, LocalDateTime from, LocalDateTime to);
 }
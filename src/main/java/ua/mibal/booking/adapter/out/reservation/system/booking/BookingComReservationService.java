@@ -17,16 +17,15 @@
 package ua.mibal.booking.adapter.out.reservation.system.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import ua.mibal.booking.application.ICalService;
+import ua.mibal.booking.adapter.out.reservation.system.booking.component.ICalFeedCache;
 import ua.mibal.booking.application.port.ReservationSystem;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Event;
 import ua.mibal.booking.domain.ReservationRequest;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -34,13 +33,17 @@ import java.util.function.Predicate;
 import static java.util.Collections.emptyList;
 
 /**
+ * Live {@link ReservationSystem} that reads Booking.com feeds on demand.
+ * Used only when background synchronization of external events is disabled.
+ *
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
+@ConditionalOnProperty(name = "booking-com.sync.enabled", havingValue = "false")
 @RequiredArgsConstructor
 @Service
 public class BookingComReservationService implements ReservationSystem {
-    private final ICalService iCalService;
+    private final ICalFeedCache iCalFeedCache;
 
     @Override
     public boolean isFreeForReservation(ApartmentInstance apartmentInstance,
@@ -65,23 +68,12 @@ public class BookingComReservationService implements ReservationSystem {
     private List<Event> getEventsByCalendarUrl(String calendarUrl,
                                                ApartmentInstance apartmentInstance) {
         try {
-            return getEventsByCalendarUrl0(calendarUrl);
-        } catch (IOException e) {
+            return iCalFeedCache.getEvents(calendarUrl);
+        } catch (IOException | IllegalArgumentException e) {
             throw new BookingComServiceException(
-                    "ApartmentInstance with id='%d' has illegal ICalendar format at URL='%s'"
+                    "ApartmentInstance with id='%d' has unavailable ICalendar at URL='%s'"
                             .formatted(apartmentInstance.getId(), calendarUrl), e
             );
         }
     }
-
-    private List<Event> getEventsByCalendarUrl0(String calendarUrl) throws IOException {
-        try (InputStream calendar = streamFromUrl(calendarUrl)) {
-            return iCalService.getEventsFromCalendarFile(calendar);
-        }
-    }
-
-    private InputStream streamFromUrl(String calendarUrl) throws IOException {
-        URL url = new URL(calendarUrl);
-        return url.openStream();
-    }
 }
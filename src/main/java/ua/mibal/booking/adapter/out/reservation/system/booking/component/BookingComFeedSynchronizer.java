@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.reservation.system.booking.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.application.ExternalEventService;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toSet;
+import static ua.mibal.booking.domain.ExternalEventSource.BOOKING_COM;
+
+/**
+ * Pulls Booking.com feeds of all apartment instances into {@code external_events}.
+ * <p>
+ * Publishes {@code external_events.sync.lag} gauge: seconds since the oldest
+ * successful synchronization among instances (instances that were never
+ * synchronized count from the application start).
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Slf4j
+@Component
+public class BookingComFeedSynchronizer {
+    private final Map<Long, Long> lastSynchronizedAt = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    private final ApartmentInstanceRepository apartmentInstanceRepository;
+    private final ICalFeedCache iCalFeedCache;
+    private final ExternalEventService externalEventService;
+    private final Timer duration;
+    private final Counter failures;
+
+    public BookingComFeedSynchronizer(ApartmentInstanceRepository apartmentInstanceRepository,
+                                      ICalFeedCache iCalFeedCache,
+                                      ExternalEventService externalEventService,
+                                      MeterRegistry meterRegistry) {
+        this.apartmentInstanceRepository = apartmentInstanceRepository;
+        this.iCalFeedCache = iCalFeedCache;
+        this.externalEventService = externalEventService;
+        this.duration = Timer.builder("external_events.sync.duration")
+                .tag("source", BOOKING_COM.name())
+                .register(meterRegistry);
+        this.failures = Counter.builder("external_events.sync.failures")
+                .tag("source", BOOKING_COM.name())
+                .register(meterRegistry);
+        Gauge.builder("external_events.sync.lag", this, BookingComFeedSynchronizer::lagSeconds)
+                .tag("source", BOOKING_COM.name())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void synchronizeAll() {
+        long start = System.nanoTime();
+        List<ApartmentInstance> instances = apartmentInstanceRepository.findAllWithBookingICalUrl();
+        lastSynchronizedAt.keySet().retainAll(instances.stream()
+                .map(ApartmentInstance::getId)
+                .collect(toSet()));
+        int changed = 0;
+        for (ApartmentInstance instance : instances) {
+            changed += synchronize(instance);
+        }
+        duration.record(System.nanoTime() - start, NANOSECONDS);
+        log.info("{} external events of {} apartment instances synchronized", changed, instances.size());
+    }
+
+    double lagSeconds() {
+        long now = System.currentTimeMillis();
+        long oldest = lastSynchronizedAt.values().stream()
+                .mapToLong(Long::longValue)
+                .min()
+                .orElse(now);
+        return (double) (now - oldest) / SECONDS.toMillis(1);
+    }
+
+    private int synchronize(ApartmentInstance instance) {
+        lastSynchronizedAt.putIfAbsent(instance.getId(), startedAt);
+        String calendarUrl = instance.getBookingICalUrl().orElseThrow();
+        try {
+            List<Event> events = iCalFeedCache.getFreshEvents(calendarUrl);
+            int changed = externalEventService.synchronize(instance.getId(), BOOKING_COM, events);
+            lastSynchronizedAt.put(instance.getId(), System.currentTimeMillis());
+            return changed;
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.warn("ApartmentInstance with id='{}' was not synchronized with ICalendar at URL='{}'",
+                    instance.getId(), calendarUrl, e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.reservation.system.booking.component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.adapter.out.reservation.system.booking.config.BookingComFeedProps;
+import ua.mibal.booking.application.ICalService;
+import ua.mibal.booking.domain.Event;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Cache of parsed ICalendar feeds keyed by feed URL.
+ * <p>
+ * Feed younger than {@code ttl} is served from memory.
+ * Feed older than {@code ttl} but younger than {@code ttl + staleWhileRevalidate}
+ * is served from memory too, while a single background conditional request
+ * ({@code If-None-Match}/{@code If-Modified-Since}) revalidates it.
+ * Only missing or too old feeds are loaded on the caller thread.
+ * The whole exchange, including reading of the body, is bounded by request timeout
+ * and cancelled when it is exceeded, so a slowly sent body can not block the caller.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ICalFeedCache {
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    private final HttpClient bookingComHttpClient;
+    private final ICalService iCalService;
+    private final BookingComFeedProps bookingComFeedProps;
+
+    public List<Event> getEvents(String calendarUrl) throws IOException {
+        Feed feed = feeds.get(calendarUrl);
+        long now = System.nanoTime();
+        if (feed == null || feed.isOlderThan(maxStaleNanos(), now)) {
+            return load(calendarUrl, feed).events();
+        }
+        if (feed.isOlderThan(bookingComFeedProps.ttl().toNanos(), now)) {
+            revalidateInBackground(calendarUrl, feed);
+        }
+        return feed.events();
+    }
+
+    /**
+     * Loads feed on the caller thread regardless of its age,
+     * still using conditional request when feed is cached.
+     */
+    public List<Event> getFreshEvents(String calendarUrl) throws IOException {
+        return load(calendarUrl, feeds.get(calendarUrl)).events();
+    }
+
+    private Feed load(String calendarUrl, Feed cached) throws IOException {
+        CompletableFuture<HttpResponse<byte[]>> exchange = sendAsync(calendarUrl, cached);
+        try {
+            HttpResponse<byte[]> response =
+                    exchange.get(bookingComFeedProps.requestTimeout().toNanos(), NANOSECONDS);
+            return store(calendarUrl, cached, response);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException(
+                    "ICalendar feed was not loaded in " + bookingComFeedProps.requestTimeout()
+            );
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading ICalendar feed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Exception while loading ICalendar feed", e.getCause());
+        }
+    }
+
+    private void revalidateInBackground(String calendarUrl, Feed cached) {
+        if (!revalidating.add(calendarUrl)) {
+            return;
+        }
+        CompletableFuture<HttpResponse<byte[]>> exchange = sendAsync(calendarUrl, cached);
+        CompletableFuture.delayedExecutor(bookingComFeedProps.requestTimeout().toNanos(), NANOSECONDS)
+                .execute(() -> exchange.cancel(true));
+        exchange
+                .thenApply(response -> {
+                    try {
+                        return store(calendarUrl, cached, response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .whenComplete((feed, e) -> {
+                    revalidating.remove(calendarUrl);
+                    if (e != null) {
+                        log.warn("Stale ICalendar feed at URL='{}' was not revalidated", calendarUrl, e);
+                    }
+                });
+    }
+
+    /**
+     * Body is read fully by {@link HttpClient}, so request timeout
+     * of the returned exchange bounds reading of the body as well
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendAsync(String calendarUrl, Feed cached) {
+        return bookingComHttpClient.sendAsync(requestFor(calendarUrl, cached), BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest requestFor(String calendarUrl, Feed cached) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(calendarUrl))
+                .timeout(bookingComFeedProps.requestTimeout())
+                .GET();
+        if (cached != null) {
+            cached.eTag().ifPresent(eTag -> request.header("If-None-Match", eTag));
+            cached.lastModified().ifPresent(lastModified -> request.header("If-Modified-Since", lastModified));
+        }
+        return request.build();
+    }
+
+    private Feed store(String calendarUrl, Feed cached,
+                       HttpResponse<byte[]> response) throws IOException {
+        Feed feed;
+        if (response.statusCode() == HTTP_NOT_MODIFIED && cached != null) {
+            feed = cached.revalidated(System.nanoTime());
+        } else if (response.statusCode() == HTTP_OK) {
+            feed = new Feed(
+                    List.copyOf(iCalService.getEventsFromCalendarFile(new ByteArrayInputStream(response.body()))),
+                    response.headers().firstValue("ETag"),
+                    response.headers().firstValue("Last-Modified"),
+                    System.nanoTime()
+            );
+        } else {
+            throw new IOException("Unexpected response status " + response.statusCode());
+        }
+        feeds.put(calendarUrl, feed);
+        return feed;
+    }
+
+    private long maxStaleNanos() {
+        return bookingComFeedProps.ttl()
+                .plus(bookingComFeedProps.staleWhileRevalidate())
+                .toNanos();
+    }
+
+    private record Feed(
+            List<Event> events,
+            Optional<String> eTag,
+            Optional<String> lastModified,
+            long fetchedAt
+    ) {
+        boolean isOlderThan(long ageNanos, long now) {
+            return now - fetchedAt > ageNanos;
+        }
+
+        Feed revalidated(long now) {
+            return new Feed(events, eTag, lastModified, now);
+        }
+    }
+}
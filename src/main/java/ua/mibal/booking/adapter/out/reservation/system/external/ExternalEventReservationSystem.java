@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.reservation.system.external;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ua.mibal.booking.application.ExternalEventService;
+import ua.mibal.booking.application.port.ReservationSystem;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.booking.domain.ReservationRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link ReservationSystem} backed by external events synchronized
+ * into local database, so it never touches the network.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@ConditionalOnProperty(name = "booking-com.sync.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Service
+public class ExternalEventReservationSystem implements ReservationSystem {
+    private final ExternalEventService externalEventService;
+
+    @Override
+    public List<Event> getEventsFor(ApartmentInstance apartmentInstance) {
+        return List.copyOf(externalEventService.getForNow(apartmentInstance.getId()));
+    }
+
+    /**
+     * Loads events of all {@code apartmentInstances} by one windowed query
+     */
+    @Override
+    public Map<Long, List<Event>> getEventsFor(List<ApartmentInstance> apartmentInstances,
+                                               LocalDateTime from, LocalDateTime to) {
+        if (apartmentInstances.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = apartmentInstances.stream()
+                .map(ApartmentInstance::getId)
+                .toList();
+        return externalEventService.getIntersecting(ids, from, to).stream()
+                .collect(groupingBy(
+                        event -> event.getApartmentInstance().getId(),
+                        mapping(event -> (Event) event, toList())
+                ));
+    }
+
+    @Override
+    public boolean isFreeForReservation(ApartmentInstance apartmentInstance,
+                                        ReservationRequest reservationRequest) {
+        return !externalEventService.existsIntersecting(
+                apartmentInstance.getId(), reservationRequest.from(), reservationRequest.to()
+        );
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    /**
+     * Checks all {@code apartmentInstances} by one query
+     */
+    @Override
+    public void filterForFree(List<ApartmentInstance> apartmentInstances,
+                              ReservationRequest reservationRequest) {
+        if (apartmentInstances.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = apartmentInstances.stream()
+                .map(ApartmentInstance::getId)
+                .collect(Collectors.toSet());
+        Set<Long> reservedIds = externalEventService.getIntersectingApartmentInstanceIds(
+                ids, reservationRequest.from(), reservationRequest.to()
+        );
+        apartmentInstances.removeIf(apartmentInstance ->
+                reservedIds.contains(apartmentInstance.getId()));
+    }
+}
@@ -18,6 +18,9 @@ package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ua.mibal.booking.application.component.AvailabilityIndex;
+import ua.mibal.booking.application.component.HotelTurningOffSnapshot;
+import ua.mibal.booking.application.component.InstanceScorer;
 import ua.mibal.booking.application.dto.request.CreateApartmentInstanceDto;
 import ua.mibal.booking.application.exception.ApartmentInstanceNotFoundException;
 import ua.mibal.booking.application.exception.ApartmentIsNotAvailableForReservation;
@@ -28,9 +31,18 @@ import ua.mibal.booking.application.port.jpa.ApartmentRepository;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.booking.domain.TurningOffTime;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
 
 /**
  * @author Mykhailo Balakhon
@@ -43,12 +55,32 @@ public class ApartmentInstanceService {
     private final ApartmentRepository apartmentRepository;
     private final ApartmentInstanceMapper apartmentInstanceMapper;
     private final ReservationSystemManager reservationSystemManager;
+    private final AvailabilityIndex availabilityIndex;
+    private final InstanceScorer instanceScorer;
+    private final HotelTurningOffSnapshot hotelTurningOffSnapshot;
 
     public ApartmentInstance getFreeOneFetchApartmentAndPrices(ReservationRequest request) {
         List<ApartmentInstance> free = getFree(request);
         return selectMostSuitable(free, request);
     }
 
+    /**
+     * Searches the whole catalog by one set-based lookup of local availability
+     * and one batch check of all candidates by external reservation systems.
+     *
+     * @return apartments with at least one free instance in request period
+     */
+    public List<Apartment> getFreeApartmentsFetchPrices(ReservationRequest request) {
+        List<ApartmentInstance> free = new ArrayList<>(getFreeLocalForAll(request));
+        reservationSystemManager.filterForFree(free, request);
+        Map<Long, List<ApartmentInstance>> freeByApartmentId = free.stream()
+                .collect(groupingBy(instance -> instance.getApartment().getId(), LinkedHashMap::new, toList()));
+        return freeByApartmentId.values()
+                .stream()
+                .map(instances -> instances.get(0).getApartment())
+                .toList();
+    }
+
     public void create(Long apartmentId,
                        CreateApartmentInstanceDto createApartmentInstanceDto) {
         validateApartmentExists(apartmentId);
@@ -62,6 +94,7 @@ public class ApartmentInstanceService {
     public void delete(Long id) {
         validateApartmentInstanceExists(id);
         apartmentInstanceRepository.deleteById(id);
+        availabilityIndex.unregister(id);
     }
 
     public ApartmentInstance getOneFetchReservations(Long id) {
@@ -69,6 +102,24 @@ public class ApartmentInstanceService {
                 .orElseThrow(() -> new ApartmentInstanceNotFoundException(id));
     }
 
+    public ApartmentInstance getOne(Long id) {
+        return apartmentInstanceRepository.findById(id)
+                .orElseThrow(() -> new ApartmentInstanceNotFoundException(id));
+    }
+
+    public List<ApartmentInstance> getAllByApartmentId(Long apartmentId) {
+        validateApartmentExists(apartmentId);
+        return apartmentInstanceRepository.findByApartmentId(apartmentId);
+    }
+
+    public List<TurningOffTime> getTurningOffTimesForApartmentAt(Long apartmentId, LocalDateTime from, LocalDateTime to) {
+        return apartmentInstanceRepository.findTurningOffTimesByApartmentIdIntersectingRange(apartmentId, from, to);
+    }
+
+    public List<TurningOffTime> getTurningOffTimesAt(Long id, LocalDateTime from, LocalDateTime to) {
+        return apartmentInstanceRepository.findTurningOffTimesByIdIntersectingRange(id, from, to);
+    }
+
     private List<ApartmentInstance> getFree(ReservationRequest reservationRequest) {
         List<ApartmentInstance> freeLocal = getFreeLocal(reservationRequest);
         reservationSystemManager.filterForFree(freeLocal, reservationRequest);
@@ -76,9 +127,38 @@ public class ApartmentInstanceService {
     }
 
     private List<ApartmentInstance> getFreeLocal(ReservationRequest reservationRequest) {
-        List<ApartmentInstance> freeLocal =
-                apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(reservationRequest);
-        return new ArrayList<>(freeLocal);
+        if (isHotelTurnedOffAt(reservationRequest)) {
+            return new ArrayList<>();
+        }
+        if (!availabilityIndex.isReady()) {
+            List<ApartmentInstance> freeLocal =
+                    apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(reservationRequest);
+            return new ArrayList<>(freeLocal);
+        }
+        return apartmentInstanceRepository.findByApartmentIdAndPeopleFetchApartmentAndPrices(
+                        reservationRequest.apartmentId(), reservationRequest.people())
+                .stream()
+                .filter(instance -> availabilityIndex.isFree(
+                        instance.getId(), reservationRequest.from(), reservationRequest.to()))
+                .collect(toCollection(ArrayList::new));
+    }
+
+    private List<ApartmentInstance> getFreeLocalForAll(ReservationRequest reservationRequest) {
+        if (isHotelTurnedOffAt(reservationRequest)) {
+            return List.of();
+        }
+        if (!availabilityIndex.isReady()) {
+            return apartmentInstanceRepository.findFreeByPeriodAndPeopleFetchApartmentAndPrices(reservationRequest);
+        }
+        return apartmentInstanceRepository.findByPeopleFetchApartmentAndPrices(reservationRequest.people())
+                .stream()
+                .filter(instance -> availabilityIndex.isFree(
+                        instance.getId(), reservationRequest.from(), reservationRequest.to()))
+                .toList();
+    }
+
+    private boolean isHotelTurnedOffAt(ReservationRequest reservationRequest) {
+        return hotelTurningOffSnapshot.intersects(reservationRequest.from(), reservationRequest.to());
     }
 
     private ApartmentInstance selectMostSuitable(List<ApartmentInstance> variants,
@@ -89,8 +169,9 @@ public class ApartmentInstanceService {
         if (variants.size() == 1) {
             return variants.get(0);
         }
-        // TODO implement logic
-        return variants.get(0);
+        return variants.stream()
+                .max(comparingLong(variant -> instanceScorer.score(variant, request)))
+                .orElseThrow();
     }
 
     private void validateApartmentExists(Long id) {
@@ -17,20 +17,32 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.component.ApartmentCardCatalog;
+import ua.mibal.booking.application.dto.request.ApartmentFilterDto;
 import ua.mibal.booking.application.dto.request.CreateApartmentDto;
+import ua.mibal.booking.application.dto.request.ReservationDto;
 import ua.mibal.booking.application.dto.request.UpdateApartmentDto;
 import ua.mibal.booking.application.dto.response.ApartmentCardDto;
+import ua.mibal.booking.application.dto.response.ApartmentCardPageDto;
 import ua.mibal.booking.application.dto.response.ApartmentDto;
+import ua.mibal.booking.application.dto.response.FreeApartmentDto;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.booking.application.mapper.ApartmentMapper;
+import ua.mibal.booking.application.mapper.ReservationRequestMapper;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
+import ua.mibal.booking.application.util.AmenityMask;
+import ua.mibal.booking.domain.Amenity;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Photo;
+import ua.mibal.booking.domain.ReservationRequest;
 import ua.mibal.booking.application.exception.ApartmentDoesNotHavePhotoException;
 import ua.mibal.booking.application.exception.ApartmentNotFoundException;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Mykhailo Balakhon
@@ -41,13 +53,44 @@ import java.util.List;
 public class ApartmentService {
     private final ApartmentRepository apartmentRepository;
     private final ApartmentMapper apartmentMapper;
+    private final ApartmentInstanceService apartmentInstanceService;
+    private final ReservationRequestMapper reservationRequestMapper;
+    private final ApartmentCardCatalog apartmentCardCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional(readOnly = true) // for LAZY Apartment.beds fetch
-    public List<ApartmentCardDto> getAllFetchPhotosBeds() {
-        return apartmentRepository.findAllFetchPhotos()
+    public List<ApartmentCardDto> getAllFetchPhotosBeds(Set<Amenity> amenities) {
+        return apartmentCardCatalog.getAllWithAmenities(AmenityMask.of(amenities));
+    }
+
+    @Transactional(readOnly = true) // for LAZY Apartment.prices fetch
+    public ApartmentCardPageDto search(ApartmentFilterDto filter) {
+        List<Long> ids = apartmentRepository.findIdsByFilter(
+                filter.after(),
+                filter.apartmentClass() == null ? null : filter.apartmentClass().name(),
+                AmenityMask.supersetsOf(filter.requiredAmenities()),
+                filter.people(),
+                filter.priceFrom(),
+                filter.priceTo(),
+                filter.size() + 1
+        );
+        boolean hasNext = ids.size() > filter.size();
+        List<Long> pageIds = hasNext ? ids.subList(0, filter.size()) : ids;
+        List<ApartmentCardDto> cards = pageIds.isEmpty()
+                ? List.of()
+                : apartmentRepository.findAllByIdInFetchPhotos(pageIds)
                 .stream()
                 .map(apartmentMapper::toCardDto)
                 .toList();
+        return new ApartmentCardPageDto(cards, hasNext ? pageIds.get(pageIds.size() - 1) : null);
+    }
+
+    public List<FreeApartmentDto> getFree(ReservationDto reservationDto) {
+        ReservationRequest request =
+                reservationRequestMapper.toRequest(reservationDto, null, null);
+        return apartmentInstanceService.getFreeApartmentsFetchPrices(request)
+                .stream()
+                .map(apartment -> apartmentMapper.toFreeDto(apartment, request.people()))
+                .toList();
     }
 
     public Apartment getOne(Long id) {
@@ -80,17 +123,20 @@ public class ApartmentService {
     public void create(CreateApartmentDto createApartmentDto) {
         Apartment apartment = apartmentMapper.toEntity(createApartmentDto);
         apartmentRepository.save(apartment);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartment.getId()));
     }
 
     @Transactional
     public void update(UpdateApartmentDto updateApartmentDto, Long id) {
         Apartment apartment = getOne(id);
         apartmentMapper.update(apartment, updateApartmentDto);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(id));
     }
 
     public void delete(Long id) {
         validateExists(id);
         apartmentRepository.deleteById(id);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(id));
     }
 
     public void validateApartmentHasPhoto(Long id, String link) {
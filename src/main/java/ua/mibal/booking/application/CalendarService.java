@@ -19,61 +19,142 @@ package ua.mibal.booking.application;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.dto.request.CalendarWindowDto;
 import ua.mibal.booking.application.dto.response.calendar.Calendar;
+import ua.mibal.booking.application.dto.response.calendar.ColumnarCalendars;
 import ua.mibal.booking.application.util.CollectionUtils;
-import ua.mibal.booking.domain.Apartment;
+import ua.mibal.booking.application.util.EventCoalescer;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Event;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.TurningOffTime;
 
+import java.time.LocalDateTime;
+import java.time.Period;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import static java.time.LocalDateTime.now;
+import static java.util.stream.Collectors.groupingBy;
 
 /**
+ * Calendars contain only events intersecting requested window,
+ * which is pushed down to the queries, so the response cost depends
+ * on the window size and not on the whole reservation history.
+ * On demand, events of every calendar are coalesced into minimal busy ranges.
+ * Calendars are available as lists of {@link Calendar} events
+ * or in compact {@link ColumnarCalendars} form.
+ *
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
 @RequiredArgsConstructor
 @Service
 public class CalendarService {
+    static final Period DEFAULT_WINDOW_LENGTH = CalendarWindowDto.MAX_LENGTH;
+
     private final ReservationSystemManager reservationSystemManager;
     private final ApartmentInstanceService apartmentInstanceService;
-    private final ApartmentService apartmentService;
+    private final ReservationService reservationService;
     private final TurningOffService turningOffService;
 
+    /**
+     * Loads all apartment instances, their turning off times,
+     * not rejected reservations, hotel turning off times
+     * and events of integrated reservation systems
+     * in a constant number of queries regardless of instances count.
+     */
     @Transactional(readOnly = true)
-    public List<Calendar> getCalendarsForApartment(Long apartmentId) {
-        Apartment apartment =
-                apartmentService.getOneFetchInstances(apartmentId);
-        return calendarsForApartment(apartment);
+    public List<Calendar> getCalendarsForApartment(Long apartmentId, CalendarWindowDto window, boolean coalesce) {
+        return eventsForApartment(apartmentId, window, coalesce)
+                .stream()
+                .map(Calendar::of)
+                .toList();
     }
 
     @Transactional(readOnly = true)
-    public Calendar getCalendarForApartmentInstance(Long instanceId) {
-        ApartmentInstance instance =
-                apartmentInstanceService.getOneFetchReservations(instanceId);
-        List<? extends Event> hotelEvents =
-                turningOffService.getForHotelForNow();
-        return calendarForApartmentInstance(instance, hotelEvents);
+    public ColumnarCalendars getColumnarCalendarsForApartment(Long apartmentId, CalendarWindowDto window, boolean coalesce) {
+        return ColumnarCalendars.of(eventsForApartment(apartmentId, window, coalesce));
+    }
+
+    @Transactional(readOnly = true)
+    public Calendar getCalendarForApartmentInstance(Long instanceId, CalendarWindowDto window, boolean coalesce) {
+        return Calendar.of(eventsForApartmentInstance(instanceId, window, coalesce));
+    }
+
+    @Transactional(readOnly = true)
+    public ColumnarCalendars getColumnarCalendarForApartmentInstance(Long instanceId, CalendarWindowDto window, boolean coalesce) {
+        return ColumnarCalendars.of(List.of(eventsForApartmentInstance(instanceId, window, coalesce)));
     }
 
-    private List<Calendar> calendarsForApartment(Apartment apartment) {
+    private List<Collection<Event>> eventsForApartment(Long apartmentId, CalendarWindowDto window, boolean coalesce) {
+        LocalDateTime from = windowStart(window);
+        LocalDateTime to = windowEnd(window, from);
+        List<ApartmentInstance> instances =
+                apartmentInstanceService.getAllByApartmentId(apartmentId);
+        Map<Long, List<Reservation>> reservationsByInstanceId =
+                reservationService.getNotRejectedForApartmentAt(apartmentId, from, to)
+                        .stream()
+                        .collect(groupingBy(reservation -> reservation.getApartmentInstance().getId()));
+        Map<Long, List<TurningOffTime>> turningOffTimesByInstanceId =
+                apartmentInstanceService.getTurningOffTimesForApartmentAt(apartmentId, from, to)
+                        .stream()
+                        .collect(groupingBy(turningOffTime -> turningOffTime.getApartmentInstance().getId()));
         List<? extends Event> hotelEvents =
-                turningOffService.getForHotelForNow();
-        return apartment.getApartmentInstances()
-                .stream()
-                .map(instance ->
-                        calendarForApartmentInstance(instance, hotelEvents))
+                turningOffService.getForHotelAt(from, to);
+        Map<Long, List<Event>> integratedSystemEventsByInstanceId =
+                reservationSystemManager.getEventsFor(instances, from, to);
+        return instances.stream()
+                .map(instance -> {
+                    List<Event> localApartmentInstanceEvents = CollectionUtils.union(
+                            reservationsByInstanceId.getOrDefault(instance.getId(), List.of()),
+                            turningOffTimesByInstanceId.getOrDefault(instance.getId(), List.of())
+                    );
+                    List<Event> integratedSystemEvents =
+                            integratedSystemEventsByInstanceId.getOrDefault(instance.getId(), List.of());
+                    return eventsForApartmentInstance(localApartmentInstanceEvents, hotelEvents, integratedSystemEvents, coalesce);
+                })
                 .toList();
     }
 
-    private Calendar calendarForApartmentInstance(ApartmentInstance apartmentInstance,
-                                                  List<? extends Event> hotelEvents) {
-        List<Event> localApartmentInstanceEvents =
-                apartmentInstance.getNotRejectedEventsForNow();
+    private Collection<Event> eventsForApartmentInstance(Long instanceId, CalendarWindowDto window, boolean coalesce) {
+        LocalDateTime from = windowStart(window);
+        LocalDateTime to = windowEnd(window, from);
+        ApartmentInstance instance =
+                apartmentInstanceService.getOne(instanceId);
+        List<Event> localApartmentInstanceEvents = CollectionUtils.union(
+                reservationService.getNotRejectedForApartmentInstanceAt(instanceId, from, to),
+                apartmentInstanceService.getTurningOffTimesAt(instanceId, from, to)
+        );
+        List<? extends Event> hotelEvents =
+                turningOffService.getForHotelAt(from, to);
         List<Event> integratedSystemEvents =
-                reservationSystemManager.getEventsFor(apartmentInstance);
+                reservationSystemManager.getEventsFor(List.of(instance), from, to)
+                        .getOrDefault(instanceId, List.of());
+        return eventsForApartmentInstance(localApartmentInstanceEvents, hotelEvents, integratedSystemEvents, coalesce);
+    }
+
+    private Collection<Event> eventsForApartmentInstance(List<? extends Event> localApartmentInstanceEvents,
+                                                         List<? extends Event> hotelEvents,
+                                                         List<Event> integratedSystemEvents,
+                                                         boolean coalesce) {
         Collection<Event> events =
                 CollectionUtils.union(localApartmentInstanceEvents, hotelEvents, integratedSystemEvents);
-        return Calendar.of(events);
+        return coalesce
+                ? EventCoalescer.coalesce(events)
+                : events;
+    }
+
+    private LocalDateTime windowStart(CalendarWindowDto window) {
+        return window.from() == null
+                ? now()
+                : window.from().atStartOfDay();
+    }
+
+    private LocalDateTime windowEnd(CalendarWindowDto window, LocalDateTime from) {
+        return window.to() == null
+                ? from.plus(DEFAULT_WINDOW_LENGTH)
+                : window.to().plusDays(1).atStartOfDay();
     }
 }
@@ -17,12 +17,14 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.mibal.booking.application.dto.request.CreateCommentDto;
 import ua.mibal.booking.application.dto.response.CommentDto;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.booking.application.mapper.CommentMapper;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
 import ua.mibal.booking.application.port.jpa.CommentRepository;
@@ -45,6 +47,7 @@ public class CommentService {
     private final CommentMapper commentMapper;
     private final UserRepository userRepository;
     private final ApartmentRepository apartmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Page<CommentDto> getAllByApartment(Long apartmentId, Pageable pageable) {
         return commentRepository.findByApartmentIdFetchUser(apartmentId, pageable)
@@ -58,11 +61,19 @@ public class CommentService {
         validateUserHasReservation(apartmentId, userEmail);
         Comment newComment = createComment(createCommentDto, userEmail, apartmentId);
         commentRepository.save(newComment);
+        apartmentRepository.addRate(apartmentId, newComment.getRate());
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
     }
 
+    @Transactional
     public void delete(Long id, String email) {
         validateUserHasComment(id, email);
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            Long apartmentId = comment.getApartment().getId();
+            commentRepository.deleteById(id);
+            apartmentRepository.removeRate(apartmentId, comment.getRate());
+            eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
+        });
     }
 
     private Comment createComment(CreateCommentDto createCommentDto,
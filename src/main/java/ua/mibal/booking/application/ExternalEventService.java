@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.ExternalEventRepository;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.booking.domain.ExternalEvent;
+import ua.mibal.booking.domain.ExternalEventSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static ua.mibal.booking.domain.ExternalEvent.SUMMARY_LENGTH;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@RequiredArgsConstructor
+@Service
+public class ExternalEventService {
+    private final ExternalEventRepository externalEventRepository;
+    private final ApartmentInstanceRepository apartmentInstanceRepository;
+
+    /**
+     * Makes stored events of {@code source} for apartment instance equal to {@code events}
+     * touching only changed rows: vanished events are deleted, new ones are inserted
+     * and events with the same range but another summary are updated.
+     * Events with empty or negative range are ignored.
+     *
+     * @return number of inserted, updated and deleted events
+     */
+    @Transactional
+    public int synchronize(Long instanceId, ExternalEventSource source, List<? extends Event> events) {
+        Map<Range, String> incoming = new LinkedHashMap<>();
+        for (Event event : events) {
+            if (event.getEnd().isAfter(event.getStart())) {
+                incoming.put(new Range(event.getStart(), event.getEnd()), summaryOf(event));
+            }
+        }
+        int changed = 0;
+        List<ExternalEvent> vanished = new ArrayList<>();
+        for (ExternalEvent stored : externalEventRepository.findByApartmentInstanceIdAndSource(instanceId, source)) {
+            Range range = new Range(stored.getFrom(), stored.getTo());
+            if (!incoming.containsKey(range)) {
+                vanished.add(stored);
+                continue;
+            }
+            String summary = incoming.remove(range);
+            if (!Objects.equals(stored.getSummary(), summary)) {
+                stored.setSummary(summary);
+                changed++;
+            }
+        }
+        if (!vanished.isEmpty()) {
+            externalEventRepository.deleteAllInBatch(vanished);
+        }
+        if (!incoming.isEmpty()) {
+            externalEventRepository.saveAll(newEvents(instanceId, source, incoming));
+        }
+        return changed + vanished.size() + incoming.size();
+    }
+
+    public List<ExternalEvent> getForNow(Long instanceId) {
+        return externalEventRepository.findByApartmentInstanceIdFromNow(instanceId);
+    }
+
+    public List<ExternalEvent> getIntersecting(Collection<Long> instanceIds, LocalDateTime from, LocalDateTime to) {
+        return externalEventRepository.findByApartmentInstanceIdsIntersectingRange(instanceIds, from, to);
+    }
+
+    public boolean existsIntersecting(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        return externalEventRepository.existsByApartmentInstanceIdIntersectingRange(instanceId, from, to);
+    }
+
+    /**
+     * @return ids of {@code instanceIds} having events intersecting {@code [from, to)}
+     */
+    public Set<Long> getIntersectingApartmentInstanceIds(Collection<Long> instanceIds,
+                                                         LocalDateTime from, LocalDateTime to) {
+        return Set.copyOf(
+                externalEventRepository.findApartmentInstanceIdsIntersectingRange(instanceIds, from, to)
+        );
+    }
+
+    private List<ExternalEvent> newEvents(Long instanceId, ExternalEventSource source,
+                                          Map<Range, String> events) {
+        ApartmentInstance instance = apartmentInstanceRepository.getReferenceById(instanceId);
+        return events.entrySet().stream()
+                .map(event -> ExternalEvent.builder()
+                        .apartmentInstance(instance)
+                        .source(source)
+                        .from(event.getKey().from())
+                        .to(event.getKey().to())
+                        .summary(event.getValue())
+                        .build())
+                .toList();
+    }
+
+    private String summaryOf(Event event) {
+        String summary = event.getEventName();
+        return summary == null || summary.length() <= SUMMARY_LENGTH
+                ? summary
+                : summary.substring(0, SUMMARY_LENGTH);
+    }
+
+    private record Range(LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -17,6 +17,7 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.Calendar;
@@ -25,25 +26,49 @@ import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.property.CalScale;
 import net.fortuna.ical4j.model.property.Version;
 import org.springframework.stereotype.Service;
+import ua.mibal.booking.application.component.StreamingICalParser;
+import ua.mibal.booking.application.component.StreamingICalWriter;
 import ua.mibal.booking.application.exception.ICalServiceException;
+import ua.mibal.booking.application.exception.UnsupportedCalendarException;
 import ua.mibal.booking.application.mapper.CalendarFormatMapper;
 import ua.mibal.booking.config.properties.CalendarProps;
 import ua.mibal.booking.domain.Event;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static ua.mibal.booking.config.properties.CalendarProps.ICalProps.ParserMode.STREAMING;
 
 /**
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class ICalService {
+    /**
+     * Max count of bytes kept to re-read the input with ical4j
+     * if streaming parser does not support it
+     */
+    static final int FALLBACK_PREFIX_BYTES = 1024 * 1024;
+
     private final CalendarProps calendarProps;
     private final CalendarFormatMapper calendarFormatMapper;
+    private final StreamingICalParser streamingICalParser;
+    private final StreamingICalWriter streamingICalWriter;
 
     public String getCalendarFromEvents(Collection<Event> events) {
         Calendar calendar = initCalendar();
@@ -52,6 +77,20 @@ public class ICalService {
         return calendar.toString();
     }
 
+    /**
+     * Streams calendar of {@code events} to {@code calendarStream} event by event.
+     * NOTICE: method does NOT CLOSE the {@link OutputStream} {@code calendarStream}.
+     *
+     * @param stamp {@code DTSTAMP} of every event, so the same events
+     *              with the same stamp produce byte-identical calendar
+     */
+    public void writeCalendarFromEvents(Stream<? extends Event> events,
+                                        Instant stamp,
+                                        OutputStream calendarStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(calendarStream, UTF_8));
+        streamingICalWriter.write(events, stamp, writer);
+    }
+
     /**
      * Returns {@link List} of {@link Event}s from {@link InputStream} calendar file.
      * NOTICE: method does NOT CLOSE the {@link InputStream} {@code calendarStream}.
@@ -60,6 +99,52 @@ public class ICalService {
      * @return {@link List} of {@link Event}
      */
     public List<Event> getEventsFromCalendarFile(InputStream calendarStream) {
+        if (calendarProps.iCal().parser() == STREAMING) {
+            return getEventsStreaming(calendarStream);
+        }
+        return getEventsWithICal4j(calendarStream);
+    }
+
+    /**
+     * Only first {@link #FALLBACK_PREFIX_BYTES} of input are kept for ical4j fallback,
+     * so the feed is never buffered whole. Unsupported input found after the prefix
+     * is reported with {@link ICalServiceException}.
+     */
+    private List<Event> getEventsStreaming(InputStream calendarStream) {
+        BufferedInputStream calendarFile = new BufferedInputStream(calendarStream);
+        calendarFile.mark(FALLBACK_PREFIX_BYTES);
+        List<Event> events = new ArrayList<>();
+        try {
+            streamingICalParser.parse(
+                    new InputStreamReader(calendarFile, UTF_8), events::add
+            );
+            return events;
+        } catch (IOException e) {
+            throw new ICalServiceException(
+                    "Exception while reading ICal file", e
+            );
+        } catch (UnsupportedCalendarException e) {
+            log.debug("Falling back to ical4j: {}", e.getMessage());
+            resetToPrefixStart(calendarFile, e);
+            return getEventsWithICal4j(calendarFile);
+        }
+    }
+
+    private void resetToPrefixStart(BufferedInputStream calendarFile,
+                                    UnsupportedCalendarException cause) {
+        try {
+            calendarFile.reset();
+        } catch (IOException e) {
+            ICalServiceException exception = new ICalServiceException(
+                    "ICal file is not supported by streaming parser after first %d bytes"
+                            .formatted(FALLBACK_PREFIX_BYTES), cause
+            );
+            exception.addSuppressed(e);
+            throw exception;
+        }
+    }
+
+    private List<Event> getEventsWithICal4j(InputStream calendarStream) {
         Calendar calendar = buildCalendarFromInputStream(calendarStream);
         List<VEvent> vEvents = calendar.getComponents(Component.VEVENT);
         return calendarFormatMapper.vEventsToEvents(vEvents);
@@ -17,9 +17,11 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.booking.application.port.photo.storage.PhotoStorage;
 import ua.mibal.booking.application.port.photo.storage.model.PhotoResource;
 import ua.mibal.booking.domain.Apartment;
@@ -35,6 +37,7 @@ public class PhotoService {
     private final PhotoStorage storage;
     private final UserService userService;
     private final ApartmentService apartmentService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PhotoResource getUserPhoto(String email) {
         User user = userService.getOne(email);
@@ -70,6 +73,7 @@ public class PhotoService {
         Apartment apartment = apartmentService.getOne(id);
         String newPhotoKey = storage.uploadPhoto(photo);
         apartment.addPhoto(newPhotoKey);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(id));
     }
 
     @Transactional
@@ -78,5 +82,6 @@ public class PhotoService {
         String photoKey = apartment.getPhotoKey(photoIndex);
         storage.deletePhotoBy(photoKey);
         apartment.deletePhoto(photoKey);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
     }
 }
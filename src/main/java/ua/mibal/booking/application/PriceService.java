@@ -17,14 +17,26 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.component.PriceCalculator;
+import ua.mibal.booking.application.component.PricingEngine;
 import ua.mibal.booking.application.dto.request.PriceDto;
+import ua.mibal.booking.application.dto.request.SeasonalPriceDto;
+import ua.mibal.booking.application.dto.request.StayQuoteRequestDto;
+import ua.mibal.booking.application.dto.response.StayQuoteDto;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.booking.application.mapper.PriceMapper;
+import ua.mibal.booking.application.util.ApartmentPricing;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Price;
+import ua.mibal.booking.domain.SeasonalPrice;
 import ua.mibal.booking.application.exception.PriceNotFoundException;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -36,6 +48,9 @@ import java.util.List;
 public class PriceService {
     private final ApartmentService apartmentService;
     private final PriceMapper priceMapper;
+    private final PricingEngine pricingEngine;
+    private final PriceCalculator priceCalculator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<PriceDto> getAllByApartment(Long apartmentId) {
         return apartmentService.getOneFetchPrices(apartmentId)
@@ -49,6 +64,7 @@ public class PriceService {
         Price price = priceMapper.toEntity(priceDto);
         Apartment apartment = apartmentService.getOneFetchPrices(apartmentId);
         apartment.putPrice(price);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
     }
 
     @Transactional
@@ -57,5 +73,53 @@ public class PriceService {
         if (!apartment.deletePrice(person)) {
             throw new PriceNotFoundException(person);
         }
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SeasonalPriceDto> getAllSeasonalByApartment(Long apartmentId) {
+        return apartmentService.getOneFetchPrices(apartmentId)
+                .getSeasonalPrices().stream()
+                .map(priceMapper::toDto)
+                .toList();
+    }
+
+    @Transactional
+    public void putSeasonal(Long apartmentId, SeasonalPriceDto seasonalPriceDto) {
+        SeasonalPrice seasonalPrice = priceMapper.toEntity(seasonalPriceDto);
+        Apartment apartment = apartmentService.getOneFetchPrices(apartmentId);
+        if (apartment.getPrices().stream()
+                .noneMatch(price -> price.getPerson().equals(seasonalPrice.getPerson()))) {
+            throw new PriceNotFoundException(seasonalPrice.getPerson());
+        }
+        apartment.putSeasonalPrice(seasonalPrice);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
+    }
+
+    @Transactional
+    public void deleteSeasonal(Long apartmentId, Integer person, LocalDate from) {
+        Apartment apartment = apartmentService.getOneFetchPrices(apartmentId);
+        if (!apartment.deleteSeasonalPrice(person, from)) {
+            throw new PriceNotFoundException(person);
+        }
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
+    }
+
+    /**
+     * Quotes all {@code quotes} by the same prices of apartment loaded once
+     *
+     * @return quotes in order of {@code quotes}
+     */
+    @Transactional(readOnly = true)
+    public List<StayQuoteDto> quote(Long apartmentId, List<StayQuoteRequestDto> quotes) {
+        ApartmentPricing pricing = pricingEngine.pricingOf(apartmentService.getOneFetchPrices(apartmentId));
+        List<StayQuoteDto> quoted = new ArrayList<>(quotes.size());
+        for (var quote : quotes) {
+            BigDecimal total = pricing.hasPriceFor(quote.people())
+                    ? priceCalculator.calculatePrice(pricing.forPeople(quote.people()), quote.from(), quote.to())
+                    : null;
+            quoted.add(new StayQuoteDto(quote.from(), quote.to(), quote.people(), total));
+        }
+        return quoted;
     }
 }
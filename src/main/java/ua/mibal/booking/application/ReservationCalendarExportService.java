@@ -18,9 +18,37 @@ package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.exception.ApartmentInstanceNotFoundException;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
 import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 /**
+ * Exports apartment instance calendar as ICalendar.
+ * <p>
+ * Exported calendar contains events ending after the start of export day
+ * and every event has {@code DTSTAMP} of that day start, so the calendar
+ * content is defined by the export day and the calendar version
+ * maintained by the database. Therefore {@link #getCalendarETag} can be
+ * checked without reading any event.
+ * <p>
+ * The ETag is read in a separate transaction before the calendar is written,
+ * so a change committed in between is already in the body sent with
+ * the older ETag. Versions only grow, so the body is never older
+ * than its ETag and the next request gets the new ETag and full calendar,
+ * but the same ETag may be sent with different bodies, so it is weak.
+ *
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
@@ -29,9 +57,43 @@ import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
 public class ReservationCalendarExportService {
     private final ICalService iCalService;
     private final HotelTurningOffRepository hotelTurningOffRepository;
+    private final ApartmentInstanceRepository apartmentInstanceRepository;
+    private final ReservationRepository reservationRepository;
+    private final CalendarProps calendarProps;
+
+    public LocalDate exportDay() {
+        return LocalDate.now(calendarProps.zoneId());
+    }
+
+    public String getCalendarETag(Long apartmentInstanceId, LocalDate exportDay) {
+        String version = apartmentInstanceRepository.findCalendarVersionById(apartmentInstanceId)
+                .orElseThrow(() -> new ApartmentInstanceNotFoundException(apartmentInstanceId));
+        return "W/\"" + version + "-" + exportDay + "\"";
+    }
 
-    // TODO
-    public String getCalendarForApartmentInstanceBy(Long apartmentInstanceId) {
-        return null;
+    /**
+     * Events are read in one repeatable read snapshot, so the body is
+     * consistent even if events are changed while it is written.
+     * <p>
+     * NOTICE: method does NOT CLOSE the {@link OutputStream} {@code calendarStream}.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void writeCalendar(Long apartmentInstanceId,
+                              LocalDate exportDay,
+                              OutputStream calendarStream) throws IOException {
+        ApartmentInstance instance = apartmentInstanceRepository.findById(apartmentInstanceId)
+                .orElseThrow(() -> new ApartmentInstanceNotFoundException(apartmentInstanceId));
+        LocalDateTime from = exportDay.atStartOfDay();
+        try (Stream<? extends Event> reservations =
+                     reservationRepository.streamNotRejectedEventsByApartmentInstanceIdEndingAfter(apartmentInstanceId, from)) {
+            Stream<? extends Event> turningOffTimes = instance.getTurningOffTimes().stream()
+                    .filter(event -> event.getEnd().isAfter(from));
+            Stream<? extends Event> events = Stream.of(
+                    hotelTurningOffRepository.findEndingAfter(from).stream(),
+                    turningOffTimes,
+                    reservations
+            ).flatMap(eventStream -> eventStream);
+            iCalService.writeCalendarFromEvents(events, from.atZone(calendarProps.zoneId()).toInstant(), calendarStream);
+        }
     }
 }
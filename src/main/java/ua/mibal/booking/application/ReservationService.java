@@ -17,10 +17,14 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.component.AvailabilityIndex;
+import ua.mibal.booking.application.component.ReservationAdmission;
 import ua.mibal.booking.application.component.ReservationBuilder;
 import ua.mibal.booking.application.dto.response.ReservationDto;
 import ua.mibal.booking.application.mapper.ReservationMapper;
@@ -28,9 +32,14 @@ import ua.mibal.booking.application.port.jpa.ReservationRepository;
 import ua.mibal.booking.domain.Reservation;
 import ua.mibal.booking.domain.ReservationRequest;
 import ua.mibal.booking.domain.User;
+import ua.mibal.booking.application.exception.ApartmentIsNotAvailableForReservation;
 import ua.mibal.booking.application.exception.UserHasNoAccessToReservationException;
 import ua.mibal.booking.application.exception.ReservationNotFoundException;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static ua.mibal.booking.domain.Role.MANAGER;
 
 /**
@@ -40,10 +49,15 @@ import static ua.mibal.booking.domain.Role.MANAGER;
 @RequiredArgsConstructor
 @Service
 public class ReservationService {
+    private static final String NO_OVERLAPS_CONSTRAINT = "reservations_apartment_instance_id_during_excl";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
     private final ReservationRepository reservationRepository;
     private final ReservationMapper reservationMapper;
     private final UserService userService;
     private final ReservationBuilder reservationBuilder;
+    private final AvailabilityIndex availabilityIndex;
+    private final ReservationAdmission reservationAdmission;
 
     public Page<ReservationDto> getAllByUser(String email, Pageable pageable) {
         return reservationRepository.findAllByUserEmail(email, pageable)
@@ -55,6 +69,14 @@ public class ReservationService {
                 .map(reservationMapper::toDto);
     }
 
+    public List<Reservation> getNotRejectedForApartmentAt(Long apartmentId, LocalDateTime from, LocalDateTime to) {
+        return reservationRepository.findNotRejectedByApartmentIdIntersectingRange(apartmentId, from, to);
+    }
+
+    public List<Reservation> getNotRejectedForApartmentInstanceAt(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        return reservationRepository.findNotRejectedByApartmentInstanceIdIntersectingRange(instanceId, from, to);
+    }
+
     @Transactional
     public void rejectReservation(Long id,
                                   String email,
@@ -64,12 +86,49 @@ public class ReservationService {
         validateUserHasAccessToReservation(user, reservation);
         validateReservationToReject(reservation);
         reservation.reject(user, reason);
+        availabilityIndex.unregister(reservation);
     }
 
-    @Transactional
+    /**
+     * NOTICE: not transactional, so reservation is built in its own read-only
+     * transaction and saved in the transaction of {@link ReservationAdmission}
+     * and requests waiting for admission do not hold DB connections.
+     */
     public void reserve(ReservationRequest request) {
         Reservation reservation = reservationBuilder.buildBy(request);
-        reservationRepository.save(reservation);
+        reservationAdmission.admit(reservation, this::saveValidatingNoOverlaps);
+        availabilityIndex.register(reservation);
+    }
+
+    /**
+     * Overlapping not rejected reservations of one apartment instance
+     * are rejected by DB exclusion constraint, so flush is required
+     * to report concurrent double booking to the client.
+     * Other integrity violations are rethrown as is.
+     */
+    private void saveValidatingNoOverlaps(Reservation reservation) {
+        try {
+            reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ApartmentIsNotAvailableForReservation();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                && NO_OVERLAPS_CONSTRAINT.equals(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private Reservation getOneFetchRejections(Long id) {
@@ -17,23 +17,43 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ua.mibal.booking.application.port.ReservationSystem;
+import ua.mibal.booking.config.properties.ReservationSystemProps;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Event;
 import ua.mibal.booking.domain.ReservationRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static ua.mibal.booking.config.properties.ReservationSystemProps.ExecutionMode.PARALLEL;
 
 /**
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
+@Slf4j
 @RequiredArgsConstructor
 @Component
 public class ReservationSystemManager {
 
     private final List<ReservationSystem> reservationSystems;
+    private final ReservationSystemProps reservationSystemProps;
+    private final ExecutorService reservationSystemExecutor;
 
     public List<Event> getEventsFor(ApartmentInstance apartment) {
         return reservationSystems.stream()
@@ -41,14 +61,122 @@ public class ReservationSystemManager {
                 .toList();
     }
 
+    /**
+     * @return events of all reservation systems intersecting {@code [from, to)}
+     * by ids of {@code apartments} that have any
+     */
+    public Map<Long, List<Event>> getEventsFor(List<ApartmentInstance> apartments,
+                                               LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<Event>> events = new HashMap<>();
+        for (ReservationSystem system : reservationSystems) {
+            system.getEventsFor(apartments, from, to).forEach((id, systemEvents) ->
+                    events.computeIfAbsent(id, key -> new ArrayList<>()).addAll(systemEvents));
+        }
+        return events;
+    }
+
+    /**
+     * {@link ReservationSystem#isLocal() Local} reservation systems filter all apartments
+     * on the calling thread.
+     * In {@code PARALLEL} execution mode all (apartment, remote reservation system) pairs
+     * are checked concurrently, so the call takes as long as the slowest check.
+     * Apartments whose checks are not finished until the deadline
+     * or are rejected by the full executor queue are considered not free.
+     * Unfinished checks are cancelled with interruption of their threads.
+     */
     public void filterForFree(List<ApartmentInstance> apartments,
                               ReservationRequest request) {
-        apartments.removeIf(apartment ->
-                !isFreeForReservation(apartment, request));
+        List<ReservationSystem> remoteSystems = new ArrayList<>();
+        for (ReservationSystem system : reservationSystems) {
+            if (system.isLocal()) {
+                system.filterForFree(apartments, request);
+            } else {
+                remoteSystems.add(system);
+            }
+        }
+        if (remoteSystems.isEmpty()) {
+            return;
+        }
+        if (reservationSystemProps.executionMode() == PARALLEL && apartments.size() > 1) {
+            filterForFreeInParallel(remoteSystems, apartments, request);
+            return;
+        }
+        apartments.removeIf(apartment -> !remoteSystems.stream()
+                .allMatch(system -> system.isFreeForReservation(apartment, request)));
     }
 
-    private boolean isFreeForReservation(ApartmentInstance apartment, ReservationRequest request) {
+    public boolean isFreeForReservation(ApartmentInstance apartment, ReservationRequest request) {
         return reservationSystems.stream()
                 .allMatch(system -> system.isFreeForReservation(apartment, request));
     }
+
+    private void filterForFreeInParallel(List<ReservationSystem> systems,
+                                         List<ApartmentInstance> apartments,
+                                         ReservationRequest request) {
+        long deadline = System.nanoTime() + reservationSystemProps.deadline().toNanos();
+        Map<ApartmentInstance, List<Future<Boolean>>> checks = new IdentityHashMap<>();
+        List<Future<Boolean>> allChecks = new ArrayList<>();
+        for (ApartmentInstance apartment : apartments) {
+            List<Future<Boolean>> apartmentChecks = systems.stream()
+                    .map(system -> submit(() -> system.isFreeForReservation(apartment, request)))
+                    .toList();
+            checks.put(apartment, apartmentChecks);
+            allChecks.addAll(apartmentChecks);
+        }
+        awaitUntil(deadline, allChecks);
+        apartments.removeIf(apartment -> !allFree(checks.get(apartment)));
+    }
+
+    private Future<Boolean> submit(Callable<Boolean> check) {
+        try {
+            return reservationSystemExecutor.submit(check);
+        } catch (RejectedExecutionException e) {
+            log.warn("Reservation system check is rejected: executor queue is full");
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private void awaitUntil(long deadline, List<Future<Boolean>> checks) {
+        try {
+            for (Future<Boolean> check : checks) {
+                check.get(deadline - System.nanoTime(), NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            log.warn("Reservation systems did not respond in {}", reservationSystemProps.deadline());
+            cancelAll(checks);
+        } catch (ExecutionException e) {
+            cancelAll(checks);
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(checks);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void cancelAll(List<Future<Boolean>> checks) {
+        checks.forEach(check -> check.cancel(true));
+    }
+
+    private boolean allFree(List<Future<Boolean>> checks) {
+        return checks.stream()
+                .allMatch(this::isDoneAndFree);
+    }
+
+    private boolean isDoneAndFree(Future<Boolean> check) {
+        if (!check.isDone() || check.isCancelled()) {
+            return false;
+        }
+        try {
+            return check.get();
+        } catch (ExecutionException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new IllegalStateException(cause);
+    }
 }
@@ -17,8 +17,11 @@
 package ua.mibal.booking.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ua.mibal.booking.application.dto.request.RoomDto;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.booking.application.mapper.RoomMapper;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
 import ua.mibal.booking.application.port.jpa.RoomRepository;
@@ -36,17 +39,27 @@ public class RoomService {
     private final RoomRepository roomRepository;
     private final ApartmentRepository apartmentRepository;
     private final RoomMapper roomMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public void create(Long apartmentId, RoomDto roomDto) {
         validateApartmentExists(apartmentId);
         Room room = roomMapper.toEntity(roomDto);
         room.setApartment(apartmentRepository.getReferenceById(apartmentId));
         roomRepository.save(room);
+        apartmentRepository.addCapacity(apartmentId, room.getCapacity());
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
     }
 
+    @Transactional
     public void delete(Long id) {
-        validateRoomExists(id);
+        Room room = roomRepository.findById(id)
+                .orElseThrow(() -> new RoomNotFoundException(id));
+        Long apartmentId = room.getApartment().getId();
+        int capacity = room.getCapacity();
         roomRepository.deleteById(id);
+        apartmentRepository.addCapacity(apartmentId, -capacity);
+        eventPublisher.publishEvent(new ApartmentChangedEvent(apartmentId));
     }
 
     private void validateApartmentExists(Long id) {
@@ -54,10 +67,4 @@ public class RoomService {
             throw new ApartmentNotFoundException(id);
         }
     }
-
-    private void validateRoomExists(Long id) {
-        if (!roomRepository.existsById(id)) {
-            throw new RoomNotFoundException(id);
-        }
-    }
 }
@@ -19,8 +19,11 @@ package ua.mibal.booking.application;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.mibal.booking.application.component.AvailabilityIndex;
+import ua.mibal.booking.application.component.HotelTurningOffSnapshot;
 import ua.mibal.booking.application.dto.request.TurnOffDto;
 import ua.mibal.booking.application.mapper.TurningOffTimeMapper;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
 import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
 import ua.mibal.booking.application.port.jpa.ReservationRepository;
 import ua.mibal.booking.domain.ApartmentInstance;
@@ -28,9 +31,14 @@ import ua.mibal.booking.domain.HotelTurningOffTime;
 import ua.mibal.booking.domain.TurningOffTime;
 import ua.mibal.booking.application.exception.IllegalTurningOffTimeException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
+ * Turning off times are written under the same DB locks as reservations
+ * are admitted, see {@link ua.mibal.booking.application.component.ReservationAdmission},
+ * so a reservation and a concurrent turning off can not both pass their checks.
+ *
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
@@ -40,32 +48,45 @@ public class TurningOffService {
     private final TurningOffTimeMapper turningOffTimeMapper;
     private final ReservationRepository reservationRepository;
     private final ApartmentInstanceService apartmentInstanceService;
+    private final ApartmentInstanceRepository apartmentInstanceRepository;
     private final HotelTurningOffRepository hotelTurningOffRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final HotelTurningOffSnapshot hotelTurningOffSnapshot;
 
     @Transactional
     public void turnOffApartmentInstance(Long instanceId, TurnOffDto turnOffDto) {
-        ApartmentInstance instance =
-                apartmentInstanceService.getOneFetchReservations(instanceId);
-        validateToTurnOffApartmentInstance(instance, turnOffDto);
+        apartmentInstanceRepository.lockForReservation(instanceId);
+        validateToTurnOffApartmentInstance(instanceId, turnOffDto);
+        ApartmentInstance instance = apartmentInstanceService.getOne(instanceId);
         TurningOffTime turningOffTime =
                 turningOffTimeMapper.apartmentfromDto(turnOffDto);
         instance.addTurningOffTime(turningOffTime);
+        availabilityIndex.register(instanceId, turningOffTime);
     }
 
+    @Transactional
     public void turnOffHotel(TurnOffDto turnOffDto) {
+        hotelTurningOffRepository.lockForTurningOff();
         validateToTurnOffHotel(turnOffDto);
         HotelTurningOffTime turningOffTime =
                 turningOffTimeMapper.hotelFromDto(turnOffDto);
         hotelTurningOffRepository.save(turningOffTime);
+        availabilityIndex.register(turningOffTime);
+        hotelTurningOffSnapshot.add(turningOffTime);
     }
 
     public List<HotelTurningOffTime> getForHotelForNow() {
-        return hotelTurningOffRepository.findFromNow();
+        return hotelTurningOffSnapshot.getFromNow();
+    }
+
+    public List<HotelTurningOffTime> getForHotelAt(LocalDateTime from, LocalDateTime to) {
+        return hotelTurningOffSnapshot.getIntersecting(from, to);
     }
 
-    private void validateToTurnOffApartmentInstance(ApartmentInstance instance,
+    private void validateToTurnOffApartmentInstance(Long instanceId,
                                                     TurnOffDto turnOffDto) {
-        if (instance.hasReservationsAt(turnOffDto.from(), turnOffDto.to())) {
+        if (reservationRepository.existsNotRejectedByApartmentInstanceIdIntersectingRange(
+                instanceId, turnOffDto.from(), turnOffDto.to())) {
             throw new IllegalTurningOffTimeException();
         }
     }
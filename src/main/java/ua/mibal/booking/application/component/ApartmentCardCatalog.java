@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.mibal.booking.application.dto.response.ApartmentCardDto;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
+import ua.mibal.booking.application.mapper.ApartmentMapper;
+import ua.mibal.booking.application.port.jpa.ApartmentRepository;
+import ua.mibal.booking.application.util.AmenityMask;
+import ua.mibal.booking.config.properties.CacheProps;
+import ua.mibal.booking.domain.Amenity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory read model of all {@link ApartmentCardDto}s.
+ * <p>
+ * Cards are built once in a read-only transaction (mapping lazily loads
+ * prices) and served from memory until {@link ApartmentChangedEvent} is committed
+ * or {@link CacheProps#apartmentCardsTtl()} passes. The event is local to the node,
+ * so TTL bounds staleness of changes made on other nodes.
+ * Only one thread loads cards at a time, concurrent misses wait for its result.
+ * Cards built concurrently with invalidation are returned but not cached,
+ * so the catalog never keeps data older than the last committed change.
+ * <p>
+ * Amenity bitmasks of cards are kept in a parallel array to filter cards
+ * by amenities with a single AND per card.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Component
+public class ApartmentCardCatalog {
+    private final ApartmentRepository apartmentRepository;
+    private final ApartmentMapper apartmentMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long ttlNanos;
+    private final Object loadLock = new Object();
+
+    private volatile Snapshot snapshot;
+    private volatile long version;
+
+    public ApartmentCardCatalog(ApartmentRepository apartmentRepository,
+                                ApartmentMapper apartmentMapper,
+                                PlatformTransactionManager transactionManager,
+                                CacheProps cacheProps) {
+        this.apartmentRepository = apartmentRepository;
+        this.apartmentMapper = apartmentMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ttlNanos = cacheProps.apartmentCardsTtl().toNanos();
+    }
+
+    public List<ApartmentCardDto> getAll() {
+        return current().cards();
+    }
+
+    /**
+     * @param requiredAmenities amenity bitmask, see {@link Amenity#bit()}
+     * @return cards of apartments having all {@code requiredAmenities}
+     */
+    public List<ApartmentCardDto> getAllWithAmenities(int requiredAmenities) {
+        Snapshot current = current();
+        if (requiredAmenities == AmenityMask.NONE) {
+            return current.cards();
+        }
+        List<ApartmentCardDto> matching = new ArrayList<>();
+        int[] amenities = current.amenities();
+        for (int i = 0; i < amenities.length; i++) {
+            if (AmenityMask.matches(amenities[i], requiredAmenities)) {
+                matching.add(current.cards().get(i));
+            }
+        }
+        return matching;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void invalidate(ApartmentChangedEvent event) {
+        version++;
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (loadLock) {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            long loadedVersion = version;
+            Snapshot loaded = load();
+            synchronized (this) {
+                if (version == loadedVersion) {
+                    snapshot = loaded;
+                }
+            }
+            return loaded;
+        }
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot != null && System.nanoTime() - snapshot.loadedAt() < ttlNanos;
+    }
+
+    private Snapshot load() {
+        List<ApartmentCardDto> cards = readOnlyTransaction.execute(status -> apartmentRepository.findAllFetchPhotos()
+                .stream()
+                .map(apartmentMapper::toCardDto)
+                .toList());
+        int[] amenities = new int[cards.size()];
+        for (int i = 0; i < amenities.length; i++) {
+            amenities[i] = cards.get(i).options().toAmenities();
+        }
+        return new Snapshot(cards, amenities, System.nanoTime());
+    }
+
+    private record Snapshot(
+            List<ApartmentCardDto> cards,
+            int[] amenities,
+            long loadedAt
+    ) {
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.application.util.IntervalTree;
+import ua.mibal.booking.application.util.OccupancyStore;
+import ua.mibal.booking.config.properties.CalendarProps.ReservationDateTimeProps;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.HotelTurningOffTime;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.TurningOffTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.LocalDateTime.now;
+import static java.time.ZoneOffset.UTC;
+import static ua.mibal.booking.application.util.TransactionUtils.afterCommit;
+
+/**
+ * In-memory index of busy time ranges of every {@link ApartmentInstance}.
+ * Keeps per-instance {@link IntervalTree}s of not rejected {@link Reservation}s
+ * and {@link TurningOffTime}s and one tree of {@link HotelTurningOffTime}s,
+ * so availability of an instance is checked without DB round trip.
+ * <p>
+ * Ranges inside the rolling horizon are first checked by per-night
+ * {@link OccupancyStore} bitsets, trees are queried only to confirm
+ * nights which look occupied or ranges outside the horizon.
+ * <p>
+ * Index is rebuilt at startup and nightly and updated after commit of every write
+ * of this node. Writes of other nodes become visible only after rebuild,
+ * so the index is a search optimization: reservations are admitted
+ * by DB recheck in {@link ReservationAdmission}.
+ * Until the first build is finished {@link #isReady()} returns {@code false}
+ * and callers should fall back to DB queries.
+ * <p>
+ * Reservations are keyed by their ids, turning off times of instances
+ * (which have no ids) by negative keys derived from their ranges.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class AvailabilityIndex {
+    private static final int HORIZON_NIGHTS = 2 * 366;
+
+    private final ReservationRepository reservationRepository;
+    private final ApartmentInstanceRepository apartmentInstanceRepository;
+    private final HotelTurningOffRepository hotelTurningOffRepository;
+    private final ReservationDateTimeProps reservationDateTimeProps;
+
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile Map<Long, IntervalTree> instanceTrees = new ConcurrentHashMap<>();
+    private volatile IntervalTree hotelTree = new IntervalTree();
+    private volatile OccupancyStore occupancy = new OccupancyStore(LocalDate.EPOCH, 0, LocalTime.MIDNIGHT);
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long seenModifications;
+        do {
+            seenModifications = modifications.get();
+            OccupancyStore newOccupancy = newOccupancyStore();
+            Map<Long, IntervalTree> newInstanceTrees = new ConcurrentHashMap<>(buildInstanceTrees(newOccupancy));
+            IntervalTree newHotelTree = buildHotelTree(newOccupancy);
+            synchronized (this) {
+                instanceTrees = newInstanceTrees;
+                hotelTree = newHotelTree;
+                occupancy = newOccupancy;
+            }
+        } while (seenModifications != modifications.get());
+        ready = true;
+        log.info("Availability index is built for {} apartment instances", instanceTrees.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return {@code true} if neither instance nor hotel has busy ranges
+     * intersecting with {@code [from, to)} range
+     */
+    public boolean isFree(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        OccupancyStore occupancy = this.occupancy;
+        if (occupancy.covers(from, to) && occupancy.isFree(instanceId, from, to)) {
+            return true;
+        }
+        long start = toKey(from);
+        long end = toKey(to);
+        return !overlaps(hotelTree, start, end) &&
+               !overlaps(instanceTrees.get(instanceId), start, end);
+    }
+
+    /**
+     * Free gap is meaningful only for free {@code [from, to)} range.
+     *
+     * @return seconds between the end of the closest busy range before
+     * {@code from} and {@code from}, or {@link Long#MAX_VALUE} if there is no such range
+     */
+    public long freeSecondsBefore(Long instanceId, LocalDateTime from) {
+        long start = toKey(from);
+        long previousEnd = Math.max(
+                maxEndBefore(hotelTree, start),
+                maxEndBefore(instanceTrees.get(instanceId), start)
+        );
+        return previousEnd == Long.MIN_VALUE
+                ? Long.MAX_VALUE
+                : start - previousEnd;
+    }
+
+    /**
+     * Free gap is meaningful only for free {@code [from, to)} range.
+     *
+     * @return seconds between {@code to} and the start of the closest busy range
+     * after it, or {@link Long#MAX_VALUE} if there is no such range
+     */
+    public long freeSecondsAfter(Long instanceId, LocalDateTime to) {
+        long end = toKey(to);
+        long nextStart = Math.min(
+                minStartFrom(hotelTree, end),
+                minStartFrom(instanceTrees.get(instanceId), end)
+        );
+        return nextStart == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : nextStart - end;
+    }
+
+    public void register(Reservation reservation) {
+        afterCommit(() -> add(
+                reservation.getApartmentInstance().getId(),
+                reservation.getStart(), reservation.getEnd(), reservation.getId()
+        ));
+    }
+
+    public void unregister(Reservation reservation) {
+        afterCommit(() -> remove(
+                reservation.getApartmentInstance().getId(),
+                reservation.getStart(), reservation.getEnd(), reservation.getId()
+        ));
+    }
+
+    public void register(Long instanceId, TurningOffTime turningOffTime) {
+        afterCommit(() -> add(
+                instanceId, turningOffTime.getStart(), turningOffTime.getEnd(), keyOf(turningOffTime)
+        ));
+    }
+
+    public void unregister(Long instanceId, TurningOffTime turningOffTime) {
+        afterCommit(() -> remove(
+                instanceId, turningOffTime.getStart(), turningOffTime.getEnd(), keyOf(turningOffTime)
+        ));
+    }
+
+    /**
+     * Drops all busy ranges of deleted apartment instance
+     */
+    public void unregister(Long instanceId) {
+        afterCommit(() -> removeInstance(instanceId));
+    }
+
+    public void register(HotelTurningOffTime turningOffTime) {
+        afterCommit(() -> addToHotel(
+                turningOffTime.getStart(), turningOffTime.getEnd(), turningOffTime.getId()
+        ));
+    }
+
+    private Map<Long, IntervalTree> buildInstanceTrees(OccupancyStore occupancy) {
+        Map<Long, IntervalTree> trees = new HashMap<>();
+        LocalDateTime now = now();
+        for (ApartmentInstance instance : apartmentInstanceRepository.findAllFetchTurningOffTimes()) {
+            for (TurningOffTime turningOffTime : instance.getTurningOffTimes()) {
+                if (turningOffTime.getEnd().isAfter(now)) {
+                    trees.computeIfAbsent(instance.getId(), id -> new IntervalTree())
+                            .add(toKey(turningOffTime.getStart()), toKey(turningOffTime.getEnd()), keyOf(turningOffTime));
+                    occupancy.occupy(instance.getId(), turningOffTime.getStart(), turningOffTime.getEnd());
+                }
+            }
+        }
+        for (Reservation reservation : reservationRepository.findNotRejectedFromNow()) {
+            trees.computeIfAbsent(reservation.getApartmentInstance().getId(), id -> new IntervalTree())
+                    .add(toKey(reservation.getStart()), toKey(reservation.getEnd()), reservation.getId());
+            occupancy.occupy(reservation.getApartmentInstance().getId(), reservation.getStart(), reservation.getEnd());
+        }
+        return trees;
+    }
+
+    private IntervalTree buildHotelTree(OccupancyStore occupancy) {
+        IntervalTree tree = new IntervalTree();
+        for (HotelTurningOffTime turningOffTime : hotelTurningOffRepository.findFromNow()) {
+            tree.add(toKey(turningOffTime.getStart()), toKey(turningOffTime.getEnd()), turningOffTime.getId());
+            occupancy.occupyHotel(turningOffTime.getStart(), turningOffTime.getEnd());
+        }
+        return tree;
+    }
+
+    private synchronized void add(Long instanceId, LocalDateTime from, LocalDateTime to, long key) {
+        IntervalTree tree = instanceTrees.computeIfAbsent(instanceId, id -> new IntervalTree());
+        synchronized (tree) {
+            tree.add(toKey(from), toKey(to), key);
+        }
+        occupancy.occupy(instanceId, from, to);
+        modifications.incrementAndGet();
+    }
+
+    private synchronized void addToHotel(LocalDateTime from, LocalDateTime to, long key) {
+        IntervalTree tree = hotelTree;
+        synchronized (tree) {
+            tree.add(toKey(from), toKey(to), key);
+        }
+        occupancy.occupyHotel(from, to);
+        modifications.incrementAndGet();
+    }
+
+    private synchronized void remove(Long instanceId, LocalDateTime from, LocalDateTime to, long key) {
+        IntervalTree tree = instanceTrees.get(instanceId);
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(toKey(from), toKey(to), key);
+            }
+            occupancy.release(instanceId, from, to,
+                    (nightStart, nightEnd) -> overlaps(tree, toKey(nightStart), toKey(nightEnd)));
+        }
+        modifications.incrementAndGet();
+    }
+
+    private synchronized void removeInstance(Long instanceId) {
+        instanceTrees.remove(instanceId);
+        occupancy.releaseAll(instanceId);
+        modifications.incrementAndGet();
+    }
+
+    private boolean overlaps(IntervalTree tree, long start, long end) {
+        if (tree == null) {
+            return false;
+        }
+        synchronized (tree) {
+            return tree.overlaps(start, end);
+        }
+    }
+
+    private long maxEndBefore(IntervalTree tree, long start) {
+        if (tree == null) {
+            return Long.MIN_VALUE;
+        }
+        synchronized (tree) {
+            return tree.maxEndBefore(start);
+        }
+    }
+
+    private long minStartFrom(IntervalTree tree, long end) {
+        if (tree == null) {
+            return Long.MAX_VALUE;
+        }
+        synchronized (tree) {
+            return tree.minStartFrom(end);
+        }
+    }
+
+    private OccupancyStore newOccupancyStore() {
+        return new OccupancyStore(
+                LocalDate.now().minusDays(1), HORIZON_NIGHTS, reservationDateTimeProps.reservationStart()
+        );
+    }
+
+    /**
+     * Negative, so it never clashes with reservation ids.
+     * Derived from range only: tree removes by range and key,
+     * and turning off times of equal ranges are interchangeable
+     */
+    private long keyOf(TurningOffTime turningOffTime) {
+        long start = toKey(turningOffTime.getStart());
+        long end = toKey(turningOffTime.getEnd());
+        return -1 - ((start * 31 + end) & Long.MAX_VALUE);
+    }
+
+    private long toKey(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(UTC);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.ReservationRequest;
+
+/**
+ * Best-fit {@link InstanceScorer}: prefers instance where the requested stay
+ * leaves the fewest free nights between it and adjacent busy ranges,
+ * so long free gaps stay available for long stays.
+ * Stay adjacent to busy ranges on both sides gets the max score {@code 0}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@RequiredArgsConstructor
+@Component
+public class BestFitInstanceScorer implements InstanceScorer {
+    static final long MAX_GAP_NIGHTS = 366;
+    private static final long SECONDS_PER_NIGHT = 24 * 60 * 60;
+
+    private final AvailabilityIndex availabilityIndex;
+
+    @Override
+    public long score(ApartmentInstance instance, ReservationRequest request) {
+        if (!availabilityIndex.isReady()) {
+            return 0;
+        }
+        long before = toNights(availabilityIndex.freeSecondsBefore(instance.getId(), request.from()));
+        long after = toNights(availabilityIndex.freeSecondsAfter(instance.getId(), request.to()));
+        return -(before + after);
+    }
+
+    private long toNights(long seconds) {
+        return Math.min(seconds / SECONDS_PER_NIGHT, MAX_GAP_NIGHTS);
+    }
+}
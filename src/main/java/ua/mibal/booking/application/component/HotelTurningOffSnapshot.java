@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.config.properties.CacheProps;
+import ua.mibal.booking.domain.HotelTurningOffTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.time.LocalDateTime.now;
+import static ua.mibal.booking.application.util.TransactionUtils.afterCommit;
+
+/**
+ * Immutable in-memory snapshot of {@link HotelTurningOffTime}s ending after
+ * the snapshot origin, which is {@link #RETENTION} before the day of loading.
+ * <p>
+ * Hotel turning off times change a few times a year, so readers
+ * get them by a single volatile read without DB round trip and locks.
+ * Writers are serialized and replace the whole snapshot atomically.
+ * Ranges starting before the origin are delegated to the repository.
+ * <p>
+ * Local changes are added after commit, changes of other nodes are picked up
+ * by reload after {@link CacheProps#hotelTurningOffTtl()}. Expired snapshot
+ * is still served while a single background reload replaces it,
+ * readers wait for DB only until the first snapshot is loaded. The snapshot is
+ * a read optimization only: reservations are admitted by DB check
+ * in {@link ReservationAdmission}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class HotelTurningOffSnapshot {
+    static final Period RETENTION = Period.ofMonths(1);
+    private static final Comparator<HotelTurningOffTime> BY_START =
+            Comparator.comparing(HotelTurningOffTime::getStart);
+
+    private final HotelTurningOffRepository hotelTurningOffRepository;
+    private final CacheProps cacheProps;
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Replaces the snapshot with the current state of the repository
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        LocalDateTime origin = LocalDate.now().minus(RETENTION).atStartOfDay();
+        List<HotelTurningOffTime> turningOffTimes = hotelTurningOffRepository.findEndingAfter(origin);
+        snapshot = new Snapshot(origin, sorted(turningOffTimes), System.nanoTime());
+        log.info("Hotel turning off snapshot is loaded with {} turning off times", turningOffTimes.size());
+    }
+
+    /**
+     * Adds persisted {@code turningOffTime} to the snapshot
+     * after commit of the current transaction
+     */
+    public void add(HotelTurningOffTime turningOffTime) {
+        afterCommit(() -> addCommitted(turningOffTime));
+    }
+
+    private synchronized void addCommitted(HotelTurningOffTime turningOffTime) {
+        Snapshot current = current();
+        if (!turningOffTime.getEnd().isAfter(current.origin())) {
+            return;
+        }
+        List<HotelTurningOffTime> turningOffTimes = new ArrayList<>(current.turningOffTimes());
+        turningOffTimes.removeIf(existing -> Objects.equals(existing.getId(), turningOffTime.getId()));
+        turningOffTimes.add(turningOffTime);
+        snapshot = new Snapshot(current.origin(), sorted(turningOffTimes), current.loadedAt());
+    }
+
+    public List<HotelTurningOffTime> getFromNow() {
+        LocalDateTime now = now();
+        return current().turningOffTimes()
+                .stream()
+                .filter(turningOffTime -> turningOffTime.getEnd().isAfter(now))
+                .toList();
+    }
+
+    /**
+     * @return turning off times intersecting with {@code [from, to)} range
+     */
+    public List<HotelTurningOffTime> getIntersecting(LocalDateTime from, LocalDateTime to) {
+        Snapshot current = current();
+        if (from.isBefore(current.origin())) {
+            return hotelTurningOffRepository.findIntersectingRange(from, to);
+        }
+        return current.turningOffTimes()
+                .stream()
+                .takeWhile(turningOffTime -> turningOffTime.getStart().isBefore(to))
+                .filter(turningOffTime -> turningOffTime.getEnd().isAfter(from))
+                .toList();
+    }
+
+    public boolean intersects(LocalDateTime from, LocalDateTime to) {
+        return !getIntersecting(from, to).isEmpty();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                return snapshot;
+            }
+        }
+        if (!isFresh(current)) {
+            reloadInBackground();
+        }
+        return current;
+    }
+
+    private void reloadInBackground() {
+        if (!reloading.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(this::reload)
+                .whenComplete((result, e) -> {
+                    reloading.set(false);
+                    if (e != null) {
+                        log.warn("Expired hotel turning off snapshot was not reloaded", e);
+                    }
+                });
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return System.nanoTime() - snapshot.loadedAt() < cacheProps.hotelTurningOffTtl().toNanos();
+    }
+
+    private List<HotelTurningOffTime> sorted(List<HotelTurningOffTime> turningOffTimes) {
+        return turningOffTimes.stream()
+                .sorted(BY_START)
+                .toList();
+    }
+
+    private record Snapshot(
+            LocalDateTime origin,
+            List<HotelTurningOffTime> turningOffTimes,
+            long loadedAt
+    ) {
+    }
+}
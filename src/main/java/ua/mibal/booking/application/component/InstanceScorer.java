@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.ReservationRequest;
+
+/**
+ * Strategy of choosing one of free {@link ApartmentInstance}s for reservation.
+ * Implementations must work on in-memory data only, because scoring
+ * is a part of the reserve path.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public interface InstanceScorer {
+
+    /**
+     * @return score of free {@code instance} for the {@code request},
+     * instance with the highest score is reserved
+     */
+    long score(ApartmentInstance instance, ReservationRequest request);
+}
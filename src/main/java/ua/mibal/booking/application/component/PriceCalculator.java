@@ -19,13 +19,15 @@ package ua.mibal.booking.application.component;
 import org.springframework.stereotype.Component;
 import ua.mibal.booking.application.exception.IllegalReservationDateRangeException;
 import ua.mibal.booking.application.exception.PriceCalculatorException;
+import ua.mibal.booking.application.util.NightlyPrices;
 import ua.mibal.booking.domain.ReservationRequest;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.Period;
 
 import static java.math.BigDecimal.ZERO;
+import static java.time.temporal.ChronoUnit.DAYS;
 
 /**
  * @author Mykhailo Balakhon
@@ -42,13 +44,53 @@ public class PriceCalculator {
         return nights.multiply(oneNightPrice);
     }
 
+    /**
+     * @return total of one night prices of every night of {@code request}
+     */
+    public BigDecimal calculateReservationPrice(NightlyPrices nightlyPrices,
+                                                ReservationRequest request) {
+        validateReservationDates(request);
+        return calculatePrice(nightlyPrices, request.from().toLocalDate(), request.to().toLocalDate());
+    }
+
+    /**
+     * @return total of one night prices of every night of {@code [from, to)} dates
+     */
+    public BigDecimal calculatePrice(NightlyPrices nightlyPrices, LocalDate from, LocalDate to) {
+        validatePriceIsPositive(nightlyPrices.baseMinor());
+        if (!from.isBefore(to)) {
+            throw new IllegalReservationDateRangeException();
+        }
+        return NightlyPrices.fromMinor(nightlyPrices.totalMinor(from, to));
+    }
+
+    /**
+     * @return average one night price actually charged for {@code request}
+     * with {@code reservationPrice} total, e.g. across seasonal prices
+     */
+    public BigDecimal calculateOneNightPrice(BigDecimal reservationPrice,
+                                             ReservationRequest request) {
+        validateReservationDates(request);
+        return reservationPrice.divide(
+                calculateNights(request), NightlyPrices.MINOR_UNITS_SCALE, RoundingMode.HALF_UP
+        );
+    }
+
     private BigDecimal calculateNights(ReservationRequest request) {
         LocalDate from = request.from().toLocalDate();
         LocalDate to = request.to().toLocalDate();
-        int nights = Period.between(from, to).getDays();
+        long nights = DAYS.between(from, to);
         return BigDecimal.valueOf(nights);
     }
 
+    private void validatePriceIsPositive(long priceMinor) {
+        if (priceMinor < 0) {
+            throw new PriceCalculatorException(
+                    "Illegal one night price=" + NightlyPrices.fromMinor(priceMinor)
+            );
+        }
+    }
+
     private void validatePriceIsPositive(BigDecimal price) {
         if (price.compareTo(ZERO) < 0) {
             throw new PriceCalculatorException(
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
+import ua.mibal.booking.application.util.ApartmentPricing;
+import ua.mibal.booking.config.properties.CacheProps;
+import ua.mibal.booking.domain.Apartment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of {@link ApartmentPricing} of apartments.
+ * <p>
+ * Pricing is built from prices of apartment passed by caller
+ * and kept until {@link ApartmentChangedEvent} of the apartment is committed
+ * on this node or until {@link CacheProps#pricingTtl()} expires,
+ * so price changes made on other nodes are picked up.
+ * Pricing built concurrently with invalidation is returned but not cached.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@RequiredArgsConstructor
+@Component
+public class PricingEngine {
+    private final Map<Long, Entry> pricings = new ConcurrentHashMap<>();
+    private final CacheProps cacheProps;
+    private volatile long version;
+
+    /**
+     * NOTICE: on cache miss loads {@link Apartment#getPrices()}
+     * and {@link Apartment#getSeasonalPrices()}
+     */
+    public ApartmentPricing pricingOf(Apartment apartment) {
+        Long id = apartment.getId();
+        Entry cached = id == null ? null : pricings.get(id);
+        if (cached != null && isFresh(cached)) {
+            return cached.pricing();
+        }
+        long builtVersion = version;
+        ApartmentPricing built = ApartmentPricing.of(apartment);
+        if (id != null) {
+            synchronized (this) {
+                if (version == builtVersion) {
+                    pricings.put(id, new Entry(built, System.nanoTime()));
+                }
+            }
+        }
+        return built;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void invalidate(ApartmentChangedEvent event) {
+        version++;
+        pricings.remove(event.apartmentId());
+    }
+
+    private boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.loadedAt() < cacheProps.pricingTtl().toNanos();
+    }
+
+    private record Entry(
+            ApartmentPricing pricing,
+            long loadedAt
+    ) {
+    }
+}
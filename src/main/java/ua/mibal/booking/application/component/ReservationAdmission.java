@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.mibal.booking.application.exception.ApartmentIsNotAvailableForReservation;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.domain.Reservation;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static org.springframework.transaction.annotation.Propagation.NEVER;
+
+/**
+ * Serializes reservations of one {@code ApartmentInstance} while
+ * reservations of different instances proceed in parallel.
+ * <p>
+ * Reservation is admitted under in-JVM striped lock taken before
+ * the transaction of the reservation is opened, so concurrent requests
+ * of this node queue in JVM without holding DB connections,
+ * and under PostgreSQL transaction-level advisory lock keyed by instance id,
+ * so requests of different nodes are serialized too.
+ * Shared hotel lock is taken as well, so hotel turning off waits for
+ * reservations in progress, see {@link HotelTurningOffRepository#lockForReservation()}.
+ * Availability (reservations and turning off times of instance and hotel turning off times)
+ * is rechecked in DB under the locks. Writers of turning off times take the same DB locks,
+ * so DB stays authoritative over per-node {@link AvailabilityIndex} and {@link HotelTurningOffSnapshot}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Component
+public class ReservationAdmission {
+    private static final int STRIPES = 64;
+
+    private final ApartmentInstanceRepository apartmentInstanceRepository;
+    private final ReservationRepository reservationRepository;
+    private final HotelTurningOffRepository hotelTurningOffRepository;
+    private final TransactionTemplate transaction;
+
+    private final ReentrantLock[] stripes = newStripes();
+
+    public ReservationAdmission(ApartmentInstanceRepository apartmentInstanceRepository,
+                                ReservationRepository reservationRepository,
+                                HotelTurningOffRepository hotelTurningOffRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.apartmentInstanceRepository = apartmentInstanceRepository;
+        this.reservationRepository = reservationRepository;
+        this.hotelTurningOffRepository = hotelTurningOffRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs {@code save} of admitted {@code reservation} in a new transaction
+     * which is committed before the stripe is released.
+     * NOTICE: must not be called in a transaction, so waiters do not hold DB connections.
+     *
+     * @throws ApartmentIsNotAvailableForReservation if instance was reserved
+     *                                               concurrently for intersecting range
+     *                                               or instance or hotel is turned off in the range
+     */
+    @Transactional(propagation = NEVER)
+    public void admit(Reservation reservation, Consumer<Reservation> save) {
+        Long instanceId = reservation.getApartmentInstance().getId();
+        ReentrantLock stripe = stripeOf(instanceId);
+        stripe.lock();
+        try {
+            transaction.executeWithoutResult(status -> {
+                apartmentInstanceRepository.lockForReservation(instanceId);
+                hotelTurningOffRepository.lockForReservation();
+                validateAvailable(instanceId, reservation);
+                save.accept(reservation);
+            });
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    ReentrantLock stripeOf(Long instanceId) {
+        int hash = Long.hashCode(instanceId);
+        hash ^= hash >>> 16;
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    private void validateAvailable(Long instanceId, Reservation reservation) {
+        if (reservationRepository.existsNotRejectedByApartmentInstanceIdIntersectingRange(
+                instanceId, reservation.getStart(), reservation.getEnd())) {
+            throw new ApartmentIsNotAvailableForReservation();
+        }
+        if (apartmentInstanceRepository.existsTurningOffTimeByIdIntersectingRange(
+                instanceId, reservation.getStart(), reservation.getEnd())) {
+            throw new ApartmentIsNotAvailableForReservation();
+        }
+        if (hotelTurningOffRepository.existsIntersectingRange(reservation.getStart(), reservation.getEnd())) {
+            throw new ApartmentIsNotAvailableForReservation();
+        }
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+}
@@ -18,8 +18,10 @@ package ua.mibal.booking.application.component;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import ua.mibal.booking.application.ApartmentInstanceService;
 import ua.mibal.booking.application.UserService;
+import ua.mibal.booking.application.util.NightlyPrices;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Price;
@@ -40,7 +42,9 @@ public class ReservationBuilder {
     private final ApartmentInstanceService apartmentInstanceService;
     private final UserService userService;
     private final PriceCalculator priceCalculator;
+    private final PricingEngine pricingEngine;
 
+    @Transactional(readOnly = true)
     public Reservation buildBy(ReservationRequest request) {
         User user = userService.getOne(request.userEmail());
         ApartmentInstance apartmentInstance =
@@ -50,9 +54,13 @@ public class ReservationBuilder {
     }
 
     private ReservationDetails toDetails(Apartment apartment, ReservationRequest request) {
-        Price oneNightPriceOption = apartment.getPriceFor(request.people());
+        NightlyPrices nightlyPrices = pricingEngine.pricingOf(apartment)
+                .forPeople(request.people());
         BigDecimal reservationPrice = priceCalculator
-                .calculateReservationPrice(oneNightPriceOption.getAmount(), request);
-        return ReservationDetails.of(request, oneNightPriceOption, reservationPrice);
+                .calculateReservationPrice(nightlyPrices, request);
+        Price chargedOneNightPrice = new Price(
+                request.people(), priceCalculator.calculateOneNightPrice(reservationPrice, request)
+        );
+        return ReservationDetails.of(request, chargedOneNightPrice, reservationPrice);
     }
 }
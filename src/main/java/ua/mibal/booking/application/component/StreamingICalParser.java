@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.application.exception.UnsupportedCalendarException;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.Event;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass ICalendar parser that reads input line by line and extracts only
+ * {@code DTSTART}, {@code DTEND} and {@code SUMMARY} of top-level {@code VEVENT}s
+ * without building ical4j object graph.
+ * <p>
+ * Dates are interpreted the same way as ical4j does: {@code VALUE=DATE} values
+ * as UTC midnight, floating date-times in JVM default zone. Inputs this parser
+ * does not understand (unknown {@code TZID}s, {@code DURATION} instead of
+ * {@code DTEND}, missing properties, malformed values) are reported with
+ * {@link UnsupportedCalendarException}, so caller can fall back to ical4j.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@RequiredArgsConstructor
+@Component
+public class StreamingICalParser {
+    private final CalendarProps calendarProps;
+
+    /**
+     * Passes every parsed {@link Event} to {@code sink} right after its {@code END:VEVENT}.
+     * NOTICE: method does NOT CLOSE the {@code calendar} reader.
+     */
+    public void parse(Reader calendar, Consumer<Event> sink) throws IOException {
+        BufferedReader reader = calendar instanceof BufferedReader bufferedReader
+                ? bufferedReader
+                : new BufferedReader(calendar);
+        EventState state = new EventState(calendarProps.zoneId(), sink);
+        String logicalLine = null;
+        StringBuilder folded = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                if (folded == null) {
+                    folded = new StringBuilder(logicalLine == null ? "" : logicalLine);
+                }
+                folded.append(line, 1, line.length());
+                continue;
+            }
+            state.accept(folded == null ? logicalLine : folded.toString());
+            folded = null;
+            logicalLine = line;
+        }
+        state.accept(folded == null ? logicalLine : folded.toString());
+        if (state.inEvent) {
+            throw new UnsupportedCalendarException("Unterminated VEVENT");
+        }
+    }
+
+    private static final class EventState {
+        private final Map<String, ZoneId> zones = new HashMap<>();
+        private final ZoneId targetZoneId;
+        private final Consumer<Event> sink;
+
+        private boolean inEvent;
+        private int nestedComponents;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private String summary;
+
+        EventState(ZoneId targetZoneId, Consumer<Event> sink) {
+            this.targetZoneId = targetZoneId;
+            this.sink = sink;
+        }
+
+        void accept(String line) {
+            if (line == null || line.isEmpty()) {
+                return;
+            }
+            int valueStart = valueStart(line);
+            int nameEnd = nameEnd(line, valueStart);
+            if (nameIs(line, nameEnd, "BEGIN")) {
+                begin(line, valueStart);
+            } else if (nameIs(line, nameEnd, "END")) {
+                end(line, valueStart);
+            } else if (inEvent && nestedComponents == 0) {
+                property(line, nameEnd, valueStart);
+            }
+        }
+
+        private void begin(String line, int valueStart) {
+            if (inEvent) {
+                nestedComponents++;
+            } else if (valueIs(line, valueStart, "VEVENT")) {
+                inEvent = true;
+                start = null;
+                end = null;
+                summary = null;
+            }
+        }
+
+        private void end(String line, int valueStart) {
+            if (!inEvent) {
+                return;
+            }
+            if (nestedComponents > 0) {
+                nestedComponents--;
+                return;
+            }
+            if (!valueIs(line, valueStart, "VEVENT")) {
+                throw new UnsupportedCalendarException("Unexpected " + line);
+            }
+            if (start == null || end == null || summary == null) {
+                throw new UnsupportedCalendarException("VEVENT without DTSTART, DTEND or SUMMARY");
+            }
+            inEvent = false;
+            sink.accept(Event.from(start, end, summary));
+        }
+
+        private void property(String line, int nameEnd, int valueStart) {
+            if (nameIs(line, nameEnd, "DTSTART")) {
+                start = dateTime(line, nameEnd, valueStart);
+            } else if (nameIs(line, nameEnd, "DTEND")) {
+                end = dateTime(line, nameEnd, valueStart);
+            } else if (nameIs(line, nameEnd, "SUMMARY")) {
+                summary = unescape(line, valueStart + 1);
+            }
+        }
+
+        private LocalDateTime dateTime(String line, int nameEnd, int valueStart) {
+            String tzId = null;
+            boolean date = false;
+            if (nameEnd < valueStart) {
+                for (String parameter : line.substring(nameEnd + 1, valueStart).split(";")) {
+                    if (parameter.regionMatches(true, 0, "TZID=", 0, 5)) {
+                        tzId = unquote(parameter.substring(5));
+                    } else if (parameter.equalsIgnoreCase("VALUE=DATE")) {
+                        date = true;
+                    }
+                }
+            }
+            int from = valueStart + 1;
+            int length = line.length() - from;
+            try {
+                if (date || length == 8) {
+                    if (length != 8) {
+                        throw new UnsupportedCalendarException("Unsupported date " + line);
+                    }
+                    return atTargetZone(localDateTime(line, from, false), ZoneOffset.UTC);
+                }
+                boolean utc = length == 16 && line.charAt(from + 15) == 'Z';
+                if (length != 15 && !utc || line.charAt(from + 8) != 'T') {
+                    throw new UnsupportedCalendarException("Unsupported date-time " + line);
+                }
+                ZoneId zoneId = utc ? ZoneOffset.UTC
+                        : tzId != null ? zones.computeIfAbsent(tzId, ZoneId::of)
+                        : ZoneId.systemDefault();
+                return atTargetZone(localDateTime(line, from, true), zoneId);
+            } catch (DateTimeException | IndexOutOfBoundsException e) {
+                throw new UnsupportedCalendarException("Unsupported date-time " + line, e);
+            }
+        }
+
+        private LocalDateTime localDateTime(String line, int from, boolean withTime) {
+            int year = digits(line, from, 4);
+            int month = digits(line, from + 4, 2);
+            int day = digits(line, from + 6, 2);
+            return withTime
+                    ? LocalDateTime.of(year, month, day,
+                    digits(line, from + 9, 2), digits(line, from + 11, 2), digits(line, from + 13, 2))
+                    : LocalDateTime.of(year, month, day, 0, 0);
+        }
+
+        private LocalDateTime atTargetZone(LocalDateTime dateTime, ZoneId zoneId) {
+            return zoneId.equals(targetZoneId)
+                    ? dateTime
+                    : dateTime.atZone(zoneId)
+                    .withZoneSameInstant(targetZoneId)
+                    .toLocalDateTime();
+        }
+
+        private static int digits(String line, int from, int count) {
+            int result = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = line.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new UnsupportedCalendarException("Unexpected character in " + line);
+                }
+                result = result * 10 + digit;
+            }
+            return result;
+        }
+
+        /**
+         * @return index of ':' separating property name and parameters from value
+         */
+        private static int valueStart(String line) {
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    return i;
+                }
+            }
+            throw new UnsupportedCalendarException("Line without value " + line);
+        }
+
+        private static int nameEnd(String line, int valueStart) {
+            int parametersStart = line.indexOf(';');
+            return parametersStart < 0 || parametersStart > valueStart
+                    ? valueStart
+                    : parametersStart;
+        }
+
+        private static boolean nameIs(String line, int nameEnd, String name) {
+            return nameEnd == name.length() && line.regionMatches(true, 0, name, 0, nameEnd);
+        }
+
+        private static boolean valueIs(String line, int valueStart, String value) {
+            return line.length() - valueStart - 1 == value.length() &&
+                   line.regionMatches(true, valueStart + 1, value, 0, value.length());
+        }
+
+        private static String unquote(String value) {
+            return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")
+                    ? value.substring(1, value.length() - 1)
+                    : value;
+        }
+
+        private static String unescape(String line, int from) {
+            if (line.indexOf('\\', from) < 0) {
+                return line.substring(from);
+            }
+            StringBuilder result = new StringBuilder(line.length() - from);
+            for (int i = from; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '\\' && i + 1 < line.length()) {
+                    char escaped = line.charAt(++i);
+                    result.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+                } else {
+                    result.append(c);
+                }
+            }
+            return result.toString();
+        }
+    }
+}
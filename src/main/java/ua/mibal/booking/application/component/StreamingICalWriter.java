@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.Event;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Writes ICalendar with one {@code VEVENT} per {@link Event} directly to {@link Writer}
+ * without building ical4j object graph. Output has the same layout as ical4j one:
+ * {@code DTSTART}/{@code DTEND} are local date-times with {@code TZID} of calendar zone,
+ * text is escaped and lines are folded at 75 octets.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@RequiredArgsConstructor
+@Component
+public class StreamingICalWriter {
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final CalendarProps calendarProps;
+
+    /**
+     * NOTICE: method does NOT CLOSE the {@code writer}, but flushes it.
+     *
+     * @param stamp value of {@code DTSTAMP} of every event,
+     *              pass the same value to get byte-identical output for the same events
+     */
+    public void write(Stream<? extends Event> events, Instant stamp, Writer writer) throws IOException {
+        String dateTimePrefix = ";TZID=" + calendarProps.zoneId().getId() + ":";
+        String dtStamp = "DTSTAMP:" + DATE_TIME_FORMATTER.format(stamp.atOffset(UTC)) + "Z" + CRLF;
+        writer.write("BEGIN:VCALENDAR" + CRLF);
+        writeFolded(writer, "PRODID:" + calendarProps.iCal().prodId().getValue());
+        writer.write("VERSION:2.0" + CRLF);
+        writer.write("CALSCALE:GREGORIAN" + CRLF);
+        Iterator<? extends Event> iterator = events.iterator();
+        while (iterator.hasNext()) {
+            Event event = iterator.next();
+            writer.write("BEGIN:VEVENT" + CRLF);
+            writer.write(dtStamp);
+            writer.write("DTSTART");
+            writer.write(dateTimePrefix);
+            DATE_TIME_FORMATTER.formatTo(event.getStart(), writer);
+            writer.write(CRLF);
+            writer.write("DTEND");
+            writer.write(dateTimePrefix);
+            DATE_TIME_FORMATTER.formatTo(event.getEnd(), writer);
+            writer.write(CRLF);
+            if (event.getEventName() != null) {
+                writeFolded(writer, "SUMMARY:" + escape(event.getEventName()));
+            }
+            writer.write("END:VEVENT" + CRLF);
+        }
+        writer.write("END:VCALENDAR" + CRLF);
+        writer.flush();
+    }
+
+    private void writeFolded(Writer writer, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            boolean surrogatePair = Character.isHighSurrogate(c) && i + 1 < line.length();
+            int charOctets = surrogatePair ? 4 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            if (octets + charOctets > MAX_LINE_OCTETS) {
+                writer.write(CRLF + " ");
+                octets = 1;
+            }
+            writer.write(c);
+            if (surrogatePair) {
+                writer.write(line.charAt(++i));
+            }
+            octets += charOctets;
+        }
+        writer.write(CRLF);
+    }
+
+    private String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case ';' -> "\\;";
+                case ',' -> "\\,";
+                case '\n' -> "\\n";
+                case '\r' -> "";
+                default -> null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 8).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped == null ? text : escaped.toString();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import ua.mibal.booking.domain.Amenity;
+import ua.mibal.booking.domain.Apartment.ApartmentClass;
+import ua.mibal.booking.domain.ApartmentOptions;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters and keyset page of apartment listing. Every filter is optional,
+ * amenity flags restrict listing only when {@code true}.
+ * {@code priceFrom} and {@code priceTo} bound the cheapest apartment price,
+ * {@code after} is the cursor returned with the previous page.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public record ApartmentFilterDto(
+
+        ApartmentClass apartmentClass,
+
+        Boolean mealsIncluded,
+
+        Boolean kitchen,
+
+        Boolean bathroom,
+
+        Boolean wifi,
+
+        Boolean refrigerator,
+
+        @Positive
+        Integer people,
+
+        @PositiveOrZero
+        BigDecimal priceFrom,
+
+        @PositiveOrZero
+        BigDecimal priceTo,
+
+        Long after,
+
+        @Min(1)
+        @Max(100)
+        Integer size
+) {
+    public static final int DEFAULT_SIZE = 20;
+
+    public ApartmentFilterDto {
+        mealsIncluded = Boolean.TRUE.equals(mealsIncluded);
+        kitchen = Boolean.TRUE.equals(kitchen);
+        bathroom = Boolean.TRUE.equals(bathroom);
+        wifi = Boolean.TRUE.equals(wifi);
+        refrigerator = Boolean.TRUE.equals(refrigerator);
+        if (size == null) {
+            size = DEFAULT_SIZE;
+        }
+    }
+
+    /**
+     * @return bitmask of amenities required by filter, see {@link Amenity#bit()}
+     */
+    public int requiredAmenities() {
+        return new ApartmentOptions(mealsIncluded, kitchen, bathroom, wifi, refrigerator).toAmenities();
+    }
+
+    @AssertTrue(message = "Price range end must not be less than its start")
+    public boolean isPriceRangeOrdered() {
+        return priceFrom == null || priceTo == null || priceFrom.compareTo(priceTo) <= 0;
+    }
+}
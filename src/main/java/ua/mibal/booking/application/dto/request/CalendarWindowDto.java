@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE;
+
+/**
+ * Calendar window {@code [from, to]}, both dates are inclusive and optional.
+ * Missing {@code from} means today, so defaults are resolved before validation
+ * and the window is never longer than {@link #MAX_LENGTH}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public record CalendarWindowDto(
+
+        @DateTimeFormat(iso = DATE)
+        LocalDate from,
+
+        @DateTimeFormat(iso = DATE)
+        LocalDate to
+) {
+    public static final Period MAX_LENGTH = Period.ofYears(1);
+
+    @AssertTrue(message = "Calendar window end must not be before its start")
+    public boolean isOrdered() {
+        return to == null || !to.isBefore(effectiveFrom());
+    }
+
+    @AssertTrue(message = "Calendar window must not be longer than 1 year")
+    public boolean isNotTooLong() {
+        return to == null || !to.plusDays(1).isAfter(effectiveFrom().plus(MAX_LENGTH));
+    }
+
+    private LocalDate effectiveFrom() {
+        return from == null
+                ? LocalDate.now()
+                : from;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+
+/**
+ * One night price for nights of {@code [from, to)} dates
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public record SeasonalPriceDto(
+
+        @NotNull
+        @Min(1)
+        Integer person,
+
+        @NotNull
+        LocalDate from,
+
+        @NotNull
+        LocalDate to,
+
+        @NotNull
+        @DecimalMin("0")
+        @DecimalMax("100000")
+        BigDecimal amount
+) {
+    public static final int MAX_NIGHTS = 366;
+
+    @AssertTrue(message = "Seasonal price must cover from 1 to " + MAX_NIGHTS + " nights")
+    public boolean isRangeValid() {
+        if (from == null || to == null) {
+            return true;
+        }
+        long nights = DAYS.between(from, to);
+        return nights >= 1 && nights <= MAX_NIGHTS;
+    }
+}
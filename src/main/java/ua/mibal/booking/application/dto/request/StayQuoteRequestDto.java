@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import ua.mibal.booking.application.validation.constraints.ValidDateRange;
+import ua.mibal.booking.domain.DateRangeValidRequest;
+
+import java.time.LocalDate;
+
+/**
+ * Stay of {@code people} people for nights of {@code [from, to)} dates to quote
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@ValidDateRange
+public record StayQuoteRequestDto(
+
+        @NotNull
+        LocalDate from,
+
+        @NotNull
+        LocalDate to,
+
+        @NotNull
+        @Positive
+        Integer people
+) implements DateRangeValidRequest {
+}
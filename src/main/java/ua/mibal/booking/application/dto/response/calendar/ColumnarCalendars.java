@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.dto.response.calendar;
+
+import ua.mibal.booking.domain.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact columnar representation of calendars.
+ * Every calendar is encoded as parallel primitive arrays:
+ * {@code start} is the epoch day of event start, {@code nights} is
+ * the number of days until event end (at least 1) and {@code name}
+ * is the index of event name in the {@code names} table,
+ * shared by all calendars.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public record ColumnarCalendars(
+        List<String> names,
+        List<ColumnarCalendar> calendars
+) {
+
+    public static ColumnarCalendars of(List<? extends Collection<? extends Event>> calendars) {
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> nameIndexes = new HashMap<>();
+        List<ColumnarCalendar> columnarCalendars = new ArrayList<>(calendars.size());
+        for (Collection<? extends Event> events : calendars) {
+            int size = events.size();
+            long[] start = new long[size];
+            int[] nights = new int[size];
+            int[] name = new int[size];
+            int i = 0;
+            for (Event event : events) {
+                long startDay = event.getStart().toLocalDate().toEpochDay();
+                long endDay = event.getEnd().toLocalDate().toEpochDay();
+                start[i] = startDay;
+                nights[i] = (int) Math.max(endDay - startDay, 1);
+                name[i] = nameIndexes.computeIfAbsent(event.getEventName(), eventName -> {
+                    names.add(eventName);
+                    return names.size() - 1;
+                });
+                i++;
+            }
+            columnarCalendars.add(new ColumnarCalendar(start, nights, name));
+        }
+        return new ColumnarCalendars(names, columnarCalendars);
+    }
+
+    public record ColumnarCalendar(
+            long[] start,
+            int[] nights,
+            int[] name
+    ) {
+    }
+}
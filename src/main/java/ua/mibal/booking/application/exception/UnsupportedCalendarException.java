@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.exception;
+
+/**
+ * Thrown by streaming ICal parser on inputs it does not understand,
+ * so caller can fall back to ical4j.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class UnsupportedCalendarException extends RuntimeException {
+
+    public UnsupportedCalendarException(String message) {
+        super(message);
+    }
+
+    public UnsupportedCalendarException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
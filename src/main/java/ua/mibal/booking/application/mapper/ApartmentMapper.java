@@ -26,6 +26,7 @@ import ua.mibal.booking.application.dto.request.UpdateApartmentDto;
 import ua.mibal.booking.application.dto.request.UpdateApartmentOptionsDto;
 import ua.mibal.booking.application.dto.response.ApartmentCardDto;
 import ua.mibal.booking.application.dto.response.ApartmentDto;
+import ua.mibal.booking.application.dto.response.FreeApartmentDto;
 import ua.mibal.booking.application.mapper.linker.ApartmentPhotoLinker;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.ApartmentOptions;
@@ -54,10 +55,18 @@ public interface ApartmentMapper {
     ApartmentDto toDto(Apartment apartment);
 
     @Mapping(target = "price", source = "prices")
-    @Mapping(target = "people", source = "rooms")
+    @Mapping(target = "people", source = "capacity")
     @Mapping(target = "photos", source = "apartment")
     ApartmentCardDto toCardDto(Apartment apartment);
 
+    default FreeApartmentDto toFreeDto(Apartment apartment, Integer people) {
+        return new FreeApartmentDto(
+                apartment.getId(),
+                apartment.getName(),
+                apartment.getPriceFor(people).getAmount()
+        );
+    }
+
     @Mapping(target = "apartmentInstances", source = "instances")
     Apartment toEntity(CreateApartmentDto createApartmentDto);
 
@@ -17,77 +17,83 @@
 package ua.mibal.booking.application.mapper;
 
 import lombok.RequiredArgsConstructor;
-import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.TimeZone;
 import net.fortuna.ical4j.model.TimeZoneRegistry;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
 import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.property.DateProperty;
 import org.springframework.stereotype.Component;
 import ua.mibal.booking.config.properties.CalendarProps;
 import ua.mibal.booking.domain.Event;
 
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
-
-import static java.util.Date.from;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Zone-dependent state (ical4j {@link TimeZone}) is resolved once per zone
+ * and shared by all conversions, because ical4j registry lookup is far more
+ * expensive than the conversion itself.
+ *
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
 @RequiredArgsConstructor
 @Component
 public class CalendarFormatMapper {
+    private final Map<ZoneId, TimeZone> timeZones = new ConcurrentHashMap<>();
+    private final TimeZoneRegistry timeZoneRegistry =
+            TimeZoneRegistryFactory.getInstance().createRegistry();
+
     private final CalendarProps calendarProps;
 
     public List<VEvent> eventsToVEvents(Collection<Event> events) {
+        ZoneId zoneId = calendarProps.zoneId();
+        TimeZone timeZone = iCalTimeZone(zoneId);
         return events.stream()
-                .map(this::eventToVEvent)
+                .map(event -> eventToVEvent(event, zoneId, timeZone))
                 .toList();
     }
 
     public List<Event> vEventsToEvents(List<VEvent> vEvents) {
+        ZoneId zoneId = calendarProps.zoneId();
         return vEvents.stream()
-                .map(this::vEventToEvent)
+                .map(vEvent -> vEventToEvent(vEvent, zoneId))
                 .toList();
     }
 
-
-    private VEvent eventToVEvent(Event event) {
+    private VEvent eventToVEvent(Event event, ZoneId zoneId, TimeZone timeZone) {
         return new VEvent(
-                toIcal(event.getStart(), calendarProps.zoneId()),
-                toIcal(event.getEnd(), calendarProps.zoneId()),
+                toICal(event.getStart(), zoneId, timeZone),
+                toICal(event.getEnd(), zoneId, timeZone),
                 event.getEventName()
         );
     }
 
-    private Event vEventToEvent(VEvent vEvent) {
+    private Event vEventToEvent(VEvent vEvent, ZoneId zoneId) {
         return Event.from(
-                fromICal(vEvent.getStartDate(), calendarProps.zoneId()),
-                fromICal(vEvent.getEndDate(), calendarProps.zoneId()),
+                fromICal(vEvent.getStartDate(), zoneId),
+                fromICal(vEvent.getEndDate(), zoneId),
                 vEvent.getSummary().getValue()
         );
     }
 
     private LocalDateTime fromICal(DateProperty dateProperty, ZoneId targetZoneId) {
-        Instant instant = dateProperty.getDate().toInstant();
-        ZonedDateTime zonedDateTimeAtOurZone = instant.atZone(targetZoneId);
-        return zonedDateTimeAtOurZone.toLocalDateTime();
+        return LocalDateTime.ofInstant(dateProperty.getDate().toInstant(), targetZoneId);
     }
 
-    private DateTime toIcal(LocalDateTime localDateTime, ZoneId sourceZoneId) {
-        Instant instant = localDateTime.atZone(sourceZoneId).toInstant();
-        TimeZone timeZone = iCaltimeZone(sourceZoneId.getId());
-        return new DateTime(from(instant), timeZone);
+    private DateTime toICal(LocalDateTime localDateTime, ZoneId sourceZoneId, TimeZone timeZone) {
+        long epochMilli = localDateTime.atZone(sourceZoneId).toInstant().toEpochMilli();
+        DateTime dateTime = new DateTime(epochMilli);
+        dateTime.setTimeZone(timeZone);
+        return dateTime;
     }
 
-    private TimeZone iCaltimeZone(String id) {
-        TimeZoneRegistry registry = new CalendarBuilder().getRegistry();
-        return registry.getTimeZone(id);
+    private TimeZone iCalTimeZone(ZoneId zoneId) {
+        return timeZones.computeIfAbsent(zoneId, id -> timeZoneRegistry.getTimeZone(id.getId()));
     }
 }
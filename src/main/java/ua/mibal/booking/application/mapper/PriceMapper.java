@@ -17,9 +17,12 @@
 package ua.mibal.booking.application.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import ua.mibal.booking.application.dto.request.PriceDto;
+import ua.mibal.booking.application.dto.request.SeasonalPriceDto;
 import ua.mibal.booking.domain.Price;
+import ua.mibal.booking.domain.SeasonalPrice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -40,6 +43,14 @@ public interface PriceMapper {
 
     PriceDto toDto(Price price);
 
+    @Mapping(target = "fromDate", source = "from")
+    @Mapping(target = "toDate", source = "to")
+    SeasonalPrice toEntity(SeasonalPriceDto seasonalPriceDto);
+
+    @Mapping(target = "from", source = "fromDate")
+    @Mapping(target = "to", source = "toDate")
+    SeasonalPriceDto toDto(SeasonalPrice seasonalPrice);
+
     default BigDecimal findMinPrice(List<Price> prices) {
         if (prices == null || prices.isEmpty()) {
             return null;
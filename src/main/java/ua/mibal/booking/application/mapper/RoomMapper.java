@@ -44,10 +44,7 @@ public interface RoomMapper {
 
     default Integer roomsToPeopleCount(List<Room> rooms) {
         return rooms.stream()
-                .map(Room::getBeds)
-                .mapToInt(beds -> beds.stream()
-                        .mapToInt(Bed::getSize)
-                        .sum()
-                ).sum();
+                .mapToInt(Room::getCapacity)
+                .sum();
     }
 }
@@ -16,38 +16,26 @@
 
 package ua.mibal.booking.application.mapper.linker;
 
-import org.mapstruct.Mapper;
-import org.mapstruct.MappingConstants;
-import org.springframework.hateoas.Link;
-import ua.mibal.booking.adapter.in.web.PhotoController;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
 import ua.mibal.booking.domain.Apartment;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 /**
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
-@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+@RequiredArgsConstructor
+@Component
 public class ApartmentPhotoLinker {
+    private final PhotoLinkFactory photoLinkFactory;
 
     public List<String> toLinks(Apartment apartment) {
-        List<String> links = new ArrayList<>();
-        for (int i = 0; i < apartment.getPhotos().size(); i++) {
-            String link = toLink(apartment.getId(), i);
-            links.add(link);
-        }
-        return links;
+        return photoLinkFactory.apartmentPhotoLinks(apartment.getId(), apartment.getPhotos().size());
     }
 
     public String toLink(Long id, Integer index) {
-        var getPhotoMethod = methodOn(PhotoController.class)
-                .getApartmentPhoto(id, index);
-        Link photoLink = linkTo(getPhotoMethod).withSelfRel();
-        return photoLink.getHref();
+        return photoLinkFactory.apartmentPhotoLink(id, index);
     }
 }
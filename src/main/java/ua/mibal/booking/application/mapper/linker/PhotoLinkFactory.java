@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.mapper.linker;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+import ua.mibal.booking.adapter.in.web.PhotoController;
+import ua.mibal.booking.config.properties.LinkProps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Builds links to {@link PhotoController} photos by plain string concatenation.
+ * <p>
+ * Path templates are resolved from {@link PhotoController} mappings once at startup.
+ * Links are based on configured {@link LinkProps#baseUri()}, not on request {@code Host},
+ * so they are the same for every request and safe to cache across requests.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Component
+public class PhotoLinkFactory {
+    private final String baseUri;
+    private final PathTemplate apartmentPhotoTemplate;
+    private final PathTemplate userPhotoTemplate;
+
+    public PhotoLinkFactory(LinkProps linkProps) {
+        this.baseUri = stripTrailingSlash(linkProps.baseUri().toString());
+        this.apartmentPhotoTemplate = PathTemplate.of(linkTo(methodOn(PhotoController.class)
+                .getApartmentPhoto(null, null)).withSelfRel().getHref());
+        this.userPhotoTemplate = PathTemplate.of(linkTo(methodOn(PhotoController.class)
+                .getUserPhoto(null)).withSelfRel().getHref());
+    }
+
+    /**
+     * @return links to {@code count} photos of apartment with indexes {@code [0, count)}
+     */
+    public List<String> apartmentPhotoLinks(Long apartmentId, int count) {
+        List<String> links = new ArrayList<>(count);
+        if (count == 0) {
+            return links;
+        }
+        String prefix = baseUri + apartmentPhotoTemplate.literal(0)
+                        + apartmentId + apartmentPhotoTemplate.literal(1);
+        String suffix = apartmentPhotoTemplate.literal(2);
+        for (int i = 0; i < count; i++) {
+            links.add(prefix + i + suffix);
+        }
+        return links;
+    }
+
+    public String apartmentPhotoLink(Long apartmentId, int index) {
+        return baseUri + apartmentPhotoTemplate.literal(0)
+               + apartmentId + apartmentPhotoTemplate.literal(1)
+               + index + apartmentPhotoTemplate.literal(2);
+    }
+
+    public String userPhotoLink(String email) {
+        return baseUri + userPhotoTemplate.literal(0)
+               + UriUtils.encode(email, UTF_8) + userPhotoTemplate.literal(1);
+    }
+
+    private static String stripTrailingSlash(String uri) {
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+
+    /**
+     * Path template split by its variables: {@code /a/{x}/b/{y}} has
+     * literals {@code "/a/"}, {@code "/b/"} and {@code ""}.
+     */
+    private record PathTemplate(List<String> literals) {
+
+        static PathTemplate of(String template) {
+            List<String> literals = new ArrayList<>();
+            int literalStart = 0;
+            int variableStart;
+            while ((variableStart = template.indexOf('{', literalStart)) != -1) {
+                literals.add(template.substring(literalStart, variableStart));
+                literalStart = template.indexOf('}', variableStart) + 1;
+            }
+            literals.add(template.substring(literalStart));
+            return new PathTemplate(List.copyOf(literals));
+        }
+
+        String literal(int index) {
+            return literals.get(index);
+        }
+    }
+}
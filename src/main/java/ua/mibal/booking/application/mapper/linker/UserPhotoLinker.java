@@ -16,29 +16,23 @@
 
 package ua.mibal.booking.application.mapper.linker;
 
-import org.mapstruct.Mapper;
-import org.mapstruct.MappingConstants;
-import org.springframework.hateoas.Link;
-import ua.mibal.booking.adapter.in.web.PhotoController;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
 import ua.mibal.booking.domain.User;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 /**
  * @author Mykhailo Balakhon
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
-@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+@RequiredArgsConstructor
+@Component
 public class UserPhotoLinker {
+    private final PhotoLinkFactory photoLinkFactory;
 
     public String toLink(User user) {
         if (user.getPhoto().isEmpty()) {
             return null;
         }
-        var getPhotoMethod = methodOn(PhotoController.class)
-                .getUserPhoto(user.getEmail());
-        Link photoLink = linkTo(getPhotoMethod).withSelfRel();
-        return photoLink.getHref();
+        return photoLinkFactory.userPhotoLink(user.getEmail());
     }
 }
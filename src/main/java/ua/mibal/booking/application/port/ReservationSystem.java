@@ -20,7 +20,10 @@ import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Event;
 import ua.mibal.booking.domain.ReservationRequest;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Mykhailo Balakhon
@@ -30,6 +33,42 @@ public interface ReservationSystem {
 
     List<Event> getEventsFor(ApartmentInstance apartmentInstance);
 
+    /**
+     * @return events intersecting {@code [from, to)} by ids of {@code apartmentInstances}
+     * that have any
+     */
+    default Map<Long, List<Event>> getEventsFor(List<ApartmentInstance> apartmentInstances,
+                                                LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<Event>> events = new HashMap<>();
+        for (ApartmentInstance apartmentInstance : apartmentInstances) {
+            List<Event> intersecting = getEventsFor(apartmentInstance).stream()
+                    .filter(event -> event.getEnd().isAfter(from) && event.getStart().isBefore(to))
+                    .toList();
+            if (!intersecting.isEmpty()) {
+                events.put(apartmentInstance.getId(), intersecting);
+            }
+        }
+        return events;
+    }
+
     boolean isFreeForReservation(ApartmentInstance apartmentInstance,
                                  ReservationRequest reservationRequest);
+
+    /**
+     * Local systems answer from local database, so they are asked
+     * by {@link #filterForFree} on the calling thread instead of
+     * per apartment checks on reservation system pool threads
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * Removes apartments that are not free for {@code reservationRequest}
+     */
+    default void filterForFree(List<ApartmentInstance> apartmentInstances,
+                               ReservationRequest reservationRequest) {
+        apartmentInstances.removeIf(apartmentInstance ->
+                !isFreeForReservation(apartmentInstance, reservationRequest));
+    }
 }
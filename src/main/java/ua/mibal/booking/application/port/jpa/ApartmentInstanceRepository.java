@@ -18,7 +18,9 @@ package ua.mibal.booking.application.port.jpa;
 
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.booking.domain.TurningOffTime;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,10 +30,49 @@ import java.util.Optional;
  */
 public interface ApartmentInstanceRepository extends Repository<ApartmentInstance, Long> {
 
+    /**
+     * NOTICE: hotel turning off times are not checked.
+     */
     List<ApartmentInstance> findFreeByRequestFetchApartmentAndPrices(ReservationRequest request);
 
+    List<ApartmentInstance> findByApartmentIdAndPeopleFetchApartmentAndPrices(Long apartmentId, int people);
+
+    /**
+     * NOTICE: hotel turning off times are not checked.
+     */
+    List<ApartmentInstance> findFreeByPeriodAndPeopleFetchApartmentAndPrices(ReservationRequest request);
+
+    List<ApartmentInstance> findByPeopleFetchApartmentAndPrices(int people);
+
     Optional<ApartmentInstance> findByIdFetchReservations(Long id);
 
+    /**
+     * Acquires DB lock of the instance reservations held until the end of the transaction
+     */
+    void lockForReservation(Long id);
+
+    List<ApartmentInstance> findAllFetchTurningOffTimes();
+
+    List<ApartmentInstance> findByApartmentId(Long apartmentId);
+
+    /**
+     * @return turning off times with initialized parent apartment instance
+     */
+    List<TurningOffTime> findTurningOffTimesByApartmentIdIntersectingRange(Long apartmentId, LocalDateTime from, LocalDateTime to);
+
+    List<TurningOffTime> findTurningOffTimesByIdIntersectingRange(Long id, LocalDateTime from, LocalDateTime to);
+
+    boolean existsTurningOffTimeByIdIntersectingRange(Long id, LocalDateTime from, LocalDateTime to);
+
+    List<ApartmentInstance> findAllWithBookingICalUrl();
+
+    /**
+     * @return version of apartment instance calendar, that changes
+     * with every change of its reservations and turning off times
+     * or hotel turning off times
+     */
+    Optional<String> findCalendarVersionById(Long id);
+
     // TODO delete
     List<ApartmentInstance> findByApartmentIdFetchReservations(Long apartmentId);
 }
@@ -16,9 +16,12 @@
 
 package ua.mibal.booking.application.port.jpa;
 
+import ua.mibal.booking.application.util.AmenityMask;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Photo;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +36,37 @@ public interface ApartmentRepository extends Repository<Apartment, Long> {
     Optional<Apartment> findByIdFetchInstances(Long id);
 
     boolean doesApartmentHavePhoto(Long id, Photo photo);
+
+    /**
+     * Keyset page of ids of apartments matching filters, ordered by id.
+     * {@code null} filters are ignored,
+     * {@code priceFrom} and {@code priceTo} bound the cheapest apartment price.
+     *
+     * @param after      id of the last apartment of previous page or {@code null} for the first page
+     * @param amenities  accepted amenity bitmasks, see {@link AmenityMask#supersetsOf(int)}
+     */
+    List<Long> findIdsByFilter(Long after,
+                               String apartmentClass,
+                               Collection<Integer> amenities,
+                               Integer people,
+                               BigDecimal priceFrom,
+                               BigDecimal priceTo,
+                               int limit);
+
+    List<Apartment> findAllByIdInFetchPhotos(Collection<Long> ids);
+
+    /**
+     * Atomically adds comment {@code rate} to the rating aggregate of apartment
+     */
+    void addRate(Long id, Double rate);
+
+    /**
+     * Atomically subtracts comment {@code rate} from the rating aggregate of apartment
+     */
+    void removeRate(Long id, Double rate);
+
+    /**
+     * Atomically adds {@code delta} (negative for removed beds) to the capacity of apartment
+     */
+    void addCapacity(Long id, int delta);
 }
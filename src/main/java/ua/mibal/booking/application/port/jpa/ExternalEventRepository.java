@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.port.jpa;
+
+import ua.mibal.booking.domain.ExternalEvent;
+import ua.mibal.booking.domain.ExternalEventSource;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public interface ExternalEventRepository extends Repository<ExternalEvent, Long> {
+
+    List<ExternalEvent> findByApartmentInstanceIdAndSource(Long apartmentInstanceId, ExternalEventSource source);
+
+    List<ExternalEvent> findByApartmentInstanceIdFromNow(Long apartmentInstanceId);
+
+    List<ExternalEvent> findByApartmentInstanceIdsIntersectingRange(Collection<Long> apartmentInstanceIds, LocalDateTime start, LocalDateTime end);
+
+    boolean existsByApartmentInstanceIdIntersectingRange(Long apartmentInstanceId, LocalDateTime start, LocalDateTime end);
+
+    List<Long> findApartmentInstanceIdsIntersectingRange(Collection<Long> apartmentInstanceIds, LocalDateTime start, LocalDateTime end);
+
+    <S extends ExternalEvent> List<S> saveAll(Iterable<S> events);
+
+    void deleteAllInBatch(Iterable<ExternalEvent> events);
+}
@@ -18,6 +18,7 @@ package ua.mibal.booking.application.port.jpa;
 
 import ua.mibal.booking.domain.HotelTurningOffTime;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -27,4 +28,22 @@ import java.util.List;
 public interface HotelTurningOffRepository extends Repository<HotelTurningOffTime, Long> {
 
     List<HotelTurningOffTime> findFromNow();
+
+    List<HotelTurningOffTime> findEndingAfter(LocalDateTime dateTime);
+
+    List<HotelTurningOffTime> findIntersectingRange(LocalDateTime from, LocalDateTime to);
+
+    boolean existsIntersectingRange(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Acquires shared DB lock of hotel held until the end of the transaction,
+     * so reservations proceed in parallel and wait only for hotel turning off
+     */
+    void lockForReservation();
+
+    /**
+     * Acquires exclusive DB lock of hotel held until the end of the transaction,
+     * so hotel turning off waits for reservations in progress
+     */
+    void lockForTurningOff();
 }
@@ -18,16 +18,31 @@ package ua.mibal.booking.application.port.jpa;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ua.mibal.booking.application.dto.response.SimpleEvent;
 import ua.mibal.booking.domain.Reservation;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends Repository<Reservation, Long> {
 
+    Reservation saveAndFlush(Reservation reservation);
+
     Page<Reservation> findAllByUserEmail(String email, Pageable pageable);
 
     Optional<Reservation> findByIdFetchRejections(Long id);
 
     boolean existsReservationThatIntersectsRange(LocalDateTime start, LocalDateTime end);
+
+    boolean existsNotRejectedByApartmentInstanceIdIntersectingRange(Long apartmentInstanceId, LocalDateTime start, LocalDateTime end);
+
+    List<Reservation> findNotRejectedFromNow();
+
+    Stream<SimpleEvent> streamNotRejectedEventsByApartmentInstanceIdEndingAfter(Long apartmentInstanceId, LocalDateTime dateTime);
+
+    List<Reservation> findNotRejectedByApartmentIdIntersectingRange(Long apartmentId, LocalDateTime from, LocalDateTime to);
+
+    List<Reservation> findNotRejectedByApartmentInstanceIdIntersectingRange(Long apartmentInstanceId, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import ua.mibal.booking.domain.Amenity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Operations on amenity bitmasks, see {@link Amenity#bit()}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class AmenityMask {
+    public static final int NONE = 0;
+    public static final int ALL = (1 << Amenity.values().length) - 1;
+
+    public static int of(Collection<Amenity> amenities) {
+        int mask = NONE;
+        for (Amenity amenity : amenities) {
+            mask |= amenity.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * @return {@code true} if {@code mask} has every amenity of {@code required}
+     */
+    public static boolean matches(int mask, int required) {
+        return (mask & required) == required;
+    }
+
+    /**
+     * Every mask having all amenities of {@code required} mask.
+     * Turns {@code (mask & required) = required} predicate into
+     * {@code mask in (...)} one which can use an index on mask.
+     */
+    public static List<Integer> supersetsOf(int required) {
+        List<Integer> supersets = new ArrayList<>();
+        int free = ALL & ~required;
+        int subset = free;
+        while (true) {
+            supersets.add(required | subset);
+            if (subset == 0) {
+                break;
+            }
+            subset = (subset - 1) & free;
+        }
+        return supersets;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import ua.mibal.booking.application.exception.PriceNotFoundException;
+import ua.mibal.booking.domain.Apartment;
+import ua.mibal.booking.domain.Price;
+import ua.mibal.booking.domain.SeasonalPrice;
+
+import java.util.List;
+
+/**
+ * {@link NightlyPrices} of apartment indexed by people count.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class ApartmentPricing {
+    private final NightlyPrices[] byPeople;
+
+    private ApartmentPricing(NightlyPrices[] byPeople) {
+        this.byPeople = byPeople;
+    }
+
+    /**
+     * NOTICE: loads {@link Apartment#getPrices()} and {@link Apartment#getSeasonalPrices()}
+     */
+    public static ApartmentPricing of(Apartment apartment) {
+        List<Price> prices = apartment.getPrices();
+        List<SeasonalPrice> seasonalPrices = apartment.getSeasonalPrices();
+        int maxPeople = prices.stream()
+                .mapToInt(Price::getPerson)
+                .max().orElse(0);
+        NightlyPrices[] byPeople = new NightlyPrices[maxPeople + 1];
+        for (Price price : prices) {
+            List<SeasonalPrice> seasonal = seasonalPrices.stream()
+                    .filter(seasonalPrice -> seasonalPrice.getPerson().equals(price.getPerson()))
+                    .toList();
+            byPeople[price.getPerson()] = NightlyPrices.of(price.getAmount(), seasonal);
+        }
+        return new ApartmentPricing(byPeople);
+    }
+
+    public boolean hasPriceFor(int people) {
+        return people >= 0 && people < byPeople.length && byPeople[people] != null;
+    }
+
+    /**
+     * @throws PriceNotFoundException if apartment has no price for {@code people}
+     */
+    public NightlyPrices forPeople(int people) {
+        if (!hasPriceFor(people)) {
+            throw new PriceNotFoundException(people);
+        }
+        return byPeople[people];
+    }
+}
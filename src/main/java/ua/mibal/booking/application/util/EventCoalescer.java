@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import ua.mibal.booking.domain.Event;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merges overlapping and adjacent {@link Event}s into minimal busy ranges.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class EventCoalescer {
+    public static final String MERGED_EVENT_NAME = "Busy";
+
+    private static final Comparator<Event> BY_START =
+            Comparator.comparing(Event::getStart);
+
+    /**
+     * Sorts events by start and merges them in a single pass.
+     * Range built of one event keeps its name,
+     * range built of several events is named {@link #MERGED_EVENT_NAME}.
+     *
+     * @return non-overlapping and non-adjacent events sorted by start
+     */
+    public static List<Event> coalesce(Collection<? extends Event> events) {
+        if (events.size() < 2) {
+            return List.copyOf(events);
+        }
+        Event[] sorted = events.toArray(new Event[0]);
+        Arrays.sort(sorted, BY_START);
+
+        List<Event> coalesced = new ArrayList<>();
+        Event first = sorted[0];
+        LocalDateTime start = first.getStart();
+        LocalDateTime end = first.getEnd();
+        boolean merged = false;
+        for (int i = 1; i < sorted.length; i++) {
+            Event event = sorted[i];
+            if (event.getStart().isAfter(end)) {
+                coalesced.add(merged ? Event.from(start, end, MERGED_EVENT_NAME) : first);
+                first = event;
+                start = event.getStart();
+                end = event.getEnd();
+                merged = false;
+            } else {
+                if (event.getEnd().isAfter(end)) {
+                    end = event.getEnd();
+                }
+                merged = true;
+            }
+        }
+        coalesced.add(merged ? Event.from(start, end, MERGED_EVENT_NAME) : first);
+        return coalesced;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+/**
+ * Augmented AVL tree of half-open intervals {@code [start, end)}.
+ * Every interval is identified by {@code (start, end, key)} triple,
+ * so equal intervals with different keys can coexist in the tree.
+ * NOTICE: class is NOT thread-safe.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class IntervalTree {
+    private Node root;
+    private int size;
+
+    public void add(long start, long end, long key) {
+        root = insert(root, start, end, key);
+        size++;
+    }
+
+    public boolean remove(long start, long end, long key) {
+        int sizeBefore = size;
+        root = delete(root, start, end, key);
+        return size < sizeBefore;
+    }
+
+    /**
+     * @return {@code true} if any interval of the tree intersects
+     * with {@code [start, end)} range
+     */
+    public boolean overlaps(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && node.end > start) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return max end of intervals starting before {@code start}
+     * or {@link Long#MIN_VALUE} if there are no such intervals
+     */
+    public long maxEndBefore(long start) {
+        long result = Long.MIN_VALUE;
+        Node node = root;
+        while (node != null) {
+            if (node.start < start) {
+                result = Math.max(result, node.end);
+                if (node.left != null) {
+                    result = Math.max(result, node.left.maxEnd);
+                }
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return min start of intervals starting at or after {@code end}
+     * or {@link Long#MAX_VALUE} if there are no such intervals
+     */
+    public long minStartFrom(long end) {
+        long result = Long.MAX_VALUE;
+        Node node = root;
+        while (node != null) {
+            if (node.start >= end) {
+                result = node.start;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Node insert(Node node, long start, long end, long key) {
+        if (node == null) {
+            return new Node(start, end, key);
+        }
+        if (compare(start, end, key, node) < 0) {
+            node.left = insert(node.left, start, end, key);
+        } else {
+            node.right = insert(node.right, start, end, key);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long start, long end, long key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, end, key, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, end, key);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, end, key);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = min(node.right);
+            node.right = deleteMin(node.right);
+            successor.right = node.right;
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node min(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private int compare(long start, long end, long key, Node node) {
+        int cmp = Long.compare(start, node.start);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compare(end, node.end);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compare(key, node.key);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int balance = balanceFactor(node);
+        if (balance > 1) {
+            if (balanceFactor(node.left) < 0) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (balanceFactor(node.right) > 0) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private int balanceFactor(Node node) {
+        return height(node.left) - height(node.right);
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final long key;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, long key) {
+            this.start = start;
+            this.end = end;
+            this.key = key;
+            this.maxEnd = end;
+        }
+    }
+}
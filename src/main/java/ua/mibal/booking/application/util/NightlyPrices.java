@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import ua.mibal.booking.domain.SeasonalPrice;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Precomputed one night prices of apartment for one people count.
+ * <p>
+ * Prices are kept in long minor units (1/100 of currency unit).
+ * Seasonal prices are stored sparsely as sorted disjoint segments with prefix sums
+ * of their surcharges over base price, so memory depends only on the count of
+ * {@link SeasonalPrice}s and total of any stay is computed by two binary searches
+ * without allocations. Nights outside of segments cost base price.
+ * <p>
+ * Overlapping seasonal prices are applied in order of their start dates,
+ * so a range starting later (e.g. holidays inside a season) takes precedence.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class NightlyPrices {
+    public static final int MINOR_UNITS_SCALE = 2;
+
+    private final long baseMinor;
+    /**
+     * Epoch days of segment starts (inclusive) and ends (exclusive)
+     */
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] amounts;
+    /**
+     * {@code surchargeSums[i]} is the total surcharge over base price of segments {@code [0, i)}
+     */
+    private final long[] surchargeSums;
+
+    private NightlyPrices(long baseMinor, long[] starts, long[] ends, long[] amounts) {
+        this.baseMinor = baseMinor;
+        this.starts = starts;
+        this.ends = ends;
+        this.amounts = amounts;
+        this.surchargeSums = new long[starts.length + 1];
+        for (int i = 0; i < starts.length; i++) {
+            surchargeSums[i + 1] = surchargeSums[i] + (ends[i] - starts[i]) * (amounts[i] - baseMinor);
+        }
+    }
+
+    /**
+     * @param seasonalPrices seasonal prices for the same people count as {@code basePrice}
+     */
+    public static NightlyPrices of(BigDecimal basePrice, List<SeasonalPrice> seasonalPrices) {
+        List<SeasonalPrice> byStart = seasonalPrices.stream()
+                .sorted(Comparator.comparing(SeasonalPrice::getFromDate))
+                .toList();
+        TreeMap<Long, long[]> segments = new TreeMap<>();
+        for (SeasonalPrice seasonalPrice : byStart) {
+            paint(segments,
+                    seasonalPrice.getFromDate().toEpochDay(),
+                    seasonalPrice.getToDate().toEpochDay(),
+                    toMinor(seasonalPrice.getAmount()));
+        }
+        long[] starts = new long[segments.size()];
+        long[] ends = new long[segments.size()];
+        long[] amounts = new long[segments.size()];
+        int i = 0;
+        for (Map.Entry<Long, long[]> segment : segments.entrySet()) {
+            starts[i] = segment.getKey();
+            ends[i] = segment.getValue()[0];
+            amounts[i] = segment.getValue()[1];
+            i++;
+        }
+        return new NightlyPrices(toMinor(basePrice), starts, ends, amounts);
+    }
+
+    /**
+     * Overwrites {@code [from, to)} days of disjoint {@code segments}
+     * (start to {end, amount}) with {@code amount}
+     */
+    private static void paint(TreeMap<Long, long[]> segments, long from, long to, long amount) {
+        if (from >= to) {
+            return;
+        }
+        Map.Entry<Long, long[]> before = segments.lowerEntry(from);
+        if (before != null && before.getValue()[0] > from) {
+            long[] split = before.getValue();
+            segments.put(before.getKey(), new long[]{from, split[1]});
+            segments.put(from, split);
+        }
+        Map.Entry<Long, long[]> last = segments.lowerEntry(to);
+        if (last != null && last.getValue()[0] > to) {
+            long[] split = last.getValue();
+            segments.put(last.getKey(), new long[]{to, split[1]});
+            segments.put(to, split);
+        }
+        segments.subMap(from, to).clear();
+        segments.put(from, new long[]{to, amount});
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(MINOR_UNITS_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, MINOR_UNITS_SCALE);
+    }
+
+    /**
+     * @return total price of nights of {@code [from, to)} dates in minor units
+     */
+    public long totalMinor(LocalDate from, LocalDate to) {
+        return totalMinor(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * @param fromDay epoch day of check-in
+     * @param toDay   epoch day of check-out
+     */
+    public long totalMinor(long fromDay, long toDay) {
+        long total = (toDay - fromDay) * baseMinor;
+        int first = firstGreater(ends, fromDay);
+        int last = firstGreater(starts, toDay - 1) - 1;
+        if (first > last) {
+            return total;
+        }
+        total += surchargeSums[last + 1] - surchargeSums[first];
+        if (starts[first] < fromDay) {
+            total -= (fromDay - starts[first]) * (amounts[first] - baseMinor);
+        }
+        if (ends[last] > toDay) {
+            total -= (ends[last] - toDay) * (amounts[last] - baseMinor);
+        }
+        return total;
+    }
+
+    public long baseMinor() {
+        return baseMinor;
+    }
+
+    /**
+     * @return index of the first element of sorted {@code values} greater than {@code key}
+     */
+    private static int firstGreater(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+/**
+ * Fixed-size bitset of occupied nights backed by primitive {@code long[]}.
+ * Bit {@code i} stands for {@code i}-th night of the horizon.
+ * All ranges are half-open {@code [from, to)} and silently clamped
+ * to {@code [0, capacity)}.
+ * <p>
+ * Thread-safe: writers are serialized and publish modified copy of words
+ * through volatile field, so readers see consistent words without locks.
+ * Words are few (a long per 64 nights), so copying is cheap.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class OccupancyBitset {
+    private static final int WORD_SIZE = Long.SIZE;
+
+    private final int capacity;
+    private volatile long[] words;
+
+    public OccupancyBitset(int capacity) {
+        this.capacity = capacity;
+        this.words = new long[(capacity + WORD_SIZE - 1) / WORD_SIZE];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean get(int night) {
+        return night >= 0 && night < capacity &&
+               (words[night / WORD_SIZE] & (1L << night)) != 0;
+    }
+
+    public synchronized void set(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, capacity);
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from / WORD_SIZE;
+        int lastWord = (to - 1) / WORD_SIZE;
+        long[] copy = words.clone();
+        for (int i = firstWord; i <= lastWord; i++) {
+            copy[i] |= mask(i, firstWord, lastWord, from, to);
+        }
+        words = copy;
+    }
+
+    public synchronized void clear(int night) {
+        if (night >= 0 && night < capacity) {
+            long[] copy = words.clone();
+            copy[night / WORD_SIZE] &= ~(1L << night);
+            words = copy;
+        }
+    }
+
+    /**
+     * @return {@code true} if any night of {@code [from, to)} range is set
+     * in this or in {@code other} bitset of the same capacity
+     */
+    public boolean anySet(int from, int to, OccupancyBitset other) {
+        from = Math.max(from, 0);
+        to = Math.min(to, capacity);
+        if (from >= to) {
+            return false;
+        }
+        long[] words = this.words;
+        long[] otherWords = other == null ? null : other.words;
+        int firstWord = from / WORD_SIZE;
+        int lastWord = (to - 1) / WORD_SIZE;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long word = otherWords == null
+                    ? words[i]
+                    : words[i] | otherWords[i];
+            if ((word & mask(i, firstWord, lastWord, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean anySet(int from, int to) {
+        return anySet(from, to, null);
+    }
+
+    private long mask(int word, int firstWord, int lastWord, int from, int to) {
+        long mask = -1L;
+        if (word == firstWord) {
+            mask &= -1L << from;
+        }
+        if (word == lastWord) {
+            mask &= -1L >>> (WORD_SIZE - 1 - ((to - 1) % WORD_SIZE));
+        }
+        return mask;
+    }
+}
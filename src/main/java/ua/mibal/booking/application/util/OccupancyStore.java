@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Per-night occupancy of apartment instances over rolling horizon
+ * of {@code horizon} nights starting at {@code origin}.
+ * <p>
+ * Night {@code N} is the time slot {@code [N check-in, N+1 check-in)}.
+ * Busy range marks every night it touches, so the store is a conservative
+ * superset of real occupancy: {@link #isFree} result {@code true} is exact,
+ * while {@code false} may need confirmation by the precise source.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class OccupancyStore {
+    private static final long SECONDS_PER_NIGHT = 24 * 60 * 60;
+
+    private final LocalDateTime origin;
+    private final long originSecond;
+    private final int horizon;
+    private final Map<Long, OccupancyBitset> instances = new ConcurrentHashMap<>();
+    private final OccupancyBitset hotel;
+
+    public OccupancyStore(LocalDate origin, int horizon, LocalTime checkIn) {
+        this.origin = LocalDateTime.of(origin, checkIn);
+        this.originSecond = this.origin.toEpochSecond(UTC);
+        this.horizon = horizon;
+        this.hotel = new OccupancyBitset(horizon);
+    }
+
+    /**
+     * @return {@code true} if every night of {@code [from, to)} range
+     * is inside the horizon
+     */
+    public boolean covers(LocalDateTime from, LocalDateTime to) {
+        return firstNight(from) >= 0 && lastNight(to) < horizon;
+    }
+
+    public boolean isFree(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        int first = firstNight(from);
+        int last = lastNight(to);
+        OccupancyBitset instance = instances.get(instanceId);
+        return instance == null
+                ? !hotel.anySet(first, last + 1)
+                : !instance.anySet(first, last + 1, hotel);
+    }
+
+    public void occupy(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        instances.computeIfAbsent(instanceId, id -> new OccupancyBitset(horizon))
+                .set(firstNight(from), lastNight(to) + 1);
+    }
+
+    public void occupyHotel(LocalDateTime from, LocalDateTime to) {
+        hotel.set(firstNight(from), lastNight(to) + 1);
+    }
+
+    /**
+     * Recomputes nights of released {@code [from, to)} range:
+     * night stays occupied only if {@code stillBusy} reports
+     * remaining busy ranges in its time slot.
+     */
+    public void release(Long instanceId, LocalDateTime from, LocalDateTime to,
+                        BiPredicate<LocalDateTime, LocalDateTime> stillBusy) {
+        OccupancyBitset instance = instances.get(instanceId);
+        if (instance == null) {
+            return;
+        }
+        int first = Math.max(firstNight(from), 0);
+        int last = Math.min(lastNight(to), horizon - 1);
+        for (int night = first; night <= last; night++) {
+            LocalDateTime nightStart = nightStart(night);
+            if (!stillBusy.test(nightStart, nightStart.plusDays(1))) {
+                instance.clear(night);
+            }
+        }
+    }
+
+    public void releaseAll(Long instanceId) {
+        instances.remove(instanceId);
+    }
+
+    private int firstNight(LocalDateTime from) {
+        return nightOf(from.toEpochSecond(UTC));
+    }
+
+    private int lastNight(LocalDateTime to) {
+        long second = to.toEpochSecond(UTC);
+        return nightOf(to.getNano() == 0 ? second - 1 : second);
+    }
+
+    private int nightOf(long second) {
+        long nights = Math.floorDiv(second - originSecond, SECONDS_PER_NIGHT);
+        return (int) Math.max(Math.min(nights, horizon), -1);
+    }
+
+    private LocalDateTime nightStart(int night) {
+        return origin.plusDays(night);
+    }
+}
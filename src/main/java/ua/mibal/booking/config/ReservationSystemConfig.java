@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import ua.mibal.booking.config.properties.ReservationSystemProps;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@EnableConfigurationProperties(ReservationSystemProps.class)
+@Configuration
+public class ReservationSystemConfig {
+
+    /**
+     * Fixed pool with bounded queue: checks over {@code queue-capacity}
+     * are rejected instead of piling up behind slow reservation systems
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService reservationSystemExecutor(ReservationSystemProps reservationSystemProps) {
+        return new ThreadPoolExecutor(
+                reservationSystemProps.parallelism(),
+                reservationSystemProps.parallelism(),
+                0, MILLISECONDS,
+                new ArrayBlockingQueue<>(reservationSystemProps.queueCapacity()),
+                new CustomizableThreadFactory("reservation-system-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
@@ -26,7 +26,9 @@ import org.springframework.context.support.ReloadableResourceBundleMessageSource
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ua.mibal.booking.application.port.jpa.UserRepository;
 import ua.mibal.booking.config.properties.ApplicationProps;
+import ua.mibal.booking.config.properties.CacheProps;
 import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.config.properties.LinkProps;
 import ua.mibal.booking.config.properties.LocalizedMessagesProps;
 import ua.mibal.booking.config.properties.TokenProps;
 import ua.mibal.booking.domain.Phone;
@@ -45,6 +47,8 @@ import ua.mibal.booking.domain.User;
         CalendarProps.ICalProps.class,
         TokenProps.class,
         LocalizedMessagesProps.class,
+        LinkProps.class,
+        CacheProps.class,
 })
 @Configuration
 public class RootConfig {
@@ -66,13 +66,27 @@ public record CalendarProps(
         @NotNull
         @NotBlank
         private final String prodId;
+        private final ParserMode parser;
 
-        public ICalProps(@NotNull @NotBlank String prodId) {
+        public ICalProps(@NotNull @NotBlank String prodId, ParserMode parser) {
             this.prodId = prodId;
+            this.parser = parser == null ? ParserMode.STREAMING : parser;
         }
 
         public ProdId prodId() {
             return new ProdId("-//" + prodId + "//iCal4j 1.0//EN");
         }
+
+        public ParserMode parser() {
+            return parser;
+        }
+
+        public enum ParserMode {
+            /**
+             * Single-pass parser of VEVENTs with ical4j fallback for unsupported inputs
+             */
+            STREAMING,
+            ICAL4J
+        }
     }
 }
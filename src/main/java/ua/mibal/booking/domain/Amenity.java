@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.domain;
+
+/**
+ * Amenity of {@link ApartmentOptions}, packed in amenity bitmask as {@link #bit()}.
+ * <p>
+ * NOTICE: order of constants defines bits of {@code apartments.amenities} column
+ * generated in {@code V1.9__add_apartment_amenities_mask.sql}, add new constants
+ * to the end only and update the column expression.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public enum Amenity {
+    MEALS_INCLUDED, KITCHEN, BATHROOM, WIFI, REFRIGERATOR;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
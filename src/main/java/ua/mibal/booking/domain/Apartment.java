@@ -37,10 +37,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
-import org.hibernate.annotations.Formula;
 import ua.mibal.booking.application.exception.PhotoNotFoundException;
 import ua.mibal.booking.application.exception.PriceNotFoundException;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,7 +58,10 @@ import static ua.mibal.booking.domain.ApartmentOptions.DEFAULT;
 @Getter
 @Setter
 @Entity
-@Table(name = "apartments")
+@Table(name = "apartments", indexes = {
+        @Index(name = "apartments_class_id_idx", columnList = "class, id"),
+        @Index(name = "apartments_capacity_idx", columnList = "capacity")
+})
 public class Apartment {
 
     @Id
@@ -71,12 +74,25 @@ public class Apartment {
     @Embedded
     private ApartmentOptions options = DEFAULT;
 
-    @Formula("""
-                 (select avg(c.rate)
-                    from comments c
-                  where c.apartment_id = id)
-            """)
-    private Double rating;
+    /**
+     * Maintained only by atomic DB updates of rating aggregate,
+     * so full row updates of apartment can not overwrite concurrent increments
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    @Setter(PRIVATE)
+    private double ratingSum;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @Setter(PRIVATE)
+    private int ratingCount;
+
+    /**
+     * Total size of beds of all apartment rooms, maintained on room changes
+     * only by atomic DB updates like rating aggregate
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    @Setter(PRIVATE)
+    private int capacity;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "class", nullable = false)
@@ -91,10 +107,10 @@ public class Apartment {
                     nullable = false,
                     foreignKey = @ForeignKey(name = "prices_apartment_id_fk")
             ),
-            indexes = @Index(
-                    name = "prices_apartment_id_idx",
-                    columnList = "apartment_id"
-            ),
+            indexes = {
+                    @Index(name = "prices_apartment_id_idx", columnList = "apartment_id"),
+                    @Index(name = "prices_apartment_id_price_idx", columnList = "apartment_id, price")
+            },
             uniqueConstraints = @UniqueConstraint(
                     name = "prices_apartment_id_and_person_uq",
                     columnNames = {"apartment_id", "person"}
@@ -102,6 +118,23 @@ public class Apartment {
     @Setter(PRIVATE)
     private List<Price> prices = new LinkedList<>();
 
+    @ElementCollection
+    @BatchSize(size = 100)
+    @CollectionTable(
+            name = "seasonal_prices",
+            joinColumns = @JoinColumn(
+                    name = "apartment_id",
+                    nullable = false,
+                    foreignKey = @ForeignKey(name = "seasonal_prices_apartment_id_fk")
+            ),
+            indexes = @Index(name = "seasonal_prices_apartment_id_idx", columnList = "apartment_id"),
+            uniqueConstraints = @UniqueConstraint(
+                    name = "seasonal_prices_apartment_id_person_from_date_uq",
+                    columnNames = {"apartment_id", "person", "from_date"}
+            ))
+    @Setter(PRIVATE)
+    private List<SeasonalPrice> seasonalPrices = new ArrayList<>();
+
     @ElementCollection
     @BatchSize(size = 100)
     @CollectionTable(
@@ -156,6 +189,14 @@ public class Apartment {
         }
     }
 
+    /**
+     * @return average rate of apartment comments
+     * or {@code null} if apartment has no comments
+     */
+    public Double getRating() {
+        return ratingCount == 0 ? null : ratingSum / ratingCount;
+    }
+
     public String getPhotoKey(Integer photoIndex) {
         checkPhotoIndexForBounds(photoIndex);
         Photo photo = photos.get(photoIndex);
@@ -187,6 +228,16 @@ public class Apartment {
         return prices.removeIf(price -> price.getPerson().equals(person));
     }
 
+    public void putSeasonalPrice(SeasonalPrice seasonalPrice) {
+        seasonalPrices.remove(seasonalPrice);
+        seasonalPrices.add(seasonalPrice);
+    }
+
+    public boolean deleteSeasonalPrice(Integer person, LocalDate fromDate) {
+        return seasonalPrices.removeIf(price ->
+                price.getPerson().equals(person) && price.getFromDate().equals(fromDate));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -58,4 +58,17 @@ public class ApartmentOptions {
     @Convert(converter = NumericBooleanConverter.class)
     @Column(nullable = false)
     private boolean refrigerator;
+
+    /**
+     * @return amenity bitmask of options, see {@link Amenity#bit()}
+     */
+    public int toAmenities() {
+        int mask = 0;
+        mask |= mealsIncluded ? Amenity.MEALS_INCLUDED.bit() : 0;
+        mask |= kitchen ? Amenity.KITCHEN.bit() : 0;
+        mask |= bathroom ? Amenity.BATHROOM.bit() : 0;
+        mask |= wifi ? Amenity.WIFI.bit() : 0;
+        mask |= refrigerator ? Amenity.REFRIGERATOR.bit() : 0;
+        return mask;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event of external reservation system synchronized into local database.
+ * GiST index on {@code (apartment_instance_id, during)} is declared in migration only.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "external_events", indexes = @Index(
+        name = "external_events_apartment_instance_id_source_from_to_uq",
+        columnList = "apartment_instance_id, source, \"from\", \"to\"",
+        unique = true
+))
+public class ExternalEvent implements Event {
+    public static final int SUMMARY_LENGTH = 1024;
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(
+            name = "apartment_instance_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "external_events_apartment_instance_id_fk")
+    )
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ApartmentInstance apartmentInstance;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExternalEventSource source;
+
+    @Column(nullable = false, name = "\"from\"")
+    private LocalDateTime from;
+
+    @Column(nullable = false, name = "\"to\"")
+    private LocalDateTime to;
+
+    @Column(length = SUMMARY_LENGTH)
+    private String summary;
+
+    @Override
+    public LocalDateTime getStart() {
+        return from;
+    }
+
+    @Override
+    public LocalDateTime getEnd() {
+        return to;
+    }
+
+    @Override
+    public String getEventName() {
+        return summary;
+    }
+}
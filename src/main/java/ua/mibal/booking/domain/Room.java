@@ -26,6 +26,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -49,7 +50,9 @@ import static lombok.AccessLevel.PRIVATE;
 @Getter
 @Setter
 @Entity
-@Table(name = "rooms")
+@Table(name = "rooms", indexes = {
+        @Index(name = "rooms_apartment_id_idx", columnList = "apartment_id")
+})
 public class Room {
 
     @Id
@@ -79,10 +82,20 @@ public class Room {
                     name = "room_id",
                     nullable = false,
                     foreignKey = @ForeignKey(name = "beds_room_id_fk")
+            ),
+            indexes = @Index(
+                    name = "beds_room_id_idx",
+                    columnList = "room_id"
             ))
     @Setter(PRIVATE)
     private List<Bed> beds = new LinkedList<>();
 
+    public int getCapacity() {
+        return beds.stream()
+                .mapToInt(Bed::getSize)
+                .sum();
+    }
+
     public enum Type {
         BEDROOM, LIVING_ROOM, MEETING_ROOM
     }
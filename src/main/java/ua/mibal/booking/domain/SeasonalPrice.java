@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One night price for {@code person} people overriding base {@link Price}
+ * for nights of {@code [fromDate, toDate)} dates.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Embeddable
+public class SeasonalPrice {
+
+    @Column(nullable = false)
+    private Integer person;
+
+    @Column(nullable = false)
+    private LocalDate fromDate;
+
+    @Column(nullable = false)
+    private LocalDate toDate;
+
+    @Column(name = "price", nullable = false)
+    private BigDecimal amount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SeasonalPrice that = (SeasonalPrice) o;
+
+        return person.equals(that.person) && fromDate.equals(that.fromDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * person.hashCode() + fromDate.hashCode();
+    }
+}
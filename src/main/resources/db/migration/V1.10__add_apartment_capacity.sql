@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- Capacity of apartments (total size of beds of all rooms) maintained on room changes
+-- instead of loading rooms and beds to compute it on every apartment card
+
+alter table apartments
+    add column capacity integer not null default 0;
+
+update apartments a
+set capacity = c.capacity
+from (select r.apartment_id, sum(b.size) as capacity
+      from rooms r
+               join beds b on b.room_id = r.id
+      group by r.apartment_id) c
+where a.id = c.apartment_id;
+
+create index if not exists apartments_capacity_idx
+    on apartments (capacity);
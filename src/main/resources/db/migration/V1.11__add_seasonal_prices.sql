@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- One night prices overriding base apartment prices for nights of [from_date, to_date)
+
+create table if not exists seasonal_prices
+(
+    apartment_id bigint         not null
+        constraint seasonal_prices_apartment_id_fk
+            references apartments,
+    person       integer        not null,
+    from_date    date           not null,
+    to_date      date           not null,
+    price        numeric(38, 2) not null,
+    constraint seasonal_prices_apartment_id_person_from_date_uq
+        unique (apartment_id, person, from_date),
+    constraint seasonal_prices_date_range_check
+        check (from_date < to_date)
+);
+
+create index if not exists seasonal_prices_apartment_id_idx
+    on seasonal_prices (apartment_id);
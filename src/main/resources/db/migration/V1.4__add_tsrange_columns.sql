@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+create extension if not exists btree_gist;
+
+alter table reservations
+    add column during tsrange
+        generated always as (tsrange("from", "to")) stored;
+
+create index reservations_during_idx
+    on reservations using gist (during);
+
+-- exclusion constraint can not be added while overlapping reservations exist,
+-- they must be rejected manually since the choice of the one to keep is a business decision
+do
+$$
+    declare
+        overlapping text;
+    begin
+        select string_agg(r1.id || ' and ' || r2.id, ', ')
+        into overlapping
+        from reservations r1
+                 join reservations r2
+                      on r1.apartment_instance_id = r2.apartment_instance_id
+                          and r1.id < r2.id
+                          and r1.during && r2.during
+        where r1.state <> 'REJECTED'
+          and r2.state <> 'REJECTED';
+        if overlapping is not null then
+            raise exception 'Overlapping not rejected reservations must be rejected before migration: %', overlapping;
+        end if;
+    end
+$$;
+
+alter table reservations
+    add constraint reservations_apartment_instance_id_during_excl
+        exclude using gist (apartment_instance_id with =, during with &&)
+        where (state <> 'REJECTED');
+
+alter table apartment_instances_turning_off_times
+    add column during tsrange
+        generated always as (tsrange("from", "to")) stored;
+
+create index apartment_instances_turning_off_times_apartment_instance_id_during_idx
+    on apartment_instances_turning_off_times using gist (apartment_instance_id, during);
+
+alter table hotel_turning_off_times
+    add column during tsrange
+        generated always as (tsrange("from", "to")) stored;
+
+create index hotel_turning_off_times_during_idx
+    on hotel_turning_off_times using gist (during);
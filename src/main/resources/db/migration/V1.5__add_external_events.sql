@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+create sequence if not exists external_events_seq
+    increment by 50;
+
+create table if not exists external_events
+(
+    id                    bigint        not null
+        primary key,
+    apartment_instance_id bigint        not null
+        constraint external_events_apartment_instance_id_fk
+            references apartment_instances
+            on delete cascade,
+    source                varchar(255)  not null
+        constraint external_events_source_check
+            check ((source)::text = ANY (ARRAY [('BOOKING_COM'::character varying)::text])),
+    "from"                timestamp(6)  not null,
+    "to"                  timestamp(6)  not null,
+    summary               varchar(1024),
+    during                tsrange generated always as (tsrange("from", "to")) stored
+);
+
+create unique index external_events_apartment_instance_id_source_from_to_uq
+    on external_events (apartment_instance_id, source, "from", "to");
+
+create index external_events_apartment_instance_id_during_idx
+    on external_events using gist (apartment_instance_id, during);
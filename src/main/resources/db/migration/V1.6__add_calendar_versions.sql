@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- Versions of exported calendars, bumped by triggers on every change
+-- of reservations and turning off times to answer conditional requests cheaply
+
+alter table apartment_instances
+    add column calendar_version bigint not null default 0;
+
+-- Hotel-wide version is a counter row updated inside the writing transaction,
+-- so readers never see a version of uncommitted change (unlike sequence nextval)
+create table if not exists calendar_versions
+(
+    name    varchar(64) not null
+        primary key,
+    version bigint      not null
+);
+
+insert into calendar_versions (name, version)
+values ('hotel', 0)
+on conflict do nothing;
+
+create or replace function bump_apartment_instance_calendar_version() returns trigger as
+$$
+begin
+    if tg_op <> 'INSERT' then
+        update apartment_instances
+        set calendar_version = calendar_version + 1
+        where id = old.apartment_instance_id;
+    end if;
+    if tg_op = 'INSERT' then
+        update apartment_instances
+        set calendar_version = calendar_version + 1
+        where id = new.apartment_instance_id;
+    elsif tg_op = 'UPDATE' then
+        if new.apartment_instance_id is distinct from old.apartment_instance_id then
+            update apartment_instances
+            set calendar_version = calendar_version + 1
+            where id = new.apartment_instance_id;
+        end if;
+    end if;
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger reservations_calendar_version_trg
+    after insert or update or delete
+    on reservations
+    for each row
+execute function bump_apartment_instance_calendar_version();
+
+create trigger apartment_instances_turning_off_times_calendar_version_trg
+    after insert or update or delete
+    on apartment_instances_turning_off_times
+    for each row
+execute function bump_apartment_instance_calendar_version();
+
+create or replace function bump_hotel_calendar_version() returns trigger as
+$$
+begin
+    update calendar_versions
+    set version = version + 1
+    where name = 'hotel';
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger hotel_turning_off_times_calendar_version_trg
+    after insert or update or delete
+    on hotel_turning_off_times
+    for each statement
+execute function bump_hotel_calendar_version();
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- Denormalized rating aggregate of apartments maintained on comment creation and deletion
+-- instead of computing average rate of all apartment comments on every apartment load
+
+alter table apartments
+    add column rating_sum   double precision not null default 0,
+    add column rating_count integer          not null default 0;
+
+update apartments a
+set rating_sum   = c.rate_sum,
+    rating_count = c.rate_count
+from (select apartment_id, sum(rate) as rate_sum, count(*) as rate_count
+      from comments
+      group by apartment_id) c
+where a.id = c.apartment_id;
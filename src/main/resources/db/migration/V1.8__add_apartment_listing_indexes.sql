@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- Indexes supporting filters and keyset pagination of apartment listing
+
+create index if not exists apartments_class_id_idx
+    on apartments (class, id);
+
+create index if not exists prices_apartment_id_price_idx
+    on prices (apartment_id, price);
+
+create index if not exists rooms_apartment_id_idx
+    on rooms (apartment_id);
+
+create index if not exists beds_room_id_idx
+    on beds (room_id);
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- Amenity bitmask generated from amenity columns of apartments, bit N
+-- is the amenity with ordinal N of ua.mibal.booking.domain.Amenity enum.
+-- Shifts are parenthesized: | and << have the same precedence in PostgreSQL
+
+alter table apartments
+    add column amenities integer not null generated always as (
+            meals_included
+            | (kitchen << 1)
+            | (bathroom << 2)
+            | (wifi << 3)
+            | (refrigerator << 4)
+        ) stored;
+
+create index if not exists apartments_amenities_id_idx
+    on apartments (amenities, id);
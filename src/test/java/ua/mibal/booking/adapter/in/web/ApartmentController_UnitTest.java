@@ -34,7 +34,14 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import ua.mibal.booking.application.ApartmentService;
+import ua.mibal.booking.application.dto.request.ApartmentFilterDto;
 import ua.mibal.booking.application.dto.request.CreateApartmentDto;
+import ua.mibal.booking.application.dto.request.ReservationDto;
+import ua.mibal.booking.domain.Amenity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
 
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -42,6 +49,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ua.mibal.booking.domain.Apartment.ApartmentClass.COMFORT;
 
 /**
  * @author Mykhailo Balakhon
@@ -93,7 +101,89 @@ class ApartmentController_UnitTest {
                 .andExpect(status().isOk());
 
         verify(apartmentService, times(1))
-                .getAllFetchPhotosBeds();
+                .getAllFetchPhotosBeds(Set.of());
+    }
+
+    @Test
+    void getAll_should_pass_required_amenities() throws Exception {
+        mvc.perform(get("/api/apartments")
+                        .param("amenities", "WIFI,KITCHEN"))
+                .andExpect(status().isOk());
+
+        verify(apartmentService, times(1))
+                .getAllFetchPhotosBeds(Set.of(Amenity.WIFI, Amenity.KITCHEN));
+    }
+
+    @Test
+    void search_should_delegate_to_ApartmentService() throws Exception {
+        mvc.perform(get("/api/apartments/search")
+                        .param("apartmentClass", "COMFORT")
+                        .param("wifi", "true")
+                        .param("people", "3")
+                        .param("priceTo", "100")
+                        .param("after", "42"))
+                .andExpect(status().isOk());
+
+        verify(apartmentService, times(1))
+                .search(new ApartmentFilterDto(COMFORT, false, false, false, true, false,
+                        3, null, BigDecimal.valueOf(100), 42L, ApartmentFilterDto.DEFAULT_SIZE));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "people,    0",
+            "priceFrom, -1",
+            "size,      0",
+            "size,      101",
+    })
+    void search_should_throw_if_request_is_invalid(String param, String value) throws Exception {
+        mvc.perform(get("/api/apartments/search")
+                        .param(param, value))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(apartmentService);
+    }
+
+    @Test
+    void search_should_throw_if_price_range_is_reversed() throws Exception {
+        mvc.perform(get("/api/apartments/search")
+                        .param("priceFrom", "100")
+                        .param("priceTo", "50"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(apartmentService);
+    }
+
+    @Test
+    void getFree_should_delegate_to_ApartmentService() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(4);
+
+        mvc.perform(get("/api/apartments/free")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("people", "2"))
+                .andExpect(status().isOk());
+
+        verify(apartmentService, times(1))
+                .getFree(new ReservationDto(from, to, 2));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2094-05-05, 2094-05-01, 2",
+            "2094-05-01, 2094-05-05, 0",
+            "2094-05-01, , 2",
+            "2004-05-01, 2004-05-05, 2",
+    })
+    void getFree_should_throw_if_request_is_invalid(String from, String to, String people) throws Exception {
+        mvc.perform(get("/api/apartments/free")
+                        .param("from", from)
+                        .param("to", to)
+                        .param("people", people))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(apartmentService);
     }
 
     @ParameterizedTest
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.in.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ua.mibal.booking.application.CalendarService;
+import ua.mibal.booking.application.dto.request.CalendarWindowDto;
+import ua.mibal.booking.application.dto.response.calendar.Calendar;
+import ua.mibal.booking.application.dto.response.calendar.ColumnarCalendars;
+import ua.mibal.booking.application.dto.response.calendar.ColumnarCalendars.ColumnarCalendar;
+import ua.mibal.booking.domain.Event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.time.LocalDate.now;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ua.mibal.booking.adapter.in.web.CalendarController.COLUMNAR_CALENDAR_VALUE;
+import static ua.mibal.booking.application.dto.request.CalendarWindowDto.MAX_LENGTH;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@WebMvcTest(CalendarController.class)
+@TestPropertySource("classpath:application.yaml")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CalendarController_UnitTest {
+    private static final CalendarWindowDto WINDOW =
+            new CalendarWindowDto(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31));
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mvc;
+
+    @MockBean
+    private CalendarService calendarService;
+
+    @BeforeEach
+    public void setup() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void getCalendarForApartment() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 2, 15, 0);
+        when(calendarService.getCalendarsForApartment(1L, WINDOW, false))
+                .thenReturn(List.of(Calendar.of(List.of(Event.from(start, start.plusDays(2), "Reservation")))));
+
+        mvc.perform(get("/api/apartments/{id}/calendar", 1)
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-31")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        [[{"start":"2030-01-02T15:00:00","end":"2030-01-04T15:00:00","name":"Reservation"}]]
+                        """));
+    }
+
+    @Test
+    void getCalendarForApartment_should_return_columnar_calendar_if_accepted() throws Exception {
+        when(calendarService.getColumnarCalendarsForApartment(1L, WINDOW, true))
+                .thenReturn(new ColumnarCalendars(
+                        List.of("Reservation"),
+                        List.of(new ColumnarCalendar(new long[]{21916}, new int[]{2}, new int[]{0}))
+                ));
+
+        mvc.perform(get("/api/apartments/{id}/calendar", 1)
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-31")
+                        .param("coalesce", "true")
+                        .accept(COLUMNAR_CALENDAR_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(COLUMNAR_CALENDAR_VALUE))
+                .andExpect(content().json("""
+                        {"names":["Reservation"],"calendars":[{"start":[21916],"nights":[2],"name":[0]}]}
+                        """));
+    }
+
+    @Test
+    void getCalendarForApartmentInstance_should_reject_reversed_window() throws Exception {
+        mvc.perform(get("/api/apartments/instances/{id}/calendar", 1)
+                        .param("from", "2030-01-31")
+                        .param("to", "2030-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(calendarService);
+    }
+
+    @Test
+    void getCalendarForApartment_should_reject_window_ending_before_today_if_start_is_missing() throws Exception {
+        mvc.perform(get("/api/apartments/{id}/calendar", 1)
+                        .param("to", now().minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(calendarService);
+    }
+
+    @Test
+    void getCalendarForApartment_should_reject_window_longer_than_max_length() throws Exception {
+        mvc.perform(get("/api/apartments/{id}/calendar", 1)
+                        .param("from", "2030-01-01")
+                        .param("to", "9999-12-31"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(calendarService);
+    }
+
+    @Test
+    void getCalendarForApartmentInstance_should_reject_window_longer_than_max_length_if_start_is_missing() throws Exception {
+        mvc.perform(get("/api/apartments/instances/{id}/calendar", 1)
+                        .param("to", now().plus(MAX_LENGTH).toString()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(calendarService);
+    }
+
+    @Test
+    void getCalendarForApartment_should_accept_window_of_max_length() throws Exception {
+        CalendarWindowDto window = new CalendarWindowDto(
+                LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 1).plus(MAX_LENGTH).minusDays(1)
+        );
+        when(calendarService.getCalendarsForApartment(1L, window, false))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/api/apartments/{id}/calendar", 1)
+                        .param("from", window.from().toString())
+                        .param("to", window.to().toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ua.mibal.booking.application.PriceService;
+import ua.mibal.booking.application.dto.request.QuotesDto;
+import ua.mibal.booking.application.dto.request.StayQuoteRequestDto;
+import ua.mibal.booking.application.dto.response.StayQuoteDto;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static java.time.LocalDate.now;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@WebMvcTest(PriceController.class)
+@TestPropertySource("classpath:application.yaml")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PriceController_UnitTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mvc;
+
+    @MockBean
+    private PriceService priceService;
+
+    @BeforeEach
+    public void setup() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .build();
+    }
+
+    @Test
+    void quote() throws Exception {
+        List<StayQuoteRequestDto> quotes = List.of(
+                new StayQuoteRequestDto(now().plusDays(1), now().plusDays(3), 2),
+                new StayQuoteRequestDto(now().plusDays(2), now().plusDays(4), 3)
+        );
+        when(priceService.quote(1L, quotes)).thenReturn(List.of(
+                new StayQuoteDto(now().plusDays(1), now().plusDays(3), 2, new BigDecimal("200.00")),
+                new StayQuoteDto(now().plusDays(2), now().plusDays(4), 3, null)
+        ));
+
+        mvc.perform(post("/api/apartments/{apartmentId}/prices/quotes", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuotesDto(quotes))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].total").value(200.0))
+                .andExpect(jsonPath("$[1].total").doesNotExist());
+
+        verify(priceService).quote(1L, quotes);
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "null, 3, 2",
+            "1, null, 2",
+            "1, 3, null",
+            "1, 3, 0",
+            "3, 3, 2",
+            "3, 1, 2",
+            "-1, 3, 2",
+    }, nullValues = "null")
+    void quote_should_validate_StayQuoteRequestDto(Integer fromDays, Integer toDays, Integer people) throws Exception {
+        StayQuoteRequestDto quote = new StayQuoteRequestDto(
+                fromDays == null ? null : now().plusDays(fromDays),
+                toDays == null ? null : now().plusDays(toDays),
+                people
+        );
+
+        mvc.perform(post("/api/apartments/{apartmentId}/prices/quotes", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuotesDto(List.of(quote)))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(priceService);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0", "" + (QuotesDto.MAX_QUOTES + 1)})
+    void quote_should_validate_quotes_count(int count) throws Exception {
+        StayQuoteRequestDto quote = new StayQuoteRequestDto(now().plusDays(1), now().plusDays(2), 1);
+
+        mvc.perform(post("/api/apartments/{apartmentId}/prices/quotes", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuotesDto(Collections.nCopies(count, quote)))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(priceService);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.in.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ua.mibal.booking.application.ReservationCalendarExportService;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@WebMvcTest(ReservationCalendarExportController.class)
+@TestPropertySource("classpath:application.yaml")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ReservationCalendarExportController_UnitTest {
+    private static final LocalDate EXPORT_DAY = LocalDate.of(2024, 1, 1);
+    private static final String E_TAG = "W/\"3-7-2024-01-01\"";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mvc;
+
+    @MockBean
+    private ReservationCalendarExportService reservationCalendarExportService;
+
+    @BeforeEach
+    public void setup() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        when(reservationCalendarExportService.exportDay())
+                .thenReturn(EXPORT_DAY);
+        when(reservationCalendarExportService.getCalendarETag(1L, EXPORT_DAY))
+                .thenReturn(E_TAG);
+    }
+
+    @Test
+    void getICalForApartmentInstance() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("BEGIN:VCALENDAR".getBytes(UTF_8));
+            return null;
+        }).when(reservationCalendarExportService).writeCalendar(eq(1L), eq(EXPORT_DAY), any());
+
+        MvcResult result = mvc.perform(get("/api/apartments/instances/{id}/calendar.ics", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", E_TAG))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().contentType("text/calendar"))
+                .andExpect(content().string("BEGIN:VCALENDAR"));
+    }
+
+    @Test
+    void getICalForApartmentInstance_should_return_Not_Modified_if_ETag_matches() throws Exception {
+        mvc.perform(get("/api/apartments/instances/{id}/calendar.ics", 1)
+                        .header("If-None-Match", E_TAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", E_TAG));
+
+        verify(reservationCalendarExportService, never())
+                .writeCalendar(any(), any(), any());
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.mibal.test.annotation.JpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * Race tests of DB locks of reservation admission, every thread
+ * runs its own transaction on its own connection.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@JpaTest
+@Transactional(propagation = NOT_SUPPORTED)
+class AdvisoryLocks_IntegrationTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ApartmentInstanceJpaRepository apartmentInstanceRepository;
+
+    @Autowired
+    private HotelTurningOffJpaRepository hotelTurningOffRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        transaction = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lockForReservation_should_serialize_transactions_of_one_instance() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        race(() -> {
+            apartmentInstanceRepository.lockForReservation(1L);
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inside.decrementAndGet();
+        });
+
+        assertEquals(1, maxInside.get());
+    }
+
+    @Test
+    void lockForReservation_should_not_block_transactions_of_different_instances() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch secondLocked = new CountDownLatch(1);
+
+        Future<?> first = inTransactionAsync(() -> {
+            apartmentInstanceRepository.lockForReservation(1L);
+            firstLocked.countDown();
+            assertTrue(secondLocked.await(5, SECONDS));
+        });
+        Future<?> second = inTransactionAsync(() -> {
+            assertTrue(firstLocked.await(5, SECONDS));
+            apartmentInstanceRepository.lockForReservation(2L);
+            secondLocked.countDown();
+        });
+
+        first.get(10, SECONDS);
+        second.get(10, SECONDS);
+    }
+
+    @Test
+    void hotel_lockForReservation_should_not_block_other_reservations() throws Exception {
+        CountDownLatch allLocked = new CountDownLatch(THREADS);
+
+        race(() -> {
+            hotelTurningOffRepository.lockForReservation();
+            allLocked.countDown();
+            assertTrue(allLocked.await(5, SECONDS));
+        });
+    }
+
+    @Test
+    void hotel_lockForTurningOff_should_wait_for_reservations_in_progress() throws Exception {
+        CountDownLatch reservationLocked = new CountDownLatch(1);
+        CountDownLatch turningOffStarted = new CountDownLatch(1);
+        AtomicInteger reservationsInProgress = new AtomicInteger();
+
+        Future<?> reservation = inTransactionAsync(() -> {
+            hotelTurningOffRepository.lockForReservation();
+            reservationsInProgress.incrementAndGet();
+            reservationLocked.countDown();
+            assertTrue(turningOffStarted.await(5, SECONDS));
+            Thread.sleep(200);
+            reservationsInProgress.decrementAndGet();
+        });
+        Future<Integer> turningOff = executor.submit(() -> {
+            assertTrue(reservationLocked.await(5, SECONDS));
+            turningOffStarted.countDown();
+            return transaction.execute(status -> {
+                hotelTurningOffRepository.lockForTurningOff();
+                return reservationsInProgress.get();
+            });
+        });
+
+        reservation.get(10, SECONDS);
+        assertEquals(0, turningOff.get(10, SECONDS));
+    }
+
+    @Test
+    void hotel_lockForReservation_should_wait_for_turning_off_in_progress() throws Exception {
+        CountDownLatch turningOffLocked = new CountDownLatch(1);
+        AtomicInteger turningOffInProgress = new AtomicInteger();
+
+        Future<?> turningOff = inTransactionAsync(() -> {
+            hotelTurningOffRepository.lockForTurningOff();
+            turningOffInProgress.incrementAndGet();
+            turningOffLocked.countDown();
+            Thread.sleep(200);
+            turningOffInProgress.decrementAndGet();
+        });
+        Future<Integer> reservation = executor.submit(() -> {
+            assertTrue(turningOffLocked.await(5, SECONDS));
+            return transaction.execute(status -> {
+                hotelTurningOffRepository.lockForReservation();
+                return turningOffInProgress.get();
+            });
+        });
+
+        turningOff.get(10, SECONDS);
+        assertEquals(0, reservation.get(10, SECONDS));
+    }
+
+    private void race(TransactionBody body) throws Exception {
+        CountDownLatch startLine = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(inTransactionAsync(() -> {
+                startLine.await();
+                body.run();
+            }));
+        }
+        startLine.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, SECONDS);
+        }
+    }
+
+    private Future<?> inTransactionAsync(TransactionBody body) {
+        return executor.submit(() -> transaction.executeWithoutResult(status -> {
+            try {
+                body.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    private interface TransactionBody {
+        void run() throws Exception;
+    }
+}
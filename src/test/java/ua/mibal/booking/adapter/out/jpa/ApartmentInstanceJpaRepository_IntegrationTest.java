@@ -27,7 +27,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.HotelTurningOffTime;
 import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.TurningOffTime;
 import ua.mibal.test.annotation.JpaTest;
 
 import java.time.LocalDateTime;
@@ -55,6 +57,9 @@ class ApartmentInstanceJpaRepository_IntegrationTest {
     @Autowired
     private ApartmentInstanceJpaRepository repo;
 
+    @Autowired
+    private ReservationJpaRepository reservationRepo;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -114,6 +119,39 @@ class ApartmentInstanceJpaRepository_IntegrationTest {
                 .isEqualTo(stats.getQueryExecutionCount() + stats.getEntityFetchCount());
     }
 
+    @Test
+    void calendar_read_path_should_execute_constant_number_of_statements() {
+        LocalDateTime from = now().plusDays(1);
+        ApartmentInstance[] instances = new ApartmentInstance[5];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = testApartmentInstanceWithReservations(
+                    "" + i, List.of(testReservationOf(from, from.plusDays(2), testUser())));
+            instances[i].addTurningOffTime(new TurningOffTime(from.plusDays(3), from.plusDays(4), null));
+            instances[i].addTurningOffTime(new TurningOffTime(from.plusYears(2), from.plusYears(2).plusDays(1), null));
+        }
+        Apartment apartment = prepareCaseWithApartmentInstances(5, instances);
+        entityManager.clear();
+        stats.clear();
+
+        LocalDateTime windowEnd = from.plusMonths(1);
+        List<ApartmentInstance> managedInstances =
+                repo.findByApartmentId(apartment.getId());
+        List<TurningOffTime> turningOffTimes =
+                repo.findTurningOffTimesByApartmentIdIntersectingRange(apartment.getId(), from, windowEnd);
+        List<Reservation> reservations =
+                reservationRepo.findNotRejectedByApartmentIdIntersectingRange(apartment.getId(), from, windowEnd);
+
+        assertThat(managedInstances).hasSize(instances.length);
+        assertThat(turningOffTimes).hasSize(instances.length);
+        assertThat(reservations).hasSize(instances.length);
+        turningOffTimes.forEach(t ->
+                assertThat(t.getApartmentInstance().getId()).isNotNull());
+        reservations.forEach(r ->
+                assertThat(r.getApartmentInstance().getId()).isNotNull());
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+    }
+
     private ApartmentInstance persistTestApartmentInstance() {
         Apartment apartment = testApartment();
         entityManager.persistAndFlush(apartment);
@@ -208,6 +246,59 @@ class ApartmentInstanceJpaRepository_IntegrationTest {
                 .anyMatch(ai -> ai.getName().contains("2")));
     }
 
+    @Test
+    void findFreeByPeriodAndPeople_with_intersecting_and_without_reservations() {
+        LocalDateTime requestFrom = now().plusYears(1);
+        LocalDateTime requestTo = requestFrom.plusDays(7);
+        int people = 5;
+
+        Apartment apartment =
+                prepareCaseWithoutReservationsAndWithIntersectingReservaitons(
+                        people, requestFrom, requestTo);
+
+        List<ApartmentInstance> freeByRequest = repo.findFreeByPeriodAndPeopleFetchApartmentAndPrices(
+                requestFrom, requestTo, people);
+
+        assertThat(freeByRequest)
+                .filteredOn(ai -> ai.getApartment().getId().equals(apartment.getId()))
+                .extracting(ApartmentInstance::getName)
+                .containsExactly("1");
+    }
+
+    @Test
+    void findFreeByPeriodAndPeople_with_no_price_option() {
+        LocalDateTime requestFrom = now().plusYears(1);
+        LocalDateTime requestTo = requestFrom.plusDays(7);
+
+        Apartment apartment =
+                prepareCaseWithoutReservationsAndWithIntersectingReservaitons(
+                        5, requestFrom, requestTo);
+
+        List<ApartmentInstance> freeByRequest = repo.findFreeByPeriodAndPeopleFetchApartmentAndPrices(
+                requestFrom, requestTo, Integer.MAX_VALUE);
+
+        assertThat(freeByRequest)
+                .noneMatch(ai -> ai.getApartment().getId().equals(apartment.getId()));
+    }
+
+    @Test
+    void findCalendarVersionById_should_change_with_hotel_turning_off_times_in_writing_transaction() {
+        String before = repo.findCalendarVersionById(apartmentInstance.getId()).orElseThrow();
+
+        entityManager.persistAndFlush(new HotelTurningOffTime(null, now().plusDays(1), now().plusDays(2), "Holidays"));
+        String after = repo.findCalendarVersionById(apartmentInstance.getId()).orElseThrow();
+
+        String[] beforeParts = before.split("-");
+        String[] afterParts = after.split("-");
+        Assertions.assertEquals(beforeParts[0], afterParts[0]);
+        Assertions.assertEquals(Long.parseLong(beforeParts[1]) + 1, Long.parseLong(afterParts[1]));
+    }
+
+    @Test
+    void lockForReservation_should_accept_ids_out_of_int_range() {
+        assertDoesNotThrow(() -> repo.lockForReservation(Long.MAX_VALUE));
+    }
+
     private Apartment prepareCaseWithoutApartmentInstances(int people) {
         Apartment apartment = testApartmentWithPriceFor(people);
         entityManager.persistAndFlush(apartment);
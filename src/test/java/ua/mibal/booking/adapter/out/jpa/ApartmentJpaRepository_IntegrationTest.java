@@ -22,18 +22,26 @@ import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ua.mibal.booking.application.util.AmenityMask;
+import ua.mibal.booking.domain.Amenity;
 import ua.mibal.booking.domain.Apartment;
+import ua.mibal.booking.domain.ApartmentOptions;
 import ua.mibal.booking.domain.Comment;
+import ua.mibal.booking.domain.Price;
 import ua.mibal.test.annotation.JpaTest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ua.mibal.booking.testUtils.DataGenerator.testApartment;
 import static ua.mibal.booking.testUtils.DataGenerator.testComment;
@@ -168,7 +176,7 @@ class ApartmentJpaRepository_IntegrationTest {
     }
 
     @Test
-    void Apartment_auto_rating_computing() {
+    void addRate_and_removeRate() {
         Long id = apartment.getId();
 
         Apartment apartmentWithoutRating =
@@ -177,7 +185,8 @@ class ApartmentJpaRepository_IntegrationTest {
 
         Comment newComment =
                 persistTestCommentWithApartment(apartmentWithoutRating);
-        entityManager.detach(apartmentWithoutRating);
+        repo.addRate(id, newComment.getRate());
+        entityManager.clear();
 
         Double changedRating =
                 repo.findById(id).orElseThrow()
@@ -185,6 +194,91 @@ class ApartmentJpaRepository_IntegrationTest {
 
         assertNotEquals(emptyRating, changedRating);
         assertEquals(newComment.getRate(), changedRating);
+
+        repo.removeRate(id, newComment.getRate());
+        entityManager.clear();
+
+        assertNull(repo.findById(id).orElseThrow().getRating());
+    }
+
+    @Test
+    void findIdsByFilter() {
+        Apartment second = persistTestApartment();
+        Apartment third = persistTestApartment();
+
+        List<Long> firstPage = repo.findIdsByFilter(null, null, AmenityMask.supersetsOf(AmenityMask.NONE),
+                null, null, null, 2);
+        List<Long> secondPage = repo.findIdsByFilter(firstPage.get(1), null, AmenityMask.supersetsOf(AmenityMask.NONE),
+                null, null, null, 2);
+
+        assertEquals(List.of(apartment.getId(), second.getId()), firstPage);
+        assertEquals(List.of(third.getId()), secondPage);
+    }
+
+    @Test
+    void findIdsByFilter_should_filter_by_class_and_min_price() {
+        Apartment apartmentWithPrices = repo.findByIdFetchPrices(apartment.getId()).orElseThrow();
+        apartmentWithPrices.getPrices().clear();
+        apartmentWithPrices.putPrice(new Price(1, BigDecimal.valueOf(50)));
+        apartmentWithPrices.putPrice(new Price(2, BigDecimal.valueOf(80)));
+        entityManager.flush();
+        String apartmentClass = apartmentWithPrices.getApartmentClass().name();
+
+        assertEquals(List.of(apartment.getId()), repo.findIdsByFilter(null, apartmentClass,
+                AmenityMask.supersetsOf(AmenityMask.NONE),
+                null, BigDecimal.valueOf(40), BigDecimal.valueOf(60), 10));
+        assertEquals(List.of(), repo.findIdsByFilter(null, apartmentClass,
+                AmenityMask.supersetsOf(AmenityMask.NONE),
+                null, BigDecimal.valueOf(60), null, 10));
+    }
+
+    @Test
+    void findIdsByFilter_should_filter_by_amenities() {
+        Apartment managedApartment = repo.findById(apartment.getId()).orElseThrow();
+        managedApartment.setOptions(new ApartmentOptions(false, true, false, true, false));
+        entityManager.flush();
+
+        int wifiAndKitchen = Amenity.WIFI.bit() | Amenity.KITCHEN.bit();
+        int wifiAndBathroom = Amenity.WIFI.bit() | Amenity.BATHROOM.bit();
+        assertEquals(List.of(apartment.getId()), repo.findIdsByFilter(null, null,
+                AmenityMask.supersetsOf(wifiAndKitchen), null, null, null, 10));
+        assertEquals(List.of(), repo.findIdsByFilter(null, null,
+                AmenityMask.supersetsOf(wifiAndBathroom), null, null, null, 10));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Amenity.class)
+    void amenities_column_should_match_ApartmentOptions_toAmenities(Amenity amenity) {
+        assertAmenitiesColumnMatches(optionsWith(amenity));
+    }
+
+    @Test
+    void amenities_column_should_match_ApartmentOptions_toAmenities_for_combinations() {
+        assertAmenitiesColumnMatches(ApartmentOptions.DEFAULT);
+        assertAmenitiesColumnMatches(new ApartmentOptions(false, true, false, true, false));
+        assertAmenitiesColumnMatches(new ApartmentOptions(true, false, true, false, true));
+        assertAmenitiesColumnMatches(new ApartmentOptions(true, true, true, true, true));
+    }
+
+    @Test
+    void findIdsByFilter_should_filter_by_capacity() {
+        repo.addCapacity(apartment.getId(), 4);
+        entityManager.clear();
+
+        assertEquals(List.of(apartment.getId()), repo.findIdsByFilter(null, null,
+                AmenityMask.supersetsOf(AmenityMask.NONE), 4, null, null, 10));
+        assertEquals(List.of(), repo.findIdsByFilter(null, null,
+                AmenityMask.supersetsOf(AmenityMask.NONE), 5, null, null, 10));
+    }
+
+    @Test
+    void findAllByIdInFetchPhotos() {
+        Apartment second = persistTestApartment();
+
+        List<Apartment> actual = repo.findAllByIdInFetchPhotos(List.of(second.getId(), apartment.getId()));
+
+        assertEquals(List.of(apartment, second), actual);
+        assertThat(stats.getPrepareStatementCount()).isOne();
     }
 
     private Comment persistTestCommentWithApartment(Apartment apartment) {
@@ -196,9 +290,31 @@ class ApartmentJpaRepository_IntegrationTest {
 
     private Apartment persistTestApartment() {
         Apartment testApartment = testApartment();
-        testApartment.setRating(null);
         entityManager.persistAndFlush(testApartment);
         entityManager.detach(testApartment);
         return testApartment;
     }
+
+    private void assertAmenitiesColumnMatches(ApartmentOptions options) {
+        Apartment managedApartment = repo.findById(apartment.getId()).orElseThrow();
+        managedApartment.setOptions(options);
+        entityManager.flush();
+
+        Object actual = entityManager.getEntityManager()
+                .createNativeQuery("select amenities from apartments where id = ?1")
+                .setParameter(1, apartment.getId())
+                .getSingleResult();
+
+        assertEquals(options.toAmenities(), ((Number) actual).intValue());
+    }
+
+    private ApartmentOptions optionsWith(Amenity amenity) {
+        return new ApartmentOptions(
+                amenity == Amenity.MEALS_INCLUDED,
+                amenity == Amenity.KITCHEN,
+                amenity == Amenity.BATHROOM,
+                amenity == Amenity.WIFI,
+                amenity == Amenity.REFRIGERATOR
+        );
+    }
 }
@@ -16,6 +16,7 @@
 
 package ua.mibal.booking.adapter.out.reservation.system.booking;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
@@ -25,16 +26,22 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
+import ua.mibal.booking.adapter.out.reservation.system.booking.component.ICalFeedCache;
+import ua.mibal.booking.adapter.out.reservation.system.booking.config.BookingComFeedProps;
 import ua.mibal.booking.application.ICalService;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Event;
 import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.booking.testUtils.ICalFeedStub;
 import ua.mibal.test.annotation.UnitTest;
 
+import java.net.http.HttpClient;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static java.time.Duration.ofHours;
+import static java.time.Duration.ofSeconds;
 import static java.util.List.of;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -49,9 +56,8 @@ import static org.mockito.Mockito.when;
 @TestMethodOrder(OrderAnnotation.class)
 @UnitTest
 class BookingComReservationService_UnitTest {
-    private final static String calendarUrl =
-            "file:/Users/admin/IdeaProjects/hotel-booking-service/" +
-            "src/test/resources/test.ics";
+    private final ICalFeedStub stub = new ICalFeedStub();
+    private final String calendarUrl = stub.url();
 
     private BookingComReservationService service;
 
@@ -65,7 +71,16 @@ class BookingComReservationService_UnitTest {
 
     @BeforeEach
     void setup() {
-        service = new BookingComReservationService(iCalService);
+        service = new BookingComReservationService(new ICalFeedCache(
+                HttpClient.newHttpClient(),
+                iCalService,
+                new BookingComFeedProps(ofHours(1), ofHours(1), ofSeconds(1), ofSeconds(2))
+        ));
+    }
+
+    @AfterEach
+    void teardown() {
+        stub.close();
     }
 
     @Test
@@ -97,6 +112,7 @@ class BookingComReservationService_UnitTest {
             "./invalid_url/",
             "//invalid_url/",
             "~/invalid_url/",
+            "http://localhost:1/calendar.ics",
     })
     void getEventsFor_should_throw_BookingComServiceException_if_ical_url_is_invalid(String url) {
         when(apartmentInstance.getBookingICalUrl()).thenReturn(Optional.of(url));
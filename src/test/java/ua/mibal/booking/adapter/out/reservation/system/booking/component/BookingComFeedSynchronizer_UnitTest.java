@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.reservation.system.booking.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import ua.mibal.booking.application.ExternalEventService;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ua.mibal.booking.domain.ExternalEventSource.BOOKING_COM;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class BookingComFeedSynchronizer_UnitTest {
+
+    private BookingComFeedSynchronizer synchronizer;
+
+    @Mock
+    private ApartmentInstanceRepository apartmentInstanceRepository;
+    @Mock
+    private ICalFeedCache iCalFeedCache;
+    @Mock
+    private ExternalEventService externalEventService;
+
+    @Mock
+    private Event event;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApartmentInstance first = instance(1L, "http://localhost/first.ics");
+    private final ApartmentInstance second = instance(2L, "http://localhost/second.ics");
+
+    @BeforeEach
+    void setup() {
+        synchronizer = new BookingComFeedSynchronizer(
+                apartmentInstanceRepository, iCalFeedCache, externalEventService, meterRegistry
+        );
+    }
+
+    @Test
+    void synchronizeAll() throws IOException {
+        when(apartmentInstanceRepository.findAllWithBookingICalUrl())
+                .thenReturn(List.of(first, second));
+        when(iCalFeedCache.getFreshEvents("http://localhost/first.ics"))
+                .thenReturn(List.of(event));
+        when(iCalFeedCache.getFreshEvents("http://localhost/second.ics"))
+                .thenReturn(List.of());
+
+        synchronizer.synchronizeAll();
+
+        verify(externalEventService).synchronize(1L, BOOKING_COM, List.of(event));
+        verify(externalEventService).synchronize(2L, BOOKING_COM, List.of());
+        assertEquals(0, meterRegistry.get("external_events.sync.failures").counter().count());
+        assertEquals(1, meterRegistry.get("external_events.sync.duration").timer().count());
+        assertTrue(lag() < 1);
+    }
+
+    @Test
+    void synchronizeAll_should_continue_after_failed_feed_and_report_lag() throws Exception {
+        when(apartmentInstanceRepository.findAllWithBookingICalUrl())
+                .thenReturn(List.of(first, second));
+        when(iCalFeedCache.getFreshEvents("http://localhost/first.ics"))
+                .thenThrow(new IOException("unavailable"));
+        when(iCalFeedCache.getFreshEvents("http://localhost/second.ics"))
+                .thenReturn(List.of(event));
+        Thread.sleep(1_100);
+
+        synchronizer.synchronizeAll();
+
+        verify(externalEventService).synchronize(2L, BOOKING_COM, List.of(event));
+        assertEquals(1, meterRegistry.get("external_events.sync.failures").counter().count());
+        assertTrue(lag() >= 1, "never synchronized instance must lag since start");
+    }
+
+    @Test
+    void lag_should_be_zero_before_first_synchronization() {
+        assertEquals(0, lag());
+    }
+
+    private double lag() {
+        return meterRegistry.get("external_events.sync.lag").gauge().value();
+    }
+
+    private static ApartmentInstance instance(Long id, String bookingICalUrl) {
+        return ApartmentInstance.of(id, "instance", bookingICalUrl, null, new ArrayList<>(), new ArrayList<>());
+    }
+}
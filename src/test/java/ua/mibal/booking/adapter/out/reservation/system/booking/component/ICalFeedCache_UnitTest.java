@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.adapter.out.reservation.system.booking.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import ua.mibal.booking.adapter.out.reservation.system.booking.config.BookingComFeedProps;
+import ua.mibal.booking.application.ICalService;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.booking.testUtils.ICalFeedStub;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofHours;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class ICalFeedCache_UnitTest {
+
+    private final ICalFeedStub stub = new ICalFeedStub();
+
+    @Mock
+    private ICalService iCalService;
+    @Mock
+    private Event event;
+    @Mock
+    private Event updatedEvent;
+
+    @AfterEach
+    void teardown() {
+        stub.close();
+    }
+
+    @Test
+    void getEvents_should_serve_fresh_feed_from_memory() throws IOException {
+        ICalFeedCache cache = cache(ofHours(1), ofHours(1), ofSeconds(2));
+        when(iCalService.getEventsFromCalendarFile(any())).thenReturn(List.of(event));
+
+        assertEquals(List.of(event), cache.getEvents(stub.url()));
+        assertEquals(List.of(event), cache.getEvents(stub.url()));
+
+        assertEquals(1, stub.hits());
+    }
+
+    @Test
+    void getEvents_should_serve_stale_feed_and_revalidate_it_in_background() throws Exception {
+        ICalFeedCache cache = cache(ZERO, ofHours(1), ofSeconds(2));
+        when(iCalService.getEventsFromCalendarFile(any())).thenReturn(List.of(event));
+        cache.getEvents(stub.url());
+
+        List<Event> actual = cache.getEvents(stub.url());
+
+        assertEquals(List.of(event), actual);
+        awaitHits(2);
+        assertEquals(List.of("", "\"1\""), stub.receivedETags());
+    }
+
+    @Test
+    void getEvents_should_replace_stale_feed_by_changed_one() throws Exception {
+        ICalFeedCache cache = cache(ZERO, ofHours(1), ofSeconds(2));
+        when(iCalService.getEventsFromCalendarFile(any()))
+                .thenReturn(List.of(event))
+                .thenReturn(List.of(updatedEvent));
+        cache.getEvents(stub.url());
+        stub.serve("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n", "\"2\"");
+
+        cache.getEvents(stub.url());
+        awaitHits(2);
+
+        assertTrue(awaitEvents(cache, List.of(updatedEvent)));
+    }
+
+    @Test
+    void getEvents_should_not_wait_for_slow_revalidation() throws IOException {
+        ICalFeedCache cache = cache(ZERO, ofHours(1), ofSeconds(5));
+        when(iCalService.getEventsFromCalendarFile(any())).thenReturn(List.of(event));
+        cache.getEvents(stub.url());
+        stub.delay(2_000);
+
+        long start = System.nanoTime();
+        List<Event> actual = cache.getEvents(stub.url());
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(List.of(event), actual);
+        assertTrue(elapsedMillis < 500, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void getEvents_should_load_too_stale_feed_synchronously() throws IOException {
+        ICalFeedCache cache = cache(ZERO, ZERO, ofSeconds(2));
+        when(iCalService.getEventsFromCalendarFile(any()))
+                .thenReturn(List.of(event))
+                .thenReturn(List.of(updatedEvent));
+        cache.getEvents(stub.url());
+        stub.serve("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n", "\"2\"");
+
+        assertEquals(List.of(updatedEvent), cache.getEvents(stub.url()));
+        assertEquals(2, stub.hits());
+    }
+
+    @Test
+    void getEvents_should_throw_if_feed_does_not_respond_in_time() {
+        ICalFeedCache cache = cache(ofHours(1), ofHours(1), ofMillis(200));
+        stub.delay(2_000);
+
+        assertThrows(HttpTimeoutException.class,
+                () -> cache.getEvents(stub.url()));
+    }
+
+    @Test
+    void getEvents_should_throw_if_feed_body_is_not_received_in_time() {
+        ICalFeedCache cache = cache(ofHours(1), ofHours(1), ofMillis(200));
+        stub.bodyDelay(2_000);
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class,
+                () -> cache.getEvents(stub.url()));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 1_000, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void getEvents_should_revalidate_again_after_slow_body_revalidation_is_cancelled() throws Exception {
+        ICalFeedCache cache = cache(ZERO, ofHours(1), ofMillis(200));
+        when(iCalService.getEventsFromCalendarFile(any())).thenReturn(List.of(event));
+        cache.getEvents(stub.url());
+        stub.serve("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n", "\"2\"")
+                .bodyDelay(2_000);
+
+        cache.getEvents(stub.url());
+        awaitHits(2);
+        Thread.sleep(500);
+        cache.getEvents(stub.url());
+
+        awaitHits(3);
+    }
+
+    @Test
+    void getEvents_should_throw_on_unexpected_status() {
+        ICalFeedCache cache = cache(ofHours(1), ofHours(1), ofSeconds(2));
+        stub.status(503);
+
+        assertThrows(IOException.class,
+                () -> cache.getEvents(stub.url()));
+    }
+
+    private ICalFeedCache cache(Duration ttl, Duration staleWhileRevalidate, Duration requestTimeout) {
+        return new ICalFeedCache(
+                HttpClient.newHttpClient(),
+                iCalService,
+                new BookingComFeedProps(ttl, staleWhileRevalidate, ofSeconds(1), requestTimeout)
+        );
+    }
+
+    private void awaitHits(int hits) throws InterruptedException {
+        for (int i = 0; i < 100 && stub.hits() < hits; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(hits, stub.hits());
+    }
+
+    private boolean awaitEvents(ICalFeedCache cache, List<Event> expected) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (cache.getEvents(stub.url()).equals(expected)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
@@ -19,7 +19,9 @@ package ua.mibal.booking.application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
-import ua.mibal.booking.adapter.out.reservation.system.booking.BookingComReservationService;
+import ua.mibal.booking.application.component.AvailabilityIndex;
+import ua.mibal.booking.application.component.HotelTurningOffSnapshot;
+import ua.mibal.booking.application.component.InstanceScorer;
 import ua.mibal.booking.application.dto.request.CreateApartmentInstanceDto;
 import ua.mibal.booking.application.exception.ApartmentInstanceNotFoundException;
 import ua.mibal.booking.application.exception.ApartmentIsNotAvailableForReservation;
@@ -27,20 +29,21 @@ import ua.mibal.booking.application.exception.ApartmentNotFoundException;
 import ua.mibal.booking.application.mapper.ApartmentInstanceMapper;
 import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
-import ua.mibal.booking.application.util.DateTimeUtils;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.ReservationRequest;
 import ua.mibal.test.annotation.UnitTest;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-import static java.time.LocalDateTime.MAX;
-import static java.time.LocalDateTime.MIN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -53,6 +56,12 @@ import static org.mockito.Mockito.when;
  */
 @UnitTest
 class ApartmentInstanceService_UnitTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 15, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 3, 11, 0);
+    private static final int PEOPLE = 2;
+    private static final Long APARTMENT_ID = 1L;
+    private static final ReservationRequest REQUEST =
+            new ReservationRequest(FROM, TO, PEOPLE, APARTMENT_ID, "userEmail");
 
     private ApartmentInstanceService service;
 
@@ -61,77 +70,173 @@ class ApartmentInstanceService_UnitTest {
     @Mock
     private ApartmentRepository apartmentRepository;
     @Mock
-    private DateTimeUtils dateTimeUtils;
+    private ApartmentInstanceMapper apartmentInstanceMapper;
     @Mock
-    private BookingComReservationService bookingComReservationService;
+    private ReservationSystemManager reservationSystemManager;
     @Mock
-    private ApartmentInstanceMapper apartmentInstanceMapper;
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private InstanceScorer instanceScorer;
+    @Mock
+    private HotelTurningOffSnapshot hotelTurningOffSnapshot;
 
     @Mock
     private ApartmentInstance apartmentInstance;
     @Mock
     private ApartmentInstance apartmentInstance2;
     @Mock
+    private ApartmentInstance apartmentInstance3;
+    @Mock
     private Apartment apartment;
     @Mock
-    private CreateApartmentInstanceDto createApartmentInstanceDto;
+    private Apartment apartment2;
     @Mock
-    private LocalDate dateFrom;
+    private Apartment otherProxyOfApartment;
     @Mock
-    private LocalDate dateTo;
+    private CreateApartmentInstanceDto createApartmentInstanceDto;
 
     @BeforeEach
     void setup() {
-        service = new ApartmentInstanceService(apartmentInstanceRepository, apartmentRepository, bookingComReservationService, apartmentInstanceMapper);
+        service = new ApartmentInstanceService(apartmentInstanceRepository, apartmentRepository, apartmentInstanceMapper,
+                reservationSystemManager, availabilityIndex, instanceScorer, hotelTurningOffSnapshot);
     }
 
     @Test
-    void getFreeOne() {
-        String userEmail = "userEmail";
-        Long id = 1L;
-        int people = 1;
-        ReservationRequest reservationRequest = new ReservationRequest(MIN, MAX, people, id, userEmail);
-
-        when(dateTimeUtils.reserveFrom(dateFrom))
-                .thenReturn(MIN);
-        when(dateTimeUtils.reserveTo(dateTo))
-                .thenReturn(MAX);
-        when(apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(reservationRequest))
-                .thenReturn(List.of(apartmentInstance2, apartmentInstance));
-        when(bookingComReservationService.isFreeForReservation(apartmentInstance2, reservationRequest))
+    void getFreeOne_should_check_local_availability_by_index_if_it_is_ready() {
+        when(availabilityIndex.isReady())
+                .thenReturn(true);
+        when(apartmentInstanceRepository.findByApartmentIdAndPeopleFetchApartmentAndPrices(APARTMENT_ID, PEOPLE))
+                .thenReturn(List.of(apartmentInstance, apartmentInstance2));
+        givenIds(apartmentInstance, apartmentInstance2);
+        when(availabilityIndex.isFree(1L, FROM, TO))
                 .thenReturn(false);
-        when(bookingComReservationService.isFreeForReservation(apartmentInstance, reservationRequest))
+        when(availabilityIndex.isFree(2L, FROM, TO))
                 .thenReturn(true);
 
-        ApartmentInstance actual = service
-                .getFreeOneFetchApartmentAndPrices(reservationRequest);
+        ApartmentInstance actual = service.getFreeOneFetchApartmentAndPrices(REQUEST);
+
+        assertEquals(apartmentInstance2, actual);
+        verify(reservationSystemManager, times(1))
+                .filterForFree(List.of(apartmentInstance2), REQUEST);
+        verify(apartmentInstanceRepository, never())
+                .findFreeByRequestFetchApartmentAndPrices(any());
+    }
+
+    @Test
+    void getFreeOne_should_check_local_availability_in_DB_if_index_is_not_ready() {
+        when(availabilityIndex.isReady())
+                .thenReturn(false);
+        when(apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(REQUEST))
+                .thenReturn(List.of(apartmentInstance));
+
+        ApartmentInstance actual = service.getFreeOneFetchApartmentAndPrices(REQUEST);
 
         assertEquals(apartmentInstance, actual);
+        verify(availabilityIndex, never())
+                .isFree(any(), any(), any());
     }
 
     @Test
-    void getFreeOne_should_throw_FreeApartmentsForDateNotFoundException() {
-        String userEmail = "userEmail";
-        Long id = 1L;
-        int people = 1;
-        ReservationRequest reservationRequest = new ReservationRequest(MIN, MAX, people, id, userEmail);
+    void getFreeOne_should_throw_ApartmentIsNotAvailableForReservation_if_hotel_is_turned_off() {
+        when(hotelTurningOffSnapshot.intersects(FROM, TO))
+                .thenReturn(true);
+
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> service.getFreeOneFetchApartmentAndPrices(REQUEST));
+
+        verifyNoInteractions(apartmentInstanceRepository, instanceScorer);
+    }
+
+    @Test
+    void getFreeOne_should_drop_instances_reserved_in_reservation_systems() {
+        when(availabilityIndex.isReady())
+                .thenReturn(false);
+        when(apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(REQUEST))
+                .thenReturn(List.of(apartmentInstance, apartmentInstance2));
+        givenReservedInReservationSystems(apartmentInstance);
 
-        when(dateTimeUtils.reserveFrom(dateFrom)).thenReturn(MIN);
-        when(dateTimeUtils.reserveTo(dateTo)).thenReturn(MAX);
-        when(apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(reservationRequest))
+        ApartmentInstance actual = service.getFreeOneFetchApartmentAndPrices(REQUEST);
+
+        assertEquals(apartmentInstance2, actual);
+        verifyNoInteractions(instanceScorer);
+    }
+
+    @Test
+    void getFreeOne_should_select_best_fit_instance() {
+        when(availabilityIndex.isReady())
+                .thenReturn(false);
+        when(apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(REQUEST))
+                .thenReturn(List.of(apartmentInstance, apartmentInstance2, apartmentInstance3));
+        when(instanceScorer.score(apartmentInstance, REQUEST))
+                .thenReturn(-5L);
+        when(instanceScorer.score(apartmentInstance2, REQUEST))
+                .thenReturn(-1L);
+        when(instanceScorer.score(apartmentInstance3, REQUEST))
+                .thenReturn(-3L);
+
+        ApartmentInstance actual = service.getFreeOneFetchApartmentAndPrices(REQUEST);
+
+        assertEquals(apartmentInstance2, actual);
+    }
+
+    @Test
+    void getFreeOne_should_throw_ApartmentIsNotAvailableForReservation_if_there_are_no_free_instances() {
+        when(availabilityIndex.isReady())
+                .thenReturn(false);
+        when(apartmentInstanceRepository.findFreeByRequestFetchApartmentAndPrices(REQUEST))
                 .thenReturn(List.of());
 
-        ApartmentIsNotAvailableForReservation e = assertThrows(
-                ApartmentIsNotAvailableForReservation.class,
-                () -> service.getFreeOneFetchApartmentAndPrices(reservationRequest)
-        );
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> service.getFreeOneFetchApartmentAndPrices(REQUEST));
+    }
 
-        assertEquals(
-                new ApartmentIsNotAvailableForReservation().getMessage(),
-                e.getMessage()
-        );
+    @Test
+    void getFreeApartments_should_group_free_instances_by_apartment_id() {
+        ApartmentInstance sameApartmentInstance = apartmentInstance3;
+        when(availabilityIndex.isReady())
+                .thenReturn(true);
+        when(apartmentInstanceRepository.findByPeopleFetchApartmentAndPrices(PEOPLE))
+                .thenReturn(List.of(apartmentInstance, apartmentInstance2, sameApartmentInstance));
+        givenIds(apartmentInstance, apartmentInstance2, sameApartmentInstance);
+        when(availabilityIndex.isFree(any(), any(), any()))
+                .thenReturn(true);
+        givenApartment(apartmentInstance, apartment, 10L);
+        givenApartment(apartmentInstance2, apartment2, 20L);
+        givenApartment(sameApartmentInstance, otherProxyOfApartment, 10L);
+
+        List<Apartment> actual = service.getFreeApartmentsFetchPrices(REQUEST);
+
+        assertEquals(List.of(apartment, apartment2), actual);
     }
 
+    @Test
+    void getFreeApartments_should_check_all_candidates_by_one_reservation_systems_call() {
+        when(availabilityIndex.isReady())
+                .thenReturn(false);
+        when(apartmentInstanceRepository.findFreeByPeriodAndPeopleFetchApartmentAndPrices(REQUEST))
+                .thenReturn(List.of(apartmentInstance, apartmentInstance2));
+        givenReservedInReservationSystems(apartmentInstance);
+        givenApartment(apartmentInstance2, apartment2, 20L);
+
+        List<Apartment> actual = service.getFreeApartmentsFetchPrices(REQUEST);
+
+        assertEquals(List.of(apartment2), actual);
+        verify(reservationSystemManager, times(1))
+                .filterForFree(anyList(), any());
+        verify(availabilityIndex, never())
+                .isFree(any(), any(), any());
+    }
+
+    @Test
+    void getFreeApartments_should_return_nothing_if_hotel_is_turned_off() {
+        when(hotelTurningOffSnapshot.intersects(FROM, TO))
+                .thenReturn(true);
+
+        List<Apartment> actual = service.getFreeApartmentsFetchPrices(REQUEST);
+
+        assertTrue(actual.isEmpty());
+        verifyNoInteractions(apartmentInstanceRepository);
+    }
 
     @Test
     void create() {
@@ -167,6 +272,7 @@ class ApartmentInstanceService_UnitTest {
         service.delete(id);
 
         verify(apartmentInstanceRepository, times(1)).deleteById(id);
+        verify(availabilityIndex, times(1)).unregister(id);
     }
 
     @Test
@@ -180,6 +286,7 @@ class ApartmentInstanceService_UnitTest {
         );
 
         verify(apartmentInstanceRepository, never()).deleteById(id);
+        verifyNoInteractions(availabilityIndex);
     }
 
     @Test
@@ -204,4 +311,25 @@ class ApartmentInstanceService_UnitTest {
         assertThrows(ApartmentInstanceNotFoundException.class,
                 () -> service.getOneFetchReservations(id));
     }
+
+    private void givenIds(ApartmentInstance... instances) {
+        for (int i = 0; i < instances.length; i++) {
+            when(instances[i].getId())
+                    .thenReturn(i + 1L);
+        }
+    }
+
+    private void givenApartment(ApartmentInstance instance, Apartment apartment, Long apartmentId) {
+        when(instance.getApartment())
+                .thenReturn(apartment);
+        when(apartment.getId())
+                .thenReturn(apartmentId);
+    }
+
+    private void givenReservedInReservationSystems(ApartmentInstance reserved) {
+        doAnswer(invocation -> {
+            invocation.<List<ApartmentInstance>>getArgument(0).remove(reserved);
+            return null;
+        }).when(reservationSystemManager).filterForFree(anyList(), any());
+    }
 }
@@ -19,20 +19,33 @@ package ua.mibal.booking.application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import ua.mibal.booking.application.component.ApartmentCardCatalog;
+import ua.mibal.booking.application.dto.request.ApartmentFilterDto;
 import ua.mibal.booking.application.dto.request.CreateApartmentDto;
+import ua.mibal.booking.application.dto.request.ReservationDto;
 import ua.mibal.booking.application.dto.request.UpdateApartmentDto;
 import ua.mibal.booking.application.dto.response.ApartmentCardDto;
+import ua.mibal.booking.application.dto.response.ApartmentCardPageDto;
 import ua.mibal.booking.application.dto.response.ApartmentDto;
+import ua.mibal.booking.application.dto.response.FreeApartmentDto;
 import ua.mibal.booking.application.mapper.ApartmentMapper;
+import ua.mibal.booking.application.mapper.ReservationRequestMapper;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
+import ua.mibal.booking.application.util.AmenityMask;
+import ua.mibal.booking.domain.Amenity;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Photo;
+import ua.mibal.booking.domain.ReservationRequest;
 import ua.mibal.booking.application.exception.ApartmentDoesNotHavePhotoException;
 import ua.mibal.booking.application.exception.ApartmentNotFoundException;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.test.annotation.UnitTest;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -42,6 +55,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static ua.mibal.booking.domain.Apartment.ApartmentClass.COMFORT;
 
 /**
  * @author Mykhailo Balakhon
@@ -52,10 +66,18 @@ class ApartmentService_UnitTest {
 
     private ApartmentService service;
 
+    @Mock
+    private ApartmentCardCatalog apartmentCardCatalog;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private ApartmentRepository apartmentRepository;
     @Mock
     private ApartmentMapper apartmentMapper;
+    @Mock
+    private ApartmentInstanceService apartmentInstanceService;
+    @Mock
+    private ReservationRequestMapper reservationRequestMapper;
 
     @Mock
     private Apartment apartment;
@@ -67,23 +89,98 @@ class ApartmentService_UnitTest {
     private CreateApartmentDto createApartmentDto;
     @Mock
     private UpdateApartmentDto updateApartmentDto;
+    @Mock
+    private ReservationDto reservationDto;
+    @Mock
+    private FreeApartmentDto freeApartmentDto;
 
     @BeforeEach
     void setup() {
-        service = new ApartmentService(apartmentRepository, apartmentMapper);
+        service = new ApartmentService(apartmentRepository, apartmentMapper, apartmentInstanceService, reservationRequestMapper, apartmentCardCatalog, eventPublisher);
     }
 
     @Test
     void getAllFetchPhotosBeds() {
-        when(apartmentRepository.findAllFetchPhotos())
+        when(apartmentCardCatalog.getAllWithAmenities(Amenity.WIFI.bit() | Amenity.KITCHEN.bit()))
+                .thenReturn(List.of(apartmentCardDto, apartmentCardDto));
+
+        List<ApartmentCardDto> actual = service.getAllFetchPhotosBeds(Set.of(Amenity.WIFI, Amenity.KITCHEN));
+
+        assertEquals(
+                List.of(apartmentCardDto, apartmentCardDto),
+                actual
+        );
+    }
+
+    @Test
+    void search() {
+        ApartmentFilterDto filter = new ApartmentFilterDto(COMFORT, false, true, false, true, false,
+                2, null, BigDecimal.TEN, 5L, 2);
+
+        when(apartmentRepository.findIdsByFilter(5L, "COMFORT", AmenityMask.supersetsOf(0b1010),
+                2, null, BigDecimal.TEN, 3))
+                .thenReturn(List.of(6L, 8L, 9L));
+        when(apartmentRepository.findAllByIdInFetchPhotos(List.of(6L, 8L)))
                 .thenReturn(List.of(apartment, apartment));
         when(apartmentMapper.toCardDto(apartment))
                 .thenReturn(apartmentCardDto);
 
-        List<ApartmentCardDto> actual = service.getAllFetchPhotosBeds();
+        ApartmentCardPageDto actual = service.search(filter);
 
         assertEquals(
-                List.of(apartmentCardDto, apartmentCardDto),
+                new ApartmentCardPageDto(List.of(apartmentCardDto, apartmentCardDto), 8L),
+                actual
+        );
+    }
+
+    @Test
+    void search_should_not_return_cursor_for_last_page() {
+        ApartmentFilterDto filter = new ApartmentFilterDto(null, false, false, false, false, false,
+                null, null, null, null, 2);
+
+        when(apartmentRepository.findIdsByFilter(null, null, AmenityMask.supersetsOf(AmenityMask.NONE),
+                null, null, null, 3))
+                .thenReturn(List.of(6L));
+        when(apartmentRepository.findAllByIdInFetchPhotos(List.of(6L)))
+                .thenReturn(List.of(apartment));
+        when(apartmentMapper.toCardDto(apartment))
+                .thenReturn(apartmentCardDto);
+
+        ApartmentCardPageDto actual = service.search(filter);
+
+        assertEquals(new ApartmentCardPageDto(List.of(apartmentCardDto), null), actual);
+    }
+
+    @Test
+    void search_should_not_load_apartments_for_empty_page() {
+        ApartmentFilterDto filter = new ApartmentFilterDto(null, false, false, false, false, false,
+                null, null, null, 100L, null);
+
+        when(apartmentRepository.findIdsByFilter(100L, null, AmenityMask.supersetsOf(AmenityMask.NONE),
+                null, null, null, ApartmentFilterDto.DEFAULT_SIZE + 1))
+                .thenReturn(List.of());
+
+        ApartmentCardPageDto actual = service.search(filter);
+
+        assertEquals(new ApartmentCardPageDto(List.of(), null), actual);
+        verify(apartmentRepository, never()).findAllByIdInFetchPhotos(List.of());
+    }
+
+    @Test
+    void getFree() {
+        ReservationRequest request = new ReservationRequest(null, null, 3, null, null);
+
+        when(reservationRequestMapper.toRequest(reservationDto, null, null))
+                .thenReturn(request);
+        when(apartmentInstanceService.getFreeApartmentsFetchPrices(request))
+                .thenReturn(List.of(apartment, apartment));
+        when(apartmentMapper.toFreeDto(apartment, 3))
+                .thenReturn(freeApartmentDto);
+
+        List<FreeApartmentDto> actual = service.getFree(reservationDto);
+
+        assertEquals(
+                List.of(freeApartmentDto, freeApartmentDto),
                 actual
         );
     }
@@ -217,6 +314,7 @@ class ApartmentService_UnitTest {
         service.create(createApartmentDto);
 
         verify(apartmentRepository).save(apartment);
+        verify(eventPublisher).publishEvent(new ApartmentChangedEvent(apartment.getId()));
     }
 
     @Test
@@ -227,6 +325,7 @@ class ApartmentService_UnitTest {
         service.update(updateApartmentDto, id);
 
         verify(apartmentMapper, times(1)).update(apartment, updateApartmentDto);
+        verify(eventPublisher, times(1)).publishEvent(new ApartmentChangedEvent(id));
     }
 
     @Test
@@ -240,6 +339,7 @@ class ApartmentService_UnitTest {
         );
 
         verifyNoInteractions(apartmentMapper);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -250,6 +350,7 @@ class ApartmentService_UnitTest {
         service.delete(id);
 
         verify(apartmentRepository, times(1)).deleteById(id);
+        verify(eventPublisher, times(1)).publishEvent(new ApartmentChangedEvent(id));
     }
 
     @Test
@@ -263,6 +364,7 @@ class ApartmentService_UnitTest {
         );
 
         verify(apartmentRepository, never()).deleteById(id);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
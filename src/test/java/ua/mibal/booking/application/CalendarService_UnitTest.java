@@ -18,19 +18,31 @@ package ua.mibal.booking.application;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import ua.mibal.booking.application.dto.request.CalendarWindowDto;
 import ua.mibal.booking.application.dto.response.calendar.Calendar;
-import ua.mibal.booking.domain.Apartment;
+import ua.mibal.booking.application.util.EventCoalescer;
 import ua.mibal.booking.domain.ApartmentInstance;
 import ua.mibal.booking.domain.Event;
 import ua.mibal.booking.domain.HotelTurningOffTime;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.ReservationDetails;
+import ua.mibal.booking.domain.TurningOffTime;
 import ua.mibal.test.annotation.UnitTest;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static java.time.LocalDateTime.now;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -47,51 +59,60 @@ class CalendarService_UnitTest {
     @Mock
     private ApartmentInstanceService apartmentInstanceService;
     @Mock
-    private ApartmentService apartmentService;
+    private ReservationService reservationService;
     @Mock
     private TurningOffService turningOffService;
 
-    @Mock
-    private Apartment apartment;
     @Mock
     private ApartmentInstance apartmentInstance;
 
-    private final Event apartmentInstanceEvent = spy(Event.from(
-            now(), now().plusDays(1), "ApartmentInstanceEvent"
-    ));
+    private final CalendarWindowDto window =
+            new CalendarWindowDto(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31));
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final LocalDateTime to = LocalDateTime.of(2030, 2, 1, 0, 0);
+
     private final Event bookingComEvent = spy(Event.from(
-            now(), now().plusDays(1), "BookingComEvent"
+            from.plusDays(1), from.plusDays(2), "BookingComEvent"
     ));
     private final HotelTurningOffTime hotelTurningOffTime = spy(new HotelTurningOffTime(
-            1L, now(), now().plusDays(2), "Christmas holidays"
+            1L, from.plusDays(5), from.plusDays(7), "Christmas holidays"
     ));
 
     @BeforeEach
     void setup() {
-        service = new CalendarService(reservationSystemManager, apartmentInstanceService, apartmentService, turningOffService);
+        service = new CalendarService(reservationSystemManager, apartmentInstanceService, reservationService, turningOffService);
     }
 
     @Test
     void getCalendarsForApartment() {
         Long apartmentId = 1L;
 
-        when(apartmentService.getOneFetchInstances(apartmentId))
-                .thenReturn(apartment);
-        when(turningOffService.getForHotelForNow())
+        ApartmentInstance otherInstance = mock(ApartmentInstance.class);
+        Reservation reservation = Reservation.of(
+                null, apartmentInstance, ReservationDetails.of(from.plusDays(1), from.plusDays(3), null, null));
+        TurningOffTime turningOffTime = new TurningOffTime(
+                from.plusDays(10), from.plusDays(11), apartmentInstance);
+
+        when(apartmentInstanceService.getAllByApartmentId(apartmentId))
+                .thenReturn(List.of(apartmentInstance, otherInstance));
+        when(reservationService.getNotRejectedForApartmentAt(apartmentId, from, to))
+                .thenReturn(List.of(reservation));
+        when(apartmentInstanceService.getTurningOffTimesForApartmentAt(apartmentId, from, to))
+                .thenReturn(List.of(turningOffTime));
+        when(turningOffService.getForHotelAt(from, to))
                 .thenReturn(List.of(hotelTurningOffTime));
-        when(apartment.getApartmentInstances())
-                .thenReturn(List.of(apartmentInstance));
 
-        when(apartmentInstance.getNotRejectedEventsForNow())
-                .thenReturn(List.of(apartmentInstanceEvent));
-        when(reservationSystemManager.getEventsFor(apartmentInstance))
-                .thenReturn(List.of(bookingComEvent));
+        when(apartmentInstance.getId()).thenReturn(1L);
+        when(otherInstance.getId()).thenReturn(2L);
+        when(reservationSystemManager.getEventsFor(List.of(apartmentInstance, otherInstance), from, to))
+                .thenReturn(Map.of(1L, List.of(bookingComEvent)));
 
-        List<Event> expectedEvents =
-                List.of(apartmentInstanceEvent, hotelTurningOffTime, bookingComEvent);
-        List<Calendar> expected = List.of(Calendar.of(expectedEvents));
+        List<Calendar> expected = List.of(
+                Calendar.of(List.of(reservation, turningOffTime, hotelTurningOffTime, bookingComEvent)),
+                Calendar.of(List.of(hotelTurningOffTime))
+        );
 
-        List<Calendar> actual = service.getCalendarsForApartment(apartmentId);
+        List<Calendar> actual = service.getCalendarsForApartment(apartmentId, window, false);
 
         assertEquals(expected, actual);
     }
@@ -99,23 +120,71 @@ class CalendarService_UnitTest {
     @Test
     void getCalendarForApartmentInstance() {
         Long instanceId = 1L;
+        Reservation reservation = Reservation.of(
+                null, apartmentInstance, ReservationDetails.of(from.plusDays(1), from.plusDays(3), null, null));
+        TurningOffTime turningOffTime = new TurningOffTime(
+                from.plusDays(10), from.plusDays(11), apartmentInstance);
 
-        when(apartmentInstanceService.getOneFetchReservations(instanceId))
+        when(apartmentInstanceService.getOne(instanceId))
                 .thenReturn(apartmentInstance);
-        when(turningOffService.getForHotelForNow())
+        when(reservationService.getNotRejectedForApartmentInstanceAt(instanceId, from, to))
+                .thenReturn(List.of(reservation));
+        when(apartmentInstanceService.getTurningOffTimesAt(instanceId, from, to))
+                .thenReturn(List.of(turningOffTime));
+        when(turningOffService.getForHotelAt(from, to))
                 .thenReturn(List.of(hotelTurningOffTime));
-
-        when(apartmentInstance.getNotRejectedEventsForNow())
-                .thenReturn(List.of(apartmentInstanceEvent));
-        when(reservationSystemManager.getEventsFor(apartmentInstance))
-                .thenReturn(List.of(bookingComEvent));
+        when(reservationSystemManager.getEventsFor(List.of(apartmentInstance), from, to))
+                .thenReturn(Map.of(instanceId, List.of(bookingComEvent)));
 
         List<Event> expectedEvents =
-                List.of(apartmentInstanceEvent, hotelTurningOffTime, bookingComEvent);
+                List.of(reservation, turningOffTime, hotelTurningOffTime, bookingComEvent);
         Calendar expected = Calendar.of(expectedEvents);
 
-        Calendar actual = service.getCalendarForApartmentInstance(instanceId);
+        Calendar actual = service.getCalendarForApartmentInstance(instanceId, window, false);
 
         assertEquals(expected, actual);
     }
+
+    @Test
+    void getCalendarForApartmentInstance_should_coalesce_events() {
+        Long instanceId = 1L;
+        Reservation reservation = Reservation.of(
+                null, apartmentInstance, ReservationDetails.of(from.plusDays(1), from.plusDays(3), null, null));
+
+        when(apartmentInstanceService.getOne(instanceId))
+                .thenReturn(apartmentInstance);
+        when(reservationService.getNotRejectedForApartmentInstanceAt(instanceId, from, to))
+                .thenReturn(List.of(reservation));
+        when(turningOffService.getForHotelAt(from, to))
+                .thenReturn(List.of(hotelTurningOffTime));
+        when(reservationSystemManager.getEventsFor(List.of(apartmentInstance), from, to))
+                .thenReturn(Map.of(instanceId, List.of(bookingComEvent)));
+
+        Calendar expected = Calendar.of(List.of(
+                Event.from(from.plusDays(1), from.plusDays(3), EventCoalescer.MERGED_EVENT_NAME),
+                hotelTurningOffTime
+        ));
+
+        Calendar actual = service.getCalendarForApartmentInstance(instanceId, window, true);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void getCalendarForApartmentInstance_should_use_default_window_if_not_specified() {
+        Long instanceId = 1L;
+        LocalDateTime before = now();
+        when(apartmentInstanceService.getOne(instanceId))
+                .thenReturn(apartmentInstance);
+
+        service.getCalendarForApartmentInstance(instanceId, new CalendarWindowDto(null, null), false);
+
+        ArgumentCaptor<LocalDateTime> fromCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> toCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(reservationService)
+                .getNotRejectedForApartmentInstanceAt(eq(instanceId), fromCaptor.capture(), toCaptor.capture());
+        assertFalse(fromCaptor.getValue().isBefore(before));
+        assertFalse(fromCaptor.getValue().isAfter(now()));
+        assertEquals(fromCaptor.getValue().plus(CalendarService.DEFAULT_WINDOW_LENGTH), toCaptor.getValue());
+    }
 }
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -36,9 +37,11 @@ import ua.mibal.booking.domain.User;
 import ua.mibal.booking.application.exception.UserHasNoAccessToCommentException;
 import ua.mibal.booking.application.exception.UserHasNoAccessToCommentsException;
 import ua.mibal.booking.application.exception.ApartmentNotFoundException;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.test.annotation.UnitTest;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -57,6 +60,8 @@ class CommentService_UnitTest {
 
     private CommentService service;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private CommentRepository commentRepository;
     @Mock
@@ -79,7 +84,7 @@ class CommentService_UnitTest {
 
     @BeforeEach
     void setup() {
-        service = new CommentService(commentRepository, commentMapper, userRepository, apartmentRepository);
+        service = new CommentService(commentRepository, commentMapper, userRepository, apartmentRepository, eventPublisher);
     }
 
     @Test
@@ -116,11 +121,16 @@ class CommentService_UnitTest {
                 .thenReturn(apartment);
         when(userRepository.getReferenceByEmail(email))
                 .thenReturn(user);
+        when(comment.getRate())
+                .thenReturn(4.5);
 
         service.create(createCommentDto, email, apartmentId);
 
         verify(comment, times(1)).setApartment(apartment);
         verify(comment, times(1)).setUser(user);
+        verify(commentRepository, times(1)).save(comment);
+        verify(apartmentRepository, times(1)).addRate(apartmentId, 4.5);
+        verify(eventPublisher, times(1)).publishEvent(new ApartmentChangedEvent(apartmentId));
     }
 
     @Test
@@ -161,12 +171,31 @@ class CommentService_UnitTest {
     })
     void delete(Long id, String email) {
         when(userRepository.userHasComment(email, id)).thenReturn(true);
+        when(commentRepository.findById(id)).thenReturn(Optional.of(comment));
+        when(comment.getApartment()).thenReturn(apartment);
+        when(apartment.getId()).thenReturn(2L);
+        when(comment.getRate()).thenReturn(4.5);
 
         service.delete(id, email);
 
         verify(commentRepository, times(1))
                 .deleteById(id);
+        verify(apartmentRepository, times(1))
+                .removeRate(2L, 4.5);
+        verify(eventPublisher, times(1))
+                .publishEvent(new ApartmentChangedEvent(2L));
+    }
+
+    @Test
+    void delete_should_not_change_rating_if_comment_already_deleted() {
+        when(userRepository.userHasComment("email", 1L)).thenReturn(true);
+        when(commentRepository.findById(1L)).thenReturn(Optional.empty());
+
+        service.delete(1L, "email");
 
+        verify(commentRepository, never()).deleteById(1L);
+        verifyNoInteractions(apartmentRepository);
+        verifyNoInteractions(eventPublisher);
     }
 
     @ParameterizedTest
@@ -183,5 +212,6 @@ class CommentService_UnitTest {
                 () -> service.delete(id, email)
         );
         verify(commentRepository, never()).deleteById(id);
+        verifyNoInteractions(apartmentRepository);
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.ExternalEventRepository;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.booking.domain.ExternalEvent;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ua.mibal.booking.domain.ExternalEventSource.BOOKING_COM;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class ExternalEventService_UnitTest {
+
+    private ExternalEventService service;
+
+    @Mock
+    private ExternalEventRepository externalEventRepository;
+    @Mock
+    private ApartmentInstanceRepository apartmentInstanceRepository;
+
+    @Mock
+    private ApartmentInstance apartmentInstance;
+
+    @Captor
+    private ArgumentCaptor<Iterable<ExternalEvent>> eventsCaptor;
+
+    private final LocalDateTime start = now().plusDays(1).withNano(0);
+
+    @BeforeEach
+    void setup() {
+        service = new ExternalEventService(externalEventRepository, apartmentInstanceRepository);
+    }
+
+    @Test
+    void synchronize_should_apply_only_difference() {
+        ExternalEvent unchanged = stored(start, start.plusDays(1), "unchanged");
+        ExternalEvent renamed = stored(start.plusDays(2), start.plusDays(3), "old name");
+        ExternalEvent vanished = stored(start.plusDays(4), start.plusDays(5), "vanished");
+        when(externalEventRepository.findByApartmentInstanceIdAndSource(1L, BOOKING_COM))
+                .thenReturn(List.of(unchanged, renamed, vanished));
+        when(apartmentInstanceRepository.getReferenceById(1L))
+                .thenReturn(apartmentInstance);
+
+        int changed = service.synchronize(1L, BOOKING_COM, List.of(
+                Event.from(start, start.plusDays(1), "unchanged"),
+                Event.from(start.plusDays(2), start.plusDays(3), "new name"),
+                Event.from(start.plusDays(6), start.plusDays(7), "added")
+        ));
+
+        assertEquals(3, changed);
+        assertEquals("new name", renamed.getSummary());
+        verify(externalEventRepository).deleteAllInBatch(List.of(vanished));
+        verify(externalEventRepository).saveAll(eventsCaptor.capture());
+        List<ExternalEvent> added = new ArrayList<>();
+        eventsCaptor.getValue().forEach(added::add);
+        assertEquals(1, added.size());
+        assertEquals(start.plusDays(6), added.get(0).getFrom());
+        assertEquals(start.plusDays(7), added.get(0).getTo());
+        assertEquals("added", added.get(0).getSummary());
+        assertEquals(BOOKING_COM, added.get(0).getSource());
+        assertEquals(apartmentInstance, added.get(0).getApartmentInstance());
+    }
+
+    @Test
+    void synchronize_should_not_touch_database_if_nothing_changed() {
+        when(externalEventRepository.findByApartmentInstanceIdAndSource(1L, BOOKING_COM))
+                .thenReturn(List.of(stored(start, start.plusDays(1), "event")));
+
+        int changed = service.synchronize(1L, BOOKING_COM, List.of(
+                Event.from(start, start.plusDays(1), "event")
+        ));
+
+        assertEquals(0, changed);
+        verify(externalEventRepository, never()).deleteAllInBatch(any());
+        verify(externalEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void synchronize_should_skip_empty_ranges_and_duplicates() {
+        when(apartmentInstanceRepository.getReferenceById(1L))
+                .thenReturn(apartmentInstance);
+
+        int changed = service.synchronize(1L, BOOKING_COM, List.of(
+                Event.from(start, start, "empty"),
+                Event.from(start.plusDays(1), start, "negative"),
+                Event.from(start, start.plusDays(1), "event"),
+                Event.from(start, start.plusDays(1), "event")
+        ));
+
+        assertEquals(1, changed);
+    }
+
+    private ExternalEvent stored(LocalDateTime from, LocalDateTime to, String summary) {
+        return ExternalEvent.builder()
+                .apartmentInstance(apartmentInstance)
+                .source(BOOKING_COM)
+                .from(from)
+                .to(to)
+                .summary(summary)
+                .build();
+    }
+}
@@ -21,24 +21,37 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringRunner;
+import ua.mibal.booking.application.component.StreamingICalParser;
+import ua.mibal.booking.application.component.StreamingICalWriter;
 import ua.mibal.booking.application.exception.ICalServiceException;
 import ua.mibal.booking.application.mapper.CalendarFormatMapper;
 import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.config.properties.CalendarProps.ICalProps.ParserMode;
 import ua.mibal.booking.domain.Event;
 import ua.mibal.booking.testUtils.DataGenerator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.Mockito.when;
+import static ua.mibal.booking.config.properties.CalendarProps.ICalProps.ParserMode.STREAMING;
 import static ua.mibal.booking.testUtils.ICalTestUtils.mustContainEvents;
 
 /**
@@ -46,7 +59,7 @@ import static ua.mibal.booking.testUtils.ICalTestUtils.mustContainEvents;
  * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {ICalService.class, CalendarFormatMapper.class})
+@SpringBootTest(classes = {ICalService.class, CalendarFormatMapper.class, StreamingICalParser.class, StreamingICalWriter.class})
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 class ICalService_UnitTest {
     private final static ZoneId zoneId = ZoneId.of("Europe/Kyiv");
@@ -80,7 +93,49 @@ class ICalService_UnitTest {
     }
 
     @Test
-    void getEventsFromCalendarFile() {
+    void writeCalendarFromEvents() throws IOException {
+        List<Event> events = DataGenerator.randomEvents();
+        ByteArrayOutputStream calendarStream = new ByteArrayOutputStream();
+
+        service.writeCalendarFromEvents(events.stream(), Instant.EPOCH, calendarStream);
+
+        mustContainEvents(calendarStream.toString(UTF_8), events, zoneId);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserMode.class)
+    void writeCalendarFromEvents_should_escape_and_fold_text(ParserMode parserMode) throws IOException {
+        when(iCalProps.parser()).thenReturn(parserMode);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 15, 0);
+        String summary = "Apartment \"Ž\", guest; back\\slash\nnote ".repeat(10) + "\uD83D\uDE00 end";
+        List<Event> events = List.of(Event.from(start, start.plusDays(2), summary));
+        ByteArrayOutputStream calendarStream = new ByteArrayOutputStream();
+
+        service.writeCalendarFromEvents(events.stream(), Instant.EPOCH, calendarStream);
+
+        byte[] calendar = calendarStream.toByteArray();
+        for (String line : new String(calendar, UTF_8).split("\r\n")) {
+            assertTrue(line.getBytes(UTF_8).length <= 75, line);
+        }
+        assertEquals(events, service.getEventsFromCalendarFile(new ByteArrayInputStream(calendar)));
+    }
+
+    @Test
+    void writeCalendarFromEvents_should_write_same_bytes_for_same_stamp() throws IOException {
+        List<Event> events = DataGenerator.randomEvents();
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        service.writeCalendarFromEvents(events.stream(), Instant.EPOCH, first);
+        service.writeCalendarFromEvents(events.stream(), Instant.EPOCH, second);
+
+        assertEquals(first.toString(UTF_8), second.toString(UTF_8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserMode.class)
+    void getEventsFromCalendarFile(ParserMode parserMode) {
+        when(iCalProps.parser()).thenReturn(parserMode);
         InputStream iCalFile = getClass().getResourceAsStream("/test.ics");
         List<Event> expected = DataGenerator.testEventsFromTestFile(zoneId);
 
@@ -90,7 +145,53 @@ class ICalService_UnitTest {
     }
 
     @Test
-    void getEventsFromCalendarFile_should_throw_ICalServiceException() {
+    void getEventsFromCalendarFile_should_fall_back_to_ical4j_for_unsupported_input() {
+        when(iCalProps.parser()).thenReturn(STREAMING);
+        InputStream iCalFile = new ByteArrayInputStream("""
+                BEGIN:VCALENDAR\r
+                VERSION:2.0\r
+                BEGIN:VEVENT\r
+                DTSTART:20240101T100000Z\r
+                DURATION:PT2H\r
+                SUMMARY:Meeting\r
+                END:VEVENT\r
+                END:VCALENDAR\r
+                """.getBytes(UTF_8));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        List<Event> actual = service.getEventsFromCalendarFile(iCalFile);
+
+        assertEquals(List.of(Event.from(start, start.plusHours(2), "Meeting")), actual);
+    }
+
+    @Test
+    void getEventsFromCalendarFile_should_not_fall_back_to_ical4j_after_buffered_prefix() {
+        when(iCalProps.parser()).thenReturn(STREAMING);
+        String supportedEvent = """
+                BEGIN:VEVENT\r
+                DTSTART:20240101T100000Z\r
+                DTEND:20240101T120000Z\r
+                SUMMARY:Meeting\r
+                END:VEVENT\r
+                """;
+        String unsupportedEvent = supportedEvent.replace("DTEND:20240101T120000Z", "DURATION:PT2H");
+        int supportedEvents = ICalService.FALLBACK_PREFIX_BYTES / supportedEvent.length() + 1;
+        InputStream iCalFile = new ByteArrayInputStream((
+                "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"
+                + supportedEvent.repeat(supportedEvents)
+                + unsupportedEvent
+                + "END:VCALENDAR\r\n"
+        ).getBytes(UTF_8));
+
+        assertThrows(ICalServiceException.class,
+                () -> service.getEventsFromCalendarFile(iCalFile));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserMode.class)
+    void getEventsFromCalendarFile_should_throw_ICalServiceException(ParserMode parserMode) {
+        when(iCalProps.parser()).thenReturn(parserMode);
+
         assertThrows(ICalServiceException.class,
                 () -> service.getEventsFromCalendarFile(null));
     }
@@ -22,7 +22,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.booking.application.port.photo.storage.PhotoStorage;
 import ua.mibal.booking.application.port.photo.storage.model.PhotoResource;
 import ua.mibal.booking.domain.Apartment;
@@ -47,6 +49,8 @@ class PhotoService_UnitTest {
 
     private PhotoService service;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private PhotoStorage storage;
     @Mock
@@ -67,7 +71,7 @@ class PhotoService_UnitTest {
 
     @BeforeEach
     void setup() {
-        service = new PhotoService(storage, userService, apartmentService);
+        service = new PhotoService(storage, userService, apartmentService, eventPublisher);
     }
 
     @AfterEach
@@ -166,6 +170,8 @@ class PhotoService_UnitTest {
                 .uploadPhoto(photoFile);
         verify(apartment, times(1))
                 .addPhoto(key);
+        verify(eventPublisher, times(1))
+                .publishEvent(new ApartmentChangedEvent(id));
     }
 
     @Test
@@ -185,5 +191,7 @@ class PhotoService_UnitTest {
                 .deletePhotoBy(key);
         verify(apartment, times(1))
                 .deletePhoto(key);
+        verify(eventPublisher, times(1))
+                .publishEvent(new ApartmentChangedEvent(id));
     }
 }
@@ -19,19 +19,33 @@ package ua.mibal.booking.application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import ua.mibal.booking.application.component.PriceCalculator;
+import ua.mibal.booking.application.component.PricingEngine;
 import ua.mibal.booking.application.dto.request.PriceDto;
+import ua.mibal.booking.application.dto.request.SeasonalPriceDto;
+import ua.mibal.booking.application.dto.request.StayQuoteRequestDto;
+import ua.mibal.booking.application.dto.response.StayQuoteDto;
 import ua.mibal.booking.application.mapper.PriceMapper;
 import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Price;
+import ua.mibal.booking.domain.SeasonalPrice;
 import ua.mibal.booking.application.exception.PriceNotFoundException;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
+import ua.mibal.booking.config.properties.CacheProps;
 import ua.mibal.test.annotation.UnitTest;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static ua.mibal.booking.testUtils.CustomAssertions.assertEqualsList;
 
@@ -44,6 +58,8 @@ class PriceService_UnitTest {
 
     private PriceService service;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private ApartmentService apartmentService;
     @Mock
@@ -55,10 +71,12 @@ class PriceService_UnitTest {
     private Price price;
     @Mock
     private PriceDto priceDto;
+    @Mock
+    private SeasonalPriceDto seasonalPriceDto;
 
     @BeforeEach
     void setup() {
-        service = new PriceService(apartmentService, priceMapper);
+        service = new PriceService(apartmentService, priceMapper, new PricingEngine(new CacheProps(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1))), new PriceCalculator(), eventPublisher);
     }
 
     @Test
@@ -81,6 +99,8 @@ class PriceService_UnitTest {
         when(apartment.deletePrice(person)).thenReturn(true);
 
         assertDoesNotThrow(() -> service.delete(id, person));
+
+        verify(eventPublisher).publishEvent(new ApartmentChangedEvent(id));
     }
 
     @Test
@@ -94,6 +114,8 @@ class PriceService_UnitTest {
                 PriceNotFoundException.class,
                 () -> service.delete(id, person)
         );
+
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -113,6 +135,7 @@ class PriceService_UnitTest {
                 price,
                 apartment.getPriceFor(people)
         );
+        verify(eventPublisher).publishEvent(new ApartmentChangedEvent(id));
     }
 
     @Test
@@ -136,4 +159,94 @@ class PriceService_UnitTest {
                 apartment.getPriceFor(people)
         );
     }
+
+    @Test
+    public void putSeasonal() {
+        Apartment apartment = new Apartment();
+        apartment.putPrice(new Price(2, BigDecimal.ONE));
+        SeasonalPrice seasonalPrice = new SeasonalPrice(2, LocalDate.of(2024, 7, 1), LocalDate.of(2024, 9, 1), BigDecimal.TEN);
+
+        Long id = 1L;
+        when(priceMapper.toEntity(seasonalPriceDto)).thenReturn(seasonalPrice);
+        when(apartmentService.getOneFetchPrices(id)).thenReturn(apartment);
+
+        service.putSeasonal(id, seasonalPriceDto);
+
+        assertEquals(List.of(seasonalPrice), apartment.getSeasonalPrices());
+        verify(eventPublisher).publishEvent(new ApartmentChangedEvent(id));
+    }
+
+    @Test
+    public void putSeasonal_should_throw_PriceNotFoundException_if_base_price_not_found() {
+        Apartment apartment = new Apartment();
+        SeasonalPrice seasonalPrice = new SeasonalPrice(2, LocalDate.of(2024, 7, 1), LocalDate.of(2024, 9, 1), BigDecimal.TEN);
+
+        Long id = 1L;
+        when(priceMapper.toEntity(seasonalPriceDto)).thenReturn(seasonalPrice);
+        when(apartmentService.getOneFetchPrices(id)).thenReturn(apartment);
+
+        assertThrows(
+                PriceNotFoundException.class,
+                () -> service.putSeasonal(id, seasonalPriceDto)
+        );
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void deleteSeasonal() {
+        Long id = 1L;
+        Integer person = 2;
+        LocalDate from = LocalDate.of(2024, 7, 1);
+        when(apartmentService.getOneFetchPrices(id)).thenReturn(apartment);
+        when(apartment.deleteSeasonalPrice(person, from)).thenReturn(true);
+
+        assertDoesNotThrow(() -> service.deleteSeasonal(id, person, from));
+
+        verify(eventPublisher).publishEvent(new ApartmentChangedEvent(id));
+    }
+
+    @Test
+    public void deleteSeasonal_should_throw_PriceNotFoundException() {
+        Long id = 1L;
+        Integer person = 2;
+        LocalDate from = LocalDate.of(2024, 7, 1);
+        when(apartmentService.getOneFetchPrices(id)).thenReturn(apartment);
+        when(apartment.deleteSeasonalPrice(person, from)).thenReturn(false);
+
+        assertThrows(
+                PriceNotFoundException.class,
+                () -> service.deleteSeasonal(id, person, from)
+        );
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void quote() {
+        Apartment apartment = new Apartment();
+        apartment.putPrice(new Price(1, new BigDecimal("50")));
+        apartment.putPrice(new Price(2, new BigDecimal("80")));
+        apartment.putSeasonalPrice(new SeasonalPrice(2, LocalDate.of(2024, 8, 1), LocalDate.of(2024, 9, 1), new BigDecimal("100")));
+
+        Long id = 1L;
+        when(apartmentService.getOneFetchPrices(id)).thenReturn(apartment);
+
+        LocalDate from = LocalDate.of(2024, 7, 30);
+        LocalDate to = LocalDate.of(2024, 8, 2);
+        List<StayQuoteDto> actual = service.quote(id, List.of(
+                new StayQuoteRequestDto(from, to, 1),
+                new StayQuoteRequestDto(from, to, 2),
+                new StayQuoteRequestDto(from, to, 3),
+                new StayQuoteRequestDto(from, LocalDate.of(2024, 10, 1), 2)
+        ));
+
+        assertEquals(List.of(
+                new StayQuoteDto(from, to, 1, new BigDecimal("150.00")),
+                new StayQuoteDto(from, to, 2, new BigDecimal("260.00")),
+                new StayQuoteDto(from, to, 3, null),
+                new StayQuoteDto(from, LocalDate.of(2024, 10, 1), 2, new BigDecimal("5660.00"))
+        ), actual);
+        verify(apartmentService, times(1)).getOneFetchPrices(id);
+    }
 }
@@ -16,10 +16,14 @@
 
 package ua.mibal.booking.application;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
+import ua.mibal.booking.application.component.AvailabilityIndex;
+import ua.mibal.booking.application.component.ReservationAdmission;
 import ua.mibal.booking.application.component.ReservationBuilder;
 import ua.mibal.booking.application.dto.response.ReservationDto;
 import ua.mibal.booking.application.mapper.ReservationMapper;
@@ -27,14 +31,23 @@ import ua.mibal.booking.application.port.jpa.ReservationRepository;
 import ua.mibal.booking.domain.Reservation;
 import ua.mibal.booking.domain.ReservationRequest;
 import ua.mibal.booking.domain.User;
+import ua.mibal.booking.application.exception.ApartmentIsNotAvailableForReservation;
 import ua.mibal.booking.application.exception.UserHasNoAccessToReservationException;
 import ua.mibal.test.annotation.UnitTest;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -58,6 +71,10 @@ class ReservationService_UnitTest {
     private UserService userService;
     @Mock
     private ReservationBuilder reservationBuilder;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private ReservationAdmission reservationAdmission;
 
     @Mock
     private Reservation reservation;
@@ -72,7 +89,7 @@ class ReservationService_UnitTest {
 
     @BeforeEach
     void setup() {
-        service = new ReservationService(reservationRepository, reservationMapper, userService, reservationBuilder);
+        service = new ReservationService(reservationRepository, reservationMapper, userService, reservationBuilder, availabilityIndex, reservationAdmission);
     }
 
     @Test
@@ -125,6 +142,8 @@ class ReservationService_UnitTest {
 
         verify(reservation, times(1))
                 .reject(user, reason);
+        verify(availabilityIndex, times(1))
+                .unregister(reservation);
     }
 
     @Test
@@ -147,6 +166,8 @@ class ReservationService_UnitTest {
 
         verify(reservation, times(1))
                 .reject(user, reason);
+        verify(availabilityIndex, times(1))
+                .unregister(reservation);
     }
 
     @Test
@@ -172,10 +193,72 @@ class ReservationService_UnitTest {
     void reserve() {
         when(reservationBuilder.buildBy(request))
                 .thenReturn(reservation);
+        admitSaving(reservation);
 
         service.reserve(request);
 
         verify(reservationRepository, times(1))
-                .save(reservation);
+                .saveAndFlush(reservation);
+        verify(availabilityIndex, times(1))
+                .register(reservation);
+    }
+
+    @Test
+    void reserve_should_not_save_not_admitted_reservation() {
+        when(reservationBuilder.buildBy(request))
+                .thenReturn(reservation);
+        doThrow(ApartmentIsNotAvailableForReservation.class)
+                .when(reservationAdmission).admit(eq(reservation), any());
+
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> service.reserve(request));
+
+        verify(reservationRepository, never())
+                .saveAndFlush(reservation);
+        verify(availabilityIndex, never())
+                .register(reservation);
+    }
+
+    @Test
+    void reserve_should_throw_ApartmentIsNotAvailableForReservation_if_overlaps_are_rejected_by_DB() {
+        when(reservationBuilder.buildBy(request))
+                .thenReturn(reservation);
+        admitSaving(reservation);
+        when(reservationRepository.saveAndFlush(reservation))
+                .thenThrow(new DataIntegrityViolationException("overlap", new ConstraintViolationException(
+                        "overlap", new SQLException("overlap", "23P01"), "reservations_apartment_instance_id_during_excl"
+                )));
+
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> service.reserve(request));
+
+        verify(availabilityIndex, never())
+                .register(reservation);
+    }
+
+    @Test
+    void reserve_should_rethrow_other_DB_integrity_violations() {
+        when(reservationBuilder.buildBy(request))
+                .thenReturn(reservation);
+        admitSaving(reservation);
+        DataIntegrityViolationException expected = new DataIntegrityViolationException("fk", new ConstraintViolationException(
+                "fk", new SQLException("fk", "23503"), "reservations_user_id_fk"
+        ));
+        when(reservationRepository.saveAndFlush(reservation))
+                .thenThrow(expected);
+
+        DataIntegrityViolationException actual = assertThrows(DataIntegrityViolationException.class,
+                () -> service.reserve(request));
+
+        assertSame(expected, actual);
+        verify(availabilityIndex, never())
+                .register(reservation);
+    }
+
+    private void admitSaving(Reservation reservation) {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Reservation>>getArgument(1).accept(reservation);
+            return null;
+        }).when(reservationAdmission).admit(eq(reservation), any());
     }
 }
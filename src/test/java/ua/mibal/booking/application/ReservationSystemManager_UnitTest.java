@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.mibal.booking.application.port.ReservationSystem;
+import ua.mibal.booking.config.properties.ReservationSystemProps;
+import ua.mibal.booking.config.properties.ReservationSystemProps.ExecutionMode;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Predicate;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ua.mibal.booking.config.properties.ReservationSystemProps.ExecutionMode.PARALLEL;
+import static ua.mibal.booking.config.properties.ReservationSystemProps.ExecutionMode.SEQUENTIAL;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class ReservationSystemManager_UnitTest {
+
+    private static final ReservationRequest REQUEST = new ReservationRequest(null, null, 1, 1L, null);
+
+    private ExecutorService executor;
+    private List<ApartmentInstance> apartments;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(8);
+        apartments = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            apartments.add(ApartmentInstance.of(id, "instance" + id, null, null, new ArrayList<>(), new ArrayList<>()));
+        }
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void filterForFree_in_parallel_should_take_as_long_as_slowest_check() {
+        ReservationSystem slow = system(200, apartment -> apartment.getId() != 2L);
+        ReservationSystem fast = system(100, apartment -> true);
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofSeconds(5), slow, fast);
+
+        long start = System.nanoTime();
+        manager.filterForFree(apartments, REQUEST);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(List.of(1L, 3L, 4L), ids(apartments));
+        // sequential execution would take 4 * (200 + 100) ms
+        assertTrue(elapsedMillis < 600, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void filterForFree_in_parallel_should_drop_apartments_not_checked_until_deadline() {
+        ReservationSystem hanging = system(0, apartment -> {
+            if (apartment.getId() == 3L) {
+                sleep(5_000);
+            }
+            return true;
+        });
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofMillis(200), hanging);
+
+        long start = System.nanoTime();
+        manager.filterForFree(apartments, REQUEST);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(List.of(1L, 2L, 4L), ids(apartments));
+        assertTrue(elapsedMillis < 1_000, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void filterForFree_in_parallel_should_interrupt_checks_not_finished_until_deadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ReservationSystem hanging = system(0, apartment -> {
+            if (apartment.getId() == 3L) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return true;
+        });
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofMillis(200), hanging);
+
+        manager.filterForFree(apartments, REQUEST);
+
+        assertTrue(interrupted.await(1, SECONDS));
+    }
+
+    @Test
+    void filterForFree_in_parallel_should_drop_apartments_rejected_by_full_executor() {
+        executor.shutdownNow();
+        executor = new ThreadPoolExecutor(1, 1, 0, MILLISECONDS, new ArrayBlockingQueue<>(2));
+        ReservationSystem system = system(100, apartment -> true);
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofSeconds(5), system);
+
+        manager.filterForFree(apartments, REQUEST);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(apartments));
+    }
+
+    @Test
+    void filterForFree_in_parallel_should_rethrow_check_exception() {
+        IllegalStateException expected = new IllegalStateException("feed is broken");
+        ReservationSystem broken = system(0, apartment -> {
+            throw expected;
+        });
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofSeconds(5), broken);
+
+        IllegalStateException actual = assertThrows(IllegalStateException.class,
+                () -> manager.filterForFree(apartments, REQUEST));
+
+        assertSame(expected, actual);
+    }
+
+    @Test
+    void filterForFree_should_filter_by_local_system_once_on_calling_thread() {
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        ReservationSystem local = new ReservationSystem() {
+            @Override
+            public List<Event> getEventsFor(ApartmentInstance apartmentInstance) {
+                return List.of();
+            }
+
+            @Override
+            public boolean isFreeForReservation(ApartmentInstance apartmentInstance,
+                                                ReservationRequest reservationRequest) {
+                throw new AssertionError("local system must be asked in batch");
+            }
+
+            @Override
+            public boolean isLocal() {
+                return true;
+            }
+
+            @Override
+            public void filterForFree(List<ApartmentInstance> apartmentInstances,
+                                      ReservationRequest reservationRequest) {
+                threads.add(Thread.currentThread());
+                apartmentInstances.removeIf(apartment -> apartment.getId() == 1L);
+            }
+        };
+        ReservationSystem remote = system(0, apartment -> apartment.getId() != 4L);
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofSeconds(5), local, remote);
+
+        manager.filterForFree(apartments, REQUEST);
+
+        assertEquals(List.of(2L, 3L), ids(apartments));
+        assertEquals(List.of(caller), threads);
+    }
+
+    @Test
+    void getEventsFor_should_merge_events_of_systems_intersecting_window() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        Event inWindow = Event.from(from.plusDays(1), from.plusDays(2), "in window");
+        Event outOfWindow = Event.from(to, to.plusDays(2), "out of window");
+        Event local = Event.from(from, from.plusDays(1), "local");
+        ReservationSystem remote = new ReservationSystem() {
+            @Override
+            public List<Event> getEventsFor(ApartmentInstance apartmentInstance) {
+                return apartmentInstance.getId() == 1L
+                        ? List.of(inWindow, outOfWindow)
+                        : List.of(outOfWindow);
+            }
+
+            @Override
+            public boolean isFreeForReservation(ApartmentInstance apartmentInstance,
+                                                ReservationRequest reservationRequest) {
+                return true;
+            }
+        };
+        ReservationSystem batched = new ReservationSystem() {
+            @Override
+            public List<Event> getEventsFor(ApartmentInstance apartmentInstance) {
+                throw new AssertionError("events must be loaded in batch");
+            }
+
+            @Override
+            public Map<Long, List<Event>> getEventsFor(List<ApartmentInstance> apartmentInstances,
+                                                       LocalDateTime from, LocalDateTime to) {
+                return Map.of(1L, List.of(local));
+            }
+
+            @Override
+            public boolean isFreeForReservation(ApartmentInstance apartmentInstance,
+                                                ReservationRequest reservationRequest) {
+                return true;
+            }
+        };
+        ReservationSystemManager manager = manager(PARALLEL, Duration.ofSeconds(5), remote, batched);
+
+        Map<Long, List<Event>> actual = manager.getEventsFor(apartments, from, to);
+
+        assertEquals(Map.of(1L, List.of(inWindow, local)), actual);
+    }
+
+    @Test
+    void filterForFree_sequentially() {
+        ReservationSystem system = system(0, apartment -> apartment.getId() % 2 == 0);
+        ReservationSystemManager manager = manager(SEQUENTIAL, Duration.ofMillis(1), system);
+
+        manager.filterForFree(apartments, REQUEST);
+
+        assertEquals(List.of(2L, 4L), ids(apartments));
+    }
+
+    private ReservationSystemManager manager(ExecutionMode mode, Duration deadline, ReservationSystem... systems) {
+        return new ReservationSystemManager(
+                List.of(systems), new ReservationSystemProps(mode, 8, 64, deadline), executor
+        );
+    }
+
+    private static ReservationSystem system(long delayMillis, Predicate<ApartmentInstance> isFree) {
+        return new ReservationSystem() {
+            @Override
+            public List<Event> getEventsFor(ApartmentInstance apartmentInstance) {
+                return List.of();
+            }
+
+            @Override
+            public boolean isFreeForReservation(ApartmentInstance apartmentInstance,
+                                                ReservationRequest reservationRequest) {
+                sleep(delayMillis);
+                return isFree.test(apartmentInstance);
+            }
+        };
+    }
+
+    private static List<Long> ids(List<ApartmentInstance> apartments) {
+        return apartments.stream()
+                .map(ApartmentInstance::getId)
+                .toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
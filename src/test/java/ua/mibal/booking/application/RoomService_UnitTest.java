@@ -19,6 +19,7 @@ package ua.mibal.booking.application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import ua.mibal.booking.application.dto.request.RoomDto;
 import ua.mibal.booking.application.mapper.RoomMapper;
 import ua.mibal.booking.application.port.jpa.ApartmentRepository;
@@ -27,8 +28,11 @@ import ua.mibal.booking.domain.Apartment;
 import ua.mibal.booking.domain.Room;
 import ua.mibal.booking.application.exception.ApartmentNotFoundException;
 import ua.mibal.booking.application.exception.RoomNotFoundException;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
 import ua.mibal.test.annotation.UnitTest;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -45,6 +49,8 @@ class RoomService_UnitTest {
 
     private RoomService service;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private RoomRepository roomRepository;
     @Mock
@@ -61,23 +67,28 @@ class RoomService_UnitTest {
 
     @BeforeEach
     void setup() {
-        service = new RoomService(roomRepository, apartmentRepository, roomMapper);
+        service = new RoomService(roomRepository, apartmentRepository, roomMapper, eventPublisher);
     }
 
     @Test
     public void delete() {
         Long id = 1L;
-        when(roomRepository.existsById(id)).thenReturn(true);
+        when(roomRepository.findById(id)).thenReturn(Optional.of(room));
+        when(room.getApartment()).thenReturn(apartment);
+        when(apartment.getId()).thenReturn(2L);
+        when(room.getCapacity()).thenReturn(3);
 
         service.delete(id);
 
         verify(roomRepository, times(1)).deleteById(id);
+        verify(apartmentRepository, times(1)).addCapacity(2L, -3);
+        verify(eventPublisher, times(1)).publishEvent(new ApartmentChangedEvent(2L));
     }
 
     @Test
     public void delete_should_throw_RoomNotFoundException() {
         Long id = 1L;
-        when(roomRepository.existsById(id)).thenReturn(false);
+        when(roomRepository.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(
                 RoomNotFoundException.class,
@@ -85,6 +96,7 @@ class RoomService_UnitTest {
         );
 
         verify(roomRepository, never()).deleteById(id);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -93,11 +105,14 @@ class RoomService_UnitTest {
         when(apartmentRepository.existsById(1L)).thenReturn(true);
         when(roomMapper.toEntity(roomDto)).thenReturn(room);
         when(apartmentRepository.getReferenceById(1L)).thenReturn(apartment);
+        when(room.getCapacity()).thenReturn(3);
 
         service.create(apartment.getId(), roomDto);
 
         verify(room, times(1)).setApartment(apartment);
         verify(roomRepository, times(1)).save(room);
+        verify(apartmentRepository, times(1)).addCapacity(1L, 3);
+        verify(eventPublisher, times(1)).publishEvent(new ApartmentChangedEvent(1L));
     }
 
     @Test
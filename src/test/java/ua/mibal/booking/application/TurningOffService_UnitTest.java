@@ -18,10 +18,14 @@ package ua.mibal.booking.application;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import ua.mibal.booking.application.component.AvailabilityIndex;
+import ua.mibal.booking.application.component.HotelTurningOffSnapshot;
 import ua.mibal.booking.application.dto.request.TurnOffDto;
 import ua.mibal.booking.application.mapper.TurningOffTimeMapper;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
 import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
 import ua.mibal.booking.application.port.jpa.ReservationRepository;
 import ua.mibal.booking.domain.ApartmentInstance;
@@ -35,6 +39,8 @@ import java.util.List;
 import static java.time.LocalDateTime.now;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,7 +61,13 @@ class TurningOffService_UnitTest {
     @Mock
     private ApartmentInstanceService apartmentInstanceService;
     @Mock
+    private ApartmentInstanceRepository apartmentInstanceRepository;
+    @Mock
     private HotelTurningOffRepository hotelTurningOffRepository;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private HotelTurningOffSnapshot hotelTurningOffSnapshot;
 
     @Mock
     private ApartmentInstance apartmentInstance;
@@ -70,37 +82,49 @@ class TurningOffService_UnitTest {
 
     @BeforeEach
     void setup() {
-        service = new TurningOffService(turningOffTimeMapper, reservationRepository, apartmentInstanceService, hotelTurningOffRepository);
+        service = new TurningOffService(turningOffTimeMapper, reservationRepository, apartmentInstanceService, apartmentInstanceRepository, hotelTurningOffRepository, availabilityIndex, hotelTurningOffSnapshot);
     }
 
     @Test
     void turnOffApartmentInstance() {
         Long instanceId = 1L;
 
-        when(apartmentInstanceService.getOneFetchReservations(instanceId))
-                .thenReturn(apartmentInstance);
-        when(apartmentInstance.hasReservationsAt(turnOffDto.from(), turnOffDto.to()))
+        when(reservationRepository.existsNotRejectedByApartmentInstanceIdIntersectingRange(
+                instanceId, turnOffDto.from(), turnOffDto.to()))
                 .thenReturn(false);
+        when(apartmentInstanceService.getOne(instanceId))
+                .thenReturn(apartmentInstance);
         when(turningOffTimeMapper.apartmentfromDto(turnOffDto))
                 .thenReturn(turningOffTime);
 
         service.turnOffApartmentInstance(instanceId, turnOffDto);
 
+        InOrder inOrder = inOrder(apartmentInstanceRepository, reservationRepository);
+        inOrder.verify(apartmentInstanceRepository, times(1))
+                .lockForReservation(instanceId);
+        inOrder.verify(reservationRepository, times(1))
+                .existsNotRejectedByApartmentInstanceIdIntersectingRange(
+                        instanceId, turnOffDto.from(), turnOffDto.to());
+        verify(apartmentInstanceService, never())
+                .getOneFetchReservations(instanceId);
         verify(apartmentInstance, times(1))
                 .addTurningOffTime(turningOffTime);
+        verify(availabilityIndex, times(1))
+                .register(instanceId, turningOffTime);
     }
 
     @Test
     void turnOffApartmentInstance_should_throw_IllegalTurningOffTimeException() {
         Long instanceId = 1L;
 
-        when(apartmentInstanceService.getOneFetchReservations(instanceId))
-                .thenReturn(apartmentInstance);
-        when(apartmentInstance.hasReservationsAt(turnOffDto.from(), turnOffDto.to()))
+        when(reservationRepository.existsNotRejectedByApartmentInstanceIdIntersectingRange(
+                instanceId, turnOffDto.from(), turnOffDto.to()))
                 .thenReturn(true);
 
         assertThrows(IllegalTurningOffTimeException.class,
                 () -> service.turnOffApartmentInstance(instanceId, turnOffDto));
+        verify(availabilityIndex, never())
+                .register(instanceId, turningOffTime);
     }
 
     @Test
@@ -113,8 +137,17 @@ class TurningOffService_UnitTest {
 
         service.turnOffHotel(turnOffDto);
 
+        InOrder inOrder = inOrder(hotelTurningOffRepository, reservationRepository);
+        inOrder.verify(hotelTurningOffRepository, times(1))
+                .lockForTurningOff();
+        inOrder.verify(reservationRepository, times(1))
+                .existsReservationThatIntersectsRange(turnOffDto.from(), turnOffDto.to());
         verify(hotelTurningOffRepository, times(1))
                 .save(hotelTurningOffTime);
+        verify(availabilityIndex, times(1))
+                .register(hotelTurningOffTime);
+        verify(hotelTurningOffSnapshot, times(1))
+                .add(hotelTurningOffTime);
     }
 
     @Test
@@ -129,7 +162,7 @@ class TurningOffService_UnitTest {
 
     @Test
     void getForHotelForNow() {
-        when(hotelTurningOffRepository.findFromNow())
+        when(hotelTurningOffSnapshot.getFromNow())
                 .thenReturn(List.of(hotelTurningOffTime, hotelTurningOffTime));
 
         var actual = service.getForHotelForNow();
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+import ua.mibal.booking.application.dto.response.ApartmentCardDto;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
+import ua.mibal.booking.application.mapper.ApartmentMapper;
+import ua.mibal.booking.application.port.jpa.ApartmentRepository;
+import ua.mibal.booking.application.util.AmenityMask;
+import ua.mibal.booking.config.properties.CacheProps;
+import ua.mibal.booking.domain.Amenity;
+import ua.mibal.booking.domain.Apartment;
+import ua.mibal.booking.domain.ApartmentOptions;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class ApartmentCardCatalog_UnitTest {
+
+    private ApartmentCardCatalog catalog;
+
+    @Mock
+    private ApartmentRepository apartmentRepository;
+    @Mock
+    private ApartmentMapper apartmentMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Apartment apartment;
+    @Mock
+    private Apartment anotherApartment;
+
+    private final ApartmentCardDto apartmentCardDto = cardWith(new ApartmentOptions(false, true, false, true, false));
+    private final ApartmentCardDto changedApartmentCardDto = cardWith(ApartmentOptions.DEFAULT);
+
+    @BeforeEach
+    void setup() {
+        catalog = new ApartmentCardCatalog(apartmentRepository, apartmentMapper, transactionManager,
+                new CacheProps(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void getAll_should_load_cards_once() {
+        when(apartmentRepository.findAllFetchPhotos())
+                .thenReturn(List.of(apartment));
+        when(apartmentMapper.toCardDto(apartment))
+                .thenReturn(apartmentCardDto);
+
+        assertEquals(List.of(apartmentCardDto), catalog.getAll());
+        assertEquals(List.of(apartmentCardDto), catalog.getAll());
+
+        verify(apartmentRepository, times(1)).findAllFetchPhotos();
+    }
+
+    @Test
+    void getAllWithAmenities() {
+        ApartmentCardDto anotherApartmentCardDto = cardWith(new ApartmentOptions(true, true, true, false, true));
+        when(apartmentRepository.findAllFetchPhotos())
+                .thenReturn(List.of(apartment, anotherApartment));
+        when(apartmentMapper.toCardDto(apartment))
+                .thenReturn(apartmentCardDto);
+        when(apartmentMapper.toCardDto(anotherApartment))
+                .thenReturn(anotherApartmentCardDto);
+
+        assertEquals(List.of(apartmentCardDto, anotherApartmentCardDto),
+                catalog.getAllWithAmenities(AmenityMask.NONE));
+        assertEquals(List.of(apartmentCardDto, anotherApartmentCardDto),
+                catalog.getAllWithAmenities(Amenity.KITCHEN.bit()));
+        assertEquals(List.of(apartmentCardDto),
+                catalog.getAllWithAmenities(Amenity.KITCHEN.bit() | Amenity.WIFI.bit()));
+        assertEquals(List.of(anotherApartmentCardDto),
+                catalog.getAllWithAmenities(Amenity.MEALS_INCLUDED.bit()));
+        assertEquals(List.of(),
+                catalog.getAllWithAmenities(Amenity.MEALS_INCLUDED.bit() | Amenity.WIFI.bit()));
+        verify(apartmentRepository, times(1)).findAllFetchPhotos();
+    }
+
+    @Test
+    void invalidate() {
+        when(apartmentRepository.findAllFetchPhotos())
+                .thenReturn(List.of(apartment));
+        when(apartmentMapper.toCardDto(apartment))
+                .thenReturn(apartmentCardDto, changedApartmentCardDto);
+        catalog.getAll();
+
+        catalog.invalidate(new ApartmentChangedEvent(1L));
+
+        assertEquals(List.of(changedApartmentCardDto), catalog.getAll());
+        assertEquals(List.of(changedApartmentCardDto), catalog.getAll());
+        verify(apartmentRepository, times(2)).findAllFetchPhotos();
+    }
+
+    @Test
+    void getAll_should_not_cache_cards_loaded_concurrently_with_invalidation() {
+        when(apartmentRepository.findAllFetchPhotos())
+                .thenReturn(List.of(apartment));
+        doAnswer(invocation -> {
+            catalog.invalidate(new ApartmentChangedEvent(1L));
+            return apartmentCardDto;
+        }).doReturn(changedApartmentCardDto)
+                .when(apartmentMapper).toCardDto(apartment);
+
+        assertEquals(List.of(apartmentCardDto), catalog.getAll());
+        assertEquals(List.of(changedApartmentCardDto), catalog.getAll());
+        assertEquals(List.of(changedApartmentCardDto), catalog.getAll());
+        verify(apartmentRepository, times(2)).findAllFetchPhotos();
+    }
+
+    @Test
+    void getAll_should_reload_cards_after_ttl() {
+        catalog = new ApartmentCardCatalog(apartmentRepository, apartmentMapper, transactionManager,
+                new CacheProps(Duration.ZERO, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        when(apartmentRepository.findAllFetchPhotos())
+                .thenReturn(List.of(apartment));
+        when(apartmentMapper.toCardDto(apartment))
+                .thenReturn(apartmentCardDto, changedApartmentCardDto);
+
+        assertEquals(List.of(apartmentCardDto), catalog.getAll());
+        assertEquals(List.of(changedApartmentCardDto), catalog.getAll());
+        verify(apartmentRepository, times(2)).findAllFetchPhotos();
+    }
+
+    @Test
+    @Timeout(5)
+    void getAll_should_load_cards_once_for_concurrent_misses() throws InterruptedException {
+        AtomicReference<Thread> concurrentReader = new AtomicReference<>();
+        when(apartmentRepository.findAllFetchPhotos()).thenAnswer(invocation -> {
+            Thread reader = new Thread(catalog::getAll);
+            concurrentReader.set(reader);
+            reader.start();
+            while (reader.getState() != Thread.State.BLOCKED) {
+                Thread.onSpinWait();
+            }
+            return List.of(apartment);
+        });
+        when(apartmentMapper.toCardDto(apartment))
+                .thenReturn(apartmentCardDto);
+
+        assertEquals(List.of(apartmentCardDto), catalog.getAll());
+        concurrentReader.get().join();
+
+        verify(apartmentRepository, times(1)).findAllFetchPhotos();
+    }
+
+    private static ApartmentCardDto cardWith(ApartmentOptions options) {
+        return new ApartmentCardDto("name", List.of(), options, null, 2, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.config.properties.CalendarProps.ReservationDateTimeProps;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.HotelTurningOffTime;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.ReservationDetails;
+import ua.mibal.booking.domain.TurningOffTime;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class AvailabilityIndex_UnitTest {
+
+    private AvailabilityIndex index;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ApartmentInstanceRepository apartmentInstanceRepository;
+    @Mock
+    private HotelTurningOffRepository hotelTurningOffRepository;
+
+    private final LocalDateTime start = now().plusDays(10).withNano(0);
+    private final ApartmentInstance instance =
+            ApartmentInstance.of(1L, "instance", null, null, new ArrayList<>(), new ArrayList<>());
+
+    @BeforeEach
+    void setup() {
+        index = new AvailabilityIndex(
+                reservationRepository, apartmentInstanceRepository, hotelTurningOffRepository,
+                new ReservationDateTimeProps(15, 11)
+        );
+    }
+
+    @Test
+    void rebuild() {
+        Reservation reservation = reservationOf(1L, start, start.plusDays(2));
+        instance.addTurningOffTime(new TurningOffTime(start.plusDays(5), start.plusDays(6), null));
+        HotelTurningOffTime hotelTurningOffTime =
+                new HotelTurningOffTime(1L, start.plusDays(10), start.plusDays(11), "Holidays");
+
+        when(reservationRepository.findNotRejectedFromNow())
+                .thenReturn(List.of(reservation));
+        when(apartmentInstanceRepository.findAllFetchTurningOffTimes())
+                .thenReturn(List.of(instance));
+        when(hotelTurningOffRepository.findFromNow())
+                .thenReturn(List.of(hotelTurningOffTime));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertFalse(index.isFree(1L, start.plusDays(1), start.plusDays(3)));
+        assertFalse(index.isFree(1L, start.plusDays(4), start.plusDays(7)));
+        assertFalse(index.isFree(2L, start.plusDays(9), start.plusDays(12)));
+        assertTrue(index.isFree(1L, start.plusDays(2), start.plusDays(5)));
+        assertTrue(index.isFree(2L, start, start.plusDays(6)));
+    }
+
+    @Test
+    void register_and_unregister_Reservation() {
+        Reservation reservation = reservationOf(1L, start, start.plusDays(2));
+
+        index.register(reservation);
+
+        assertFalse(index.isFree(1L, start, start.plusDays(1)));
+
+        index.unregister(reservation);
+
+        assertTrue(index.isFree(1L, start, start.plusDays(1)));
+    }
+
+    @Test
+    void register_and_unregister_TurningOffTime() {
+        index.rebuild();
+        TurningOffTime turningOffTime = new TurningOffTime(start, start.plusDays(2), null);
+        Reservation reservation = reservationOf(1L, start.plusDays(1), start.plusDays(3));
+        index.register(1L, turningOffTime);
+        index.register(reservation);
+
+        index.unregister(1L, turningOffTime);
+
+        assertTrue(index.isFree(1L, start, start.plusDays(1)));
+        assertFalse(index.isFree(1L, start.plusDays(1), start.plusDays(2)));
+    }
+
+    @Test
+    void unregister_ApartmentInstance_should_drop_its_busy_ranges() {
+        index.rebuild();
+        index.register(1L, new TurningOffTime(start, start.plusDays(2), null));
+        index.register(reservationOf(1L, start.plusDays(3), start.plusDays(4)));
+
+        index.unregister(1L);
+
+        assertTrue(index.isFree(1L, start, start.plusDays(5)));
+    }
+
+    @Test
+    void register_HotelTurningOffTime() {
+        index.register(new HotelTurningOffTime(1L, start, start.plusDays(1), "Holidays"));
+
+        assertFalse(index.isFree(1L, start, start.plusDays(1)));
+        assertFalse(index.isFree(2L, start, start.plusDays(1)));
+    }
+
+    @Test
+    void isFree_should_confirm_occupied_night_by_precise_ranges() {
+        LocalDate date = LocalDate.now().plusDays(20);
+        instance.addTurningOffTime(new TurningOffTime(
+                LocalDateTime.of(date, LocalTime.of(12, 0)), LocalDateTime.of(date, LocalTime.of(13, 0)), null
+        ));
+        when(apartmentInstanceRepository.findAllFetchTurningOffTimes())
+                .thenReturn(List.of(instance));
+        index.rebuild();
+
+        assertTrue(index.isFree(1L,
+                LocalDateTime.of(date.minusDays(2), LocalTime.of(15, 0)),
+                LocalDateTime.of(date, LocalTime.of(11, 0))));
+        assertTrue(index.isFree(1L,
+                LocalDateTime.of(date, LocalTime.of(15, 0)),
+                LocalDateTime.of(date.plusDays(2), LocalTime.of(11, 0))));
+        assertFalse(index.isFree(1L,
+                LocalDateTime.of(date.minusDays(1), LocalTime.of(15, 0)),
+                LocalDateTime.of(date.plusDays(1), LocalTime.of(11, 0))));
+    }
+
+    @Test
+    void unregister_should_release_occupied_nights() {
+        index.rebuild();
+        LocalDate date = LocalDate.now().plusDays(20);
+        Reservation first = reservationOf(1L,
+                LocalDateTime.of(date, LocalTime.of(15, 0)), LocalDateTime.of(date.plusDays(3), LocalTime.of(11, 0)));
+        Reservation second = reservationOf(2L,
+                LocalDateTime.of(date.plusDays(3), LocalTime.of(15, 0)), LocalDateTime.of(date.plusDays(5), LocalTime.of(11, 0)));
+        index.register(first);
+        index.register(second);
+
+        index.unregister(first);
+
+        assertTrue(index.isFree(1L,
+                LocalDateTime.of(date, LocalTime.of(15, 0)), LocalDateTime.of(date.plusDays(3), LocalTime.of(11, 0))));
+        assertFalse(index.isFree(1L,
+                LocalDateTime.of(date.plusDays(2), LocalTime.of(15, 0)), LocalDateTime.of(date.plusDays(4), LocalTime.of(11, 0))));
+    }
+
+    @Test
+    void isFree_should_check_ranges_outside_horizon() {
+        index.rebuild();
+        LocalDateTime farFuture = start.plusYears(5);
+        index.register(reservationOf(1L, farFuture, farFuture.plusDays(2)));
+
+        assertFalse(index.isFree(1L, farFuture.plusDays(1), farFuture.plusDays(3)));
+        assertTrue(index.isFree(1L, farFuture.plusDays(2), farFuture.plusDays(3)));
+    }
+
+    @Test
+    void isReady_should_be_false_before_rebuild() {
+        assertFalse(index.isReady());
+    }
+
+    private Reservation reservationOf(Long id, LocalDateTime from, LocalDateTime to) {
+        Reservation reservation =
+                Reservation.of(null, instance, ReservationDetails.of(from, to, null, null));
+        reservation.setId(id);
+        return reservation;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.config.properties.CalendarProps.ReservationDateTimeProps;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.ReservationDetails;
+import ua.mibal.booking.domain.ReservationRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static java.util.Comparator.comparingLong;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures selection of the most suitable of {@code instances} free
+ * apartment instances by {@link BestFitInstanceScorer}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BestFitInstanceScorer_Benchmark {
+    private static final LocalTime CHECK_IN = LocalTime.of(15, 0);
+    private static final LocalTime CHECK_OUT = LocalTime.of(11, 0);
+    private static final int HORIZON = 366;
+    private static final int QUERIES = 1024;
+
+    @Param({"5", "20"})
+    private int instances;
+
+    @Param({"50", "500"})
+    private int reservationsPerInstance;
+
+    private BestFitInstanceScorer scorer;
+    private List<ApartmentInstance> candidates;
+    private ReservationRequest[] requests;
+    private int query;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BestFitInstanceScorer_Benchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.now();
+        AvailabilityIndex index = new AvailabilityIndex(
+                mock(ReservationRepository.class),
+                mock(ApartmentInstanceRepository.class),
+                mock(HotelTurningOffRepository.class),
+                new ReservationDateTimeProps(CHECK_IN.getHour(), CHECK_OUT.getHour())
+        );
+        index.rebuild();
+        scorer = new BestFitInstanceScorer(index);
+
+        candidates = LongStream.rangeClosed(1, instances)
+                .mapToObj(id -> ApartmentInstance.of(id, "instance", null, null, new ArrayList<>(), new ArrayList<>()))
+                .toList();
+        long reservationId = 1;
+        for (ApartmentInstance instance : candidates) {
+            for (int i = 0; i < reservationsPerInstance; i++) {
+                LocalDateTime from = LocalDateTime.of(origin.plusDays(random.nextInt(HORIZON)), CHECK_IN);
+                Reservation reservation = Reservation.of(null, instance, ReservationDetails.of(
+                        from, from.plusDays(1 + random.nextInt(7)).with(CHECK_OUT), null, null
+                ));
+                reservation.setId(reservationId++);
+                index.register(reservation);
+            }
+        }
+
+        requests = new ReservationRequest[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            LocalDate date = origin.plusDays(random.nextInt(HORIZON));
+            requests[i] = new ReservationRequest(
+                    LocalDateTime.of(date, CHECK_IN),
+                    LocalDateTime.of(date.plusDays(1 + random.nextInt(7)), CHECK_OUT),
+                    1, null, null
+            );
+        }
+    }
+
+    @Benchmark
+    public ApartmentInstance selectMostSuitable() {
+        query = (query + 1) & (QUERIES - 1);
+        ReservationRequest request = requests[query];
+        return candidates.stream()
+                .max(comparingLong(instance -> scorer.score(instance, request)))
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.config.properties.CalendarProps.ReservationDateTimeProps;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.ReservationDetails;
+import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ua.mibal.booking.application.component.BestFitInstanceScorer.MAX_GAP_NIGHTS;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@Slf4j
+@UnitTest
+class BestFitInstanceScorer_UnitTest {
+    private static final LocalTime CHECK_IN = LocalTime.of(15, 0);
+    private static final LocalTime CHECK_OUT = LocalTime.of(11, 0);
+
+    private BestFitInstanceScorer scorer;
+    private AvailabilityIndex index;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ApartmentInstanceRepository apartmentInstanceRepository;
+    @Mock
+    private HotelTurningOffRepository hotelTurningOffRepository;
+
+    private final LocalDate origin = LocalDate.now().plusDays(10);
+    private long reservationId = 1;
+
+    @BeforeEach
+    void setup() {
+        index = new AvailabilityIndex(
+                reservationRepository, apartmentInstanceRepository, hotelTurningOffRepository,
+                new ReservationDateTimeProps(CHECK_IN.getHour(), CHECK_OUT.getHour())
+        );
+        index.rebuild();
+        scorer = new BestFitInstanceScorer(index);
+    }
+
+    @Test
+    void score_should_prefer_stay_filling_the_gap_exactly() {
+        ApartmentInstance exactGap = instance(1L);
+        ApartmentInstance wideGap = instance(2L);
+        reserve(exactGap, 0, 2);
+        reserve(exactGap, 5, 7);
+        reserve(wideGap, 0, 2);
+        reserve(wideGap, 9, 11);
+
+        ReservationRequest request = request(2, 5);
+
+        assertEquals(0, scorer.score(exactGap, request));
+        assertEquals(-4, scorer.score(wideGap, request));
+    }
+
+    @Test
+    void score_should_cap_unbounded_gaps() {
+        ApartmentInstance empty = instance(1L);
+
+        assertEquals(-2 * MAX_GAP_NIGHTS, scorer.score(empty, request(2, 5)));
+    }
+
+    /**
+     * Replays the same synthetic booking streams with first-fit (previous behaviour)
+     * and best-fit instance selection and compares occupied nights.
+     */
+    @Test
+    void best_fit_should_increase_occupancy_of_synthetic_booking_stream() {
+        long firstFitNights = 0;
+        long bestFitNights = 0;
+        for (int seed = 0; seed < 20; seed++) {
+            setup();
+            firstFitNights += simulate((instance, request) -> 0, seed);
+            setup();
+            bestFitNights += simulate(scorer, seed);
+        }
+
+        log.info("Synthetic booking stream occupied nights: first-fit={}, best-fit={}",
+                firstFitNights, bestFitNights);
+        assertThat(bestFitNights).isGreaterThan(firstFitNights);
+    }
+
+    private long simulate(InstanceScorer instanceScorer, long seed) {
+        Random random = new Random(seed);
+        int horizon = 120;
+        List<ApartmentInstance> instances = LongStream.rangeClosed(1, 5)
+                .mapToObj(this::instance)
+                .toList();
+        long occupiedNights = 0;
+        for (int i = 0; i < 350; i++) {
+            int nights = 1 + random.nextInt(random.nextBoolean() ? 3 : 10);
+            int from = random.nextInt(horizon - nights);
+            ReservationRequest request = request(from, from + nights);
+            List<ApartmentInstance> free = instances.stream()
+                    .filter(instance -> index.isFree(instance.getId(), request.from(), request.to()))
+                    .toList();
+            if (free.isEmpty()) {
+                continue;
+            }
+            ApartmentInstance selected = free.stream()
+                    .max(Comparator.comparingLong(instance -> instanceScorer.score(instance, request)))
+                    .orElseThrow();
+            reserve(selected, from, from + nights);
+            occupiedNights += nights;
+        }
+        return occupiedNights;
+    }
+
+    private ApartmentInstance instance(Long id) {
+        return ApartmentInstance.of(id, "instance", null, null, new ArrayList<>(), new ArrayList<>());
+    }
+
+    private void reserve(ApartmentInstance instance, int fromNight, int toNight) {
+        ReservationRequest request = request(fromNight, toNight);
+        Reservation reservation = Reservation.of(
+                null, instance, ReservationDetails.of(request.from(), request.to(), null, null)
+        );
+        reservation.setId(reservationId++);
+        index.register(reservation);
+    }
+
+    private ReservationRequest request(int fromNight, int toNight) {
+        return new ReservationRequest(
+                LocalDateTime.of(origin.plusDays(fromNight), CHECK_IN),
+                LocalDateTime.of(origin.plusDays(toNight), CHECK_OUT),
+                1, null, null
+        );
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.config.properties.CacheProps;
+import ua.mibal.booking.domain.HotelTurningOffTime;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.time.LocalDateTime.now;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class HotelTurningOffSnapshot_UnitTest {
+
+    private HotelTurningOffSnapshot snapshot;
+
+    @Mock
+    private HotelTurningOffRepository hotelTurningOffRepository;
+
+    private final LocalDateTime start = now().plusDays(10).withNano(0);
+    private final HotelTurningOffTime christmas =
+            new HotelTurningOffTime(1L, start, start.plusDays(2), "Christmas");
+    private final HotelTurningOffTime repairs =
+            new HotelTurningOffTime(2L, start.plusDays(5), start.plusDays(6), "Repairs");
+
+    @BeforeEach
+    void setup() {
+        snapshot = new HotelTurningOffSnapshot(hotelTurningOffRepository, cacheProps(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void getFromNow_should_load_snapshot_once() {
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(repairs, christmas));
+
+        assertEquals(List.of(christmas, repairs), snapshot.getFromNow());
+        assertEquals(List.of(christmas, repairs), snapshot.getFromNow());
+
+        verify(hotelTurningOffRepository, times(1))
+                .findEndingAfter(any());
+    }
+
+    @Test
+    void getIntersecting() {
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(christmas, repairs));
+
+        assertEquals(List.of(christmas), snapshot.getIntersecting(start.plusDays(1), start.plusDays(3)));
+        assertEquals(List.of(christmas, repairs), snapshot.getIntersecting(start, start.plusDays(10)));
+        assertEquals(List.of(), snapshot.getIntersecting(start.plusDays(2), start.plusDays(5)));
+        assertTrue(snapshot.intersects(start.plusDays(5), start.plusDays(7)));
+        assertFalse(snapshot.intersects(start.plusDays(6), start.plusDays(7)));
+    }
+
+    @Test
+    void getIntersecting_should_delegate_ranges_before_origin_to_repository() {
+        LocalDateTime from = now().minus(HotelTurningOffSnapshot.RETENTION).minusDays(1);
+        when(hotelTurningOffRepository.findIntersectingRange(from, start))
+                .thenReturn(List.of(christmas));
+
+        assertEquals(List.of(christmas), snapshot.getIntersecting(from, start));
+    }
+
+    @Test
+    void add_should_replace_snapshot() {
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(repairs));
+        List<HotelTurningOffTime> before = snapshot.getFromNow();
+
+        snapshot.add(christmas);
+        snapshot.add(christmas);
+
+        assertEquals(List.of(repairs), before);
+        assertEquals(List.of(christmas, repairs), snapshot.getFromNow());
+    }
+
+    @Test
+    void reload_should_replace_snapshot() {
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(christmas))
+                .thenReturn(List.of(repairs));
+        snapshot.getFromNow();
+
+        snapshot.reload();
+
+        assertEquals(List.of(repairs), snapshot.getFromNow());
+    }
+
+    @Test
+    void add_should_be_applied_only_after_commit() {
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(repairs));
+        snapshot.getFromNow();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            snapshot.add(christmas);
+
+            assertEquals(List.of(repairs), snapshot.getFromNow());
+            TransactionSynchronizationUtils.invokeAfterCommit(
+                    TransactionSynchronizationManager.getSynchronizations()
+            );
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(christmas, repairs), snapshot.getFromNow());
+    }
+
+    @Test
+    void getFromNow_should_reload_expired_snapshot_in_background() throws Exception {
+        snapshot = new HotelTurningOffSnapshot(hotelTurningOffRepository, cacheProps(Duration.ZERO));
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(christmas))
+                .thenReturn(List.of(christmas, repairs));
+
+        assertEquals(List.of(christmas), snapshot.getFromNow());
+        assertEquals(List.of(christmas), snapshot.getFromNow());
+
+        for (int i = 0; i < 100 && snapshot.getFromNow().size() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(List.of(christmas, repairs), snapshot.getFromNow());
+    }
+
+    @Test
+    void getFromNow_should_not_wait_for_reload_of_expired_snapshot() throws Exception {
+        snapshot = new HotelTurningOffSnapshot(hotelTurningOffRepository, cacheProps(Duration.ZERO));
+        CountDownLatch reloadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of(christmas))
+                .thenAnswer(invocation -> {
+                    reloadStarted.countDown();
+                    release.await(5, SECONDS);
+                    return List.of(christmas, repairs);
+                });
+        snapshot.getFromNow();
+
+        try {
+            snapshot.getFromNow();
+            assertTrue(reloadStarted.await(5, SECONDS));
+
+            assertEquals(List.of(christmas), snapshot.getFromNow());
+            assertEquals(List.of(christmas), snapshot.getFromNow());
+        } finally {
+            release.countDown();
+        }
+        verify(hotelTurningOffRepository, times(2))
+                .findEndingAfter(any());
+    }
+
+    @Test
+    void readers_should_see_consistent_snapshots_during_concurrent_additions() throws Exception {
+        when(hotelTurningOffRepository.findEndingAfter(any()))
+                .thenReturn(List.of());
+        snapshot.reload();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> {
+                    int previousSize = 0;
+                    for (int j = 0; j < 10_000; j++) {
+                        int size = snapshot.getFromNow().size();
+                        assertTrue(size >= previousSize);
+                        previousSize = size;
+                    }
+                }));
+            }
+            for (long id = 1; id <= 500; id++) {
+                snapshot.add(new HotelTurningOffTime(id, start.plusDays(id), start.plusDays(id + 1), null));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(500, snapshot.getFromNow().size());
+    }
+
+    private CacheProps cacheProps(Duration hotelTurningOffTtl) {
+        return new CacheProps(Duration.ofMinutes(1), hotelTurningOffTtl, Duration.ofMinutes(1));
+    }
+}
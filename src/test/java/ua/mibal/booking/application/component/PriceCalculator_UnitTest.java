@@ -17,16 +17,20 @@
 package ua.mibal.booking.application.component;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import ua.mibal.booking.application.exception.IllegalReservationDateRangeException;
 import ua.mibal.booking.application.exception.PriceCalculatorException;
+import ua.mibal.booking.application.util.NightlyPrices;
 import ua.mibal.booking.domain.ReservationRequest;
+import ua.mibal.booking.domain.SeasonalPrice;
 import ua.mibal.test.annotation.UnitTest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -86,4 +90,67 @@ class PriceCalculator_UnitTest {
                 () -> service.calculateReservationPrice(oneNightPrice, request)
         );
     }
+
+    @Test
+    void calculatePrice_by_NightlyPrices_should_sum_seasonal_prices_of_multi_month_stay() {
+        NightlyPrices nightlyPrices = NightlyPrices.of(new BigDecimal("100"), List.of(
+                new SeasonalPrice(1, LocalDate.of(2023, 12, 20), LocalDate.of(2024, 1, 10), new BigDecimal("150.50"))
+        ));
+        when(request.from()).thenReturn(LocalDate.of(2023, 11, 15).atStartOfDay());
+        when(request.to()).thenReturn(LocalDate.of(2024, 2, 1).atStartOfDay());
+
+        var actual = service.calculateReservationPrice(nightlyPrices, request);
+
+        assertEquals(new BigDecimal("8860.50"), actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("ua.mibal.booking.testUtils.DataGenerator#correctPriceCalculation")
+    void calculatePrice_by_NightlyPrices_and_dates(BigDecimal oneNightPrice, LocalDate from, LocalDate to, BigDecimal expected) {
+        NightlyPrices nightlyPrices = NightlyPrices.of(oneNightPrice, List.of());
+
+        var actual = service.calculatePrice(nightlyPrices, from, to);
+
+        assertEquals(0, expected.compareTo(actual));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ua.mibal.booking.testUtils.DataGenerator#incorrectPriceForCalculation")
+    void calculatePrice_by_NightlyPrices_should_throw_PriceCalculatorException(BigDecimal oneNightPrice,
+                                                                              LocalDate from,
+                                                                              LocalDate to) {
+        NightlyPrices nightlyPrices = NightlyPrices.of(oneNightPrice, List.of());
+        when(request.from()).thenReturn(from.atStartOfDay());
+        when(request.to()).thenReturn(to.atStartOfDay());
+
+        assertThrows(
+                PriceCalculatorException.class,
+                () -> service.calculateReservationPrice(nightlyPrices, request)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("ua.mibal.booking.testUtils.DataGenerator#incorrectDateRangeForCalculation")
+    void calculatePrice_by_NightlyPrices_should_throw_IllegalReservationDateRangeException(BigDecimal oneNightPrice,
+                                                                                          LocalDate from,
+                                                                                          LocalDate to) {
+        NightlyPrices nightlyPrices = NightlyPrices.of(oneNightPrice, List.of());
+        when(request.from()).thenReturn(from.atStartOfDay());
+        when(request.to()).thenReturn(to.atStartOfDay());
+
+        assertThrows(
+                IllegalReservationDateRangeException.class,
+                () -> service.calculateReservationPrice(nightlyPrices, request)
+        );
+    }
+
+    @Test
+    void calculateOneNightPrice_should_return_average_charged_price() {
+        when(request.from()).thenReturn(LocalDate.of(2024, 1, 1).atStartOfDay());
+        when(request.to()).thenReturn(LocalDate.of(2024, 1, 4).atStartOfDay());
+
+        var actual = service.calculateOneNightPrice(new BigDecimal("350.50"), request);
+
+        assertEquals(new BigDecimal("116.83"), actual);
+    }
 }
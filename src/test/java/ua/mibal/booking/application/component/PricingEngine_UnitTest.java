@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import ua.mibal.booking.application.event.ApartmentChangedEvent;
+import ua.mibal.booking.application.exception.PriceNotFoundException;
+import ua.mibal.booking.application.util.ApartmentPricing;
+import ua.mibal.booking.config.properties.CacheProps;
+import ua.mibal.booking.domain.Apartment;
+import ua.mibal.booking.domain.Price;
+import ua.mibal.booking.domain.SeasonalPrice;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class PricingEngine_UnitTest {
+
+    private PricingEngine engine;
+
+    @Mock
+    private Apartment apartment;
+
+    private final LocalDate from = LocalDate.of(2024, 7, 30);
+    private final LocalDate to = LocalDate.of(2024, 8, 3);
+
+    @BeforeEach
+    void setup() {
+        engine = new PricingEngine(cacheProps(Duration.ofMinutes(1)));
+        when(apartment.getId()).thenReturn(1L);
+        when(apartment.getPrices()).thenReturn(List.of(
+                new Price(1, new BigDecimal("50")),
+                new Price(3, new BigDecimal("100"))
+        ));
+        when(apartment.getSeasonalPrices()).thenReturn(List.of(
+                new SeasonalPrice(3, LocalDate.of(2024, 8, 1), LocalDate.of(2024, 9, 1), new BigDecimal("120"))
+        ));
+    }
+
+    @Test
+    void pricingOf() {
+        ApartmentPricing pricing = engine.pricingOf(apartment);
+
+        assertEquals(200_00, pricing.forPeople(1).totalMinor(from, to));
+        assertEquals(440_00, pricing.forPeople(3).totalMinor(from, to));
+        assertThrows(PriceNotFoundException.class, () -> pricing.forPeople(2));
+        assertThrows(PriceNotFoundException.class, () -> pricing.forPeople(4));
+        assertThrows(PriceNotFoundException.class, () -> pricing.forPeople(0));
+    }
+
+    @Test
+    void pricingOf_should_build_pricing_once() {
+        ApartmentPricing pricing = engine.pricingOf(apartment);
+
+        assertSame(pricing, engine.pricingOf(apartment));
+        verify(apartment, times(1)).getPrices();
+    }
+
+    @Test
+    void invalidate_should_rebuild_pricing() {
+        ApartmentPricing pricing = engine.pricingOf(apartment);
+
+        engine.invalidate(new ApartmentChangedEvent(1L));
+
+        assertNotSame(pricing, engine.pricingOf(apartment));
+        verify(apartment, times(2)).getPrices();
+    }
+
+    @Test
+    void invalidate_should_keep_pricing_of_another_apartment() {
+        ApartmentPricing pricing = engine.pricingOf(apartment);
+
+        engine.invalidate(new ApartmentChangedEvent(2L));
+
+        assertSame(pricing, engine.pricingOf(apartment));
+    }
+
+    @Test
+    void pricingOf_should_rebuild_expired_pricing() {
+        engine = new PricingEngine(cacheProps(Duration.ZERO));
+        ApartmentPricing pricing = engine.pricingOf(apartment);
+
+        assertNotSame(pricing, engine.pricingOf(apartment));
+        verify(apartment, times(2)).getPrices();
+    }
+
+    private CacheProps cacheProps(Duration pricingTtl) {
+        return new CacheProps(Duration.ofMinutes(1), Duration.ofMinutes(1), pricingTtl);
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.mibal.booking.application.exception.ApartmentIsNotAvailableForReservation;
+import ua.mibal.booking.application.port.jpa.ApartmentInstanceRepository;
+import ua.mibal.booking.application.port.jpa.HotelTurningOffRepository;
+import ua.mibal.booking.application.port.jpa.ReservationRepository;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.ReservationDetails;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+/**
+ * Race test harness: every thread runs admission and save of a reservation
+ * in a simulated transaction, saved reservations become visible
+ * to other threads only on commit, as in READ COMMITTED DB.
+ * DB locks are mocked here, they are raced on real DB
+ * in {@code AdvisoryLocks_IntegrationTest}.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class ReservationAdmission_UnitTest {
+    private static final int THREADS = 16;
+
+    private ReservationAdmission admission;
+
+    @Mock
+    private ApartmentInstanceRepository apartmentInstanceRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private HotelTurningOffRepository hotelTurningOffRepository;
+
+    private final SimulatedTransactionManager transactionManager = new SimulatedTransactionManager();
+    private final List<Reservation> committed = new CopyOnWriteArrayList<>();
+    private final LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+
+    @BeforeEach
+    void setup() {
+        admission = new ReservationAdmission(apartmentInstanceRepository, reservationRepository, hotelTurningOffRepository, transactionManager);
+        when(reservationRepository.existsNotRejectedByApartmentInstanceIdIntersectingRange(anyLong(), any(), any()))
+                .thenAnswer(invocation -> intersectsCommitted(
+                        invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)
+                ));
+    }
+
+    @Test
+    void admit_should_acquire_DB_locks_of_instance_and_hotel_before_check() {
+        reserve(reservationOf(1L, start, start.plusDays(1)));
+
+        InOrder inOrder = inOrder(apartmentInstanceRepository, hotelTurningOffRepository, reservationRepository);
+        inOrder.verify(apartmentInstanceRepository)
+                .lockForReservation(1L);
+        inOrder.verify(hotelTurningOffRepository)
+                .lockForReservation();
+        inOrder.verify(reservationRepository)
+                .existsNotRejectedByApartmentInstanceIdIntersectingRange(1L, start, start.plusDays(1));
+    }
+
+    @Test
+    void admit_should_throw_ApartmentIsNotAvailableForReservation_if_range_is_reserved() {
+        reserve(reservationOf(1L, start, start.plusDays(2)));
+
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> reserve(reservationOf(1L, start.plusDays(1), start.plusDays(3))));
+    }
+
+    @Test
+    void admit_should_throw_ApartmentIsNotAvailableForReservation_if_instance_is_turned_off() {
+        when(apartmentInstanceRepository.existsTurningOffTimeByIdIntersectingRange(1L, start, start.plusDays(2)))
+                .thenReturn(true);
+
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> reserve(reservationOf(1L, start, start.plusDays(2))));
+        assertTrue(committed.isEmpty());
+    }
+
+    @Test
+    void admit_should_throw_ApartmentIsNotAvailableForReservation_if_hotel_is_turned_off() {
+        when(hotelTurningOffRepository.existsIntersectingRange(start, start.plusDays(2)))
+                .thenReturn(true);
+
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> reserve(reservationOf(1L, start, start.plusDays(2))));
+        assertTrue(committed.isEmpty());
+    }
+
+    @Test
+    void admit_should_let_only_one_of_concurrent_intersecting_reservations_in() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+
+        race(THREADS, i -> {
+            try {
+                reserve(reservationOf(1L, start, start.plusDays(3)));
+            } catch (ApartmentIsNotAvailableForReservation e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, committed.size());
+        assertEquals(THREADS - 1, rejected.get());
+    }
+
+    @Test
+    void admit_should_not_admit_intersecting_reservations_of_random_booking_stream() throws Exception {
+        race(THREADS * 8, i -> {
+            Random random = new Random(i);
+            LocalDateTime from = start.plusDays(random.nextInt(30));
+            try {
+                reserve(reservationOf(1L + random.nextInt(3), from, from.plusDays(1 + random.nextInt(5))));
+            } catch (ApartmentIsNotAvailableForReservation ignored) {
+            }
+        });
+
+        assertFalse(committed.isEmpty());
+        for (Reservation reservation : committed) {
+            long intersecting = committed.stream()
+                    .filter(other -> other != reservation)
+                    .filter(other -> intersects(other, reservation.getApartmentInstance().getId(),
+                            reservation.getStart(), reservation.getEnd()))
+                    .count();
+            assertEquals(0, intersecting);
+        }
+    }
+
+    @Test
+    void admit_should_not_block_reservations_of_different_instances() throws Exception {
+        assertNotSame(admission.stripeOf(1L), admission.stripeOf(2L));
+        CountDownLatch firstAdmitted = new CountDownLatch(1);
+        CountDownLatch secondAdmitted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> admission.admit(
+                    reservationOf(1L, start, start.plusDays(1)),
+                    reservation -> {
+                        firstAdmitted.countDown();
+                        await(secondAdmitted);
+                    }
+            ));
+            Future<?> second = executor.submit(() -> {
+                await(firstAdmitted);
+                admission.admit(
+                        reservationOf(2L, start, start.plusDays(1)),
+                        reservation -> secondAdmitted.countDown()
+                );
+            });
+
+            first.get(10, SECONDS);
+            second.get(10, SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void admit_should_queue_on_stripe_before_opening_transaction() throws Exception {
+        CountDownLatch firstAdmitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> admission.admit(
+                    reservationOf(1L, start, start.plusDays(1)),
+                    reservation -> {
+                        firstAdmitted.countDown();
+                        await(release);
+                    }
+            ));
+            await(firstAdmitted);
+            Future<?> second = executor.submit(() -> admission.admit(
+                    reservationOf(1L, start.plusDays(1), start.plusDays(2)),
+                    reservation -> {
+                    }
+            ));
+            while (!admission.stripeOf(1L).hasQueuedThreads()) {
+                Thread.onSpinWait();
+            }
+
+            assertEquals(1, transactionManager.begun.get());
+
+            release.countDown();
+            first.get(10, SECONDS);
+            second.get(10, SECONDS);
+            assertEquals(2, transactionManager.begun.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void admit_should_release_lock_after_rollback() {
+        reserve(reservationOf(1L, start, start.plusDays(1)));
+        assertThrows(ApartmentIsNotAvailableForReservation.class,
+                () -> reserve(reservationOf(1L, start, start.plusDays(1))));
+
+        assertFalse(admission.stripeOf(1L).isLocked());
+        assertEquals(1, transactionManager.rolledBack.get());
+    }
+
+    private void race(int threads, IntConsumer task) throws Exception {
+        CountDownLatch startLine = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int taskId = i;
+                futures.add(executor.submit(() -> {
+                    startLine.await();
+                    task.accept(taskId);
+                    return null;
+                }));
+            }
+            startLine.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void reserve(Reservation reservation) {
+        admission.admit(reservation, save());
+    }
+
+    private Consumer<Reservation> save() {
+        return reservation -> {
+            // widen the window between check and commit
+            sleep();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.add(reservation);
+                }
+            });
+        };
+    }
+
+    private boolean intersectsCommitted(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        return committed.stream()
+                .anyMatch(reservation -> intersects(reservation, instanceId, from, to));
+    }
+
+    private boolean intersects(Reservation reservation, Long instanceId, LocalDateTime from, LocalDateTime to) {
+        return reservation.getApartmentInstance().getId().equals(instanceId) &&
+               reservation.getStart().isBefore(to) &&
+               reservation.getEnd().isAfter(from);
+    }
+
+    private Reservation reservationOf(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        ApartmentInstance instance =
+                ApartmentInstance.of(instanceId, "instance", null, null, new ArrayList<>(), new ArrayList<>());
+        return Reservation.of(null, instance, ReservationDetails.of(from, to, null, null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface IntConsumer {
+        void accept(int value) throws Exception;
+    }
+
+    /**
+     * Runs transaction synchronizations as a real transaction manager does,
+     * without any resource
+     */
+    private static class SimulatedTransactionManager extends AbstractPlatformTransactionManager {
+        private final AtomicInteger begun = new AtomicInteger();
+        private final AtomicInteger rolledBack = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begun.incrementAndGet();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rolledBack.incrementAndGet();
+        }
+    }
+}
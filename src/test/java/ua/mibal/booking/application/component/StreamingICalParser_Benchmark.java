@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.mibal.booking.application.mapper.CalendarFormatMapper;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.Event;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ical4j {@link CalendarBuilder} with {@link StreamingICalParser}
+ * on {@code test.ics} fixture scaled up to {@code events} VEVENTs.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ua.mibal.booking.application.component.StreamingICalParser_Benchmark}
+ * or from IDE. Add {@code -prof gc} JMH option to compare allocation rate.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingICalParser_Benchmark {
+    private static final String EVENT_BEGIN = "BEGIN:VEVENT";
+    private static final String CALENDAR_END = "END:VCALENDAR";
+
+    @Param({"100", "1000", "10000"})
+    private int events;
+
+    private String calendar;
+    private StreamingICalParser parser;
+    private CalendarFormatMapper calendarFormatMapper;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StreamingICalParser_Benchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        String fixture = new String(getClass().getResourceAsStream("/test.ics").readAllBytes());
+        String header = fixture.substring(0, fixture.indexOf(EVENT_BEGIN));
+        String fixtureEvents = fixture.substring(fixture.indexOf(EVENT_BEGIN), fixture.indexOf(CALENDAR_END));
+        int fixtureEventsCount = fixtureEvents.split(EVENT_BEGIN, -1).length - 1;
+
+        StringBuilder scaled = new StringBuilder(header);
+        for (int i = 0; i < events; i += fixtureEventsCount) {
+            scaled.append(fixtureEvents);
+        }
+        calendar = scaled.append(CALENDAR_END).append("\r\n").toString();
+
+        CalendarProps calendarProps = new CalendarProps(ZoneId.of("Europe/Prague"), null, null);
+        parser = new StreamingICalParser(calendarProps);
+        calendarFormatMapper = new CalendarFormatMapper(calendarProps);
+    }
+
+    @Benchmark
+    public List<Event> ical4j() throws IOException, ParserException {
+        return calendarFormatMapper.vEventsToEvents(
+                new CalendarBuilder().build(new StringReader(calendar)).getComponents(Component.VEVENT)
+        );
+    }
+
+    @Benchmark
+    public List<Event> streaming() throws IOException {
+        List<Event> result = new ArrayList<>();
+        parser.parse(new StringReader(calendar), result::add);
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.component;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ua.mibal.booking.application.exception.UnsupportedCalendarException;
+import ua.mibal.booking.application.mapper.CalendarFormatMapper;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class StreamingICalParser_UnitTest {
+    private static final String CALENDAR_TEMPLATE = """
+            BEGIN:VCALENDAR\r
+            PRODID:-//Booking.com//Booking.com Calendar//EN\r
+            VERSION:2.0\r
+            %s\r
+            END:VCALENDAR\r
+            """;
+
+    private final CalendarProps calendarProps = new CalendarProps(ZoneId.of("Europe/Prague"), null, null);
+
+    private StreamingICalParser parser;
+    private CalendarFormatMapper calendarFormatMapper;
+
+    @BeforeEach
+    void setup() {
+        parser = new StreamingICalParser(calendarProps);
+        calendarFormatMapper = new CalendarFormatMapper(calendarProps);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            """
+            BEGIN:VEVENT\r
+            DTSTAMP:20231208T093933Z\r
+            DTSTART;VALUE=DATE:20240105\r
+            DTEND;VALUE=DATE:20240107\r
+            UID:9f1a0c@booking.com\r
+            SUMMARY:CLOSED - Not available\r
+            END:VEVENT""",
+            """
+            BEGIN:VEVENT\r
+            DTSTART:20231225T000000Z\r
+            DTEND;TZID=Australia/Sydney:20240101T000000\r
+            SUMMARY:Christmas holidays\r
+            END:VEVENT""",
+            """
+            BEGIN:VEVENT\r
+            DTSTART;TZID="America/New_York":20240310T013000\r
+            DTEND;TZID=America/New_York:20240310T033000\r
+            SUMMARY:Over DST gap\r
+            END:VEVENT""",
+            """
+            BEGIN:VEVENT\r
+            DTSTART:20240105T100000\r
+            DTEND:20240107T100000\r
+            SUMMARY:Floating\r
+            END:VEVENT""",
+            """
+            BEGIN:VEVENT\r
+            DTSTART;VALUE=DATE:20240105\r
+            DTEND;VALUE=DATE:20240107\r
+            SUMMARY:Folded and \r
+             escaped\\, with\\; special\\\\ characters\\nand new line\r
+            BEGIN:VALARM\r
+            ACTION:DISPLAY\r
+            SUMMARY:Nested component must be ignored\r
+            END:VALARM\r
+            END:VEVENT\r
+            BEGIN:VEVENT\r
+            summary:Lower case\r
+            dtstart;value=DATE:20240201\r
+            dtend;value=DATE:20240203\r
+            END:VEVENT""",
+            """
+            BEGIN:VTODO\r
+            DTSTART;VALUE=DATE:20240105\r
+            SUMMARY:Not an event\r
+            END:VTODO""",
+    })
+    void parse_should_produce_same_events_as_ical4j(String events) throws Exception {
+        String calendar = CALENDAR_TEMPLATE.formatted(events);
+
+        assertEquals(parseWithICal4j(calendar), parse(calendar));
+    }
+
+    @Test
+    void parse_should_parse_test_file_like_ical4j() throws Exception {
+        String calendar = new String(getClass().getResourceAsStream("/test.ics").readAllBytes());
+
+        assertEquals(parseWithICal4j(calendar), parse(calendar));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "DTSTART:20240101T100000Z\r\nDURATION:PT1H\r\nSUMMARY:Duration",
+            "DTSTART;TZID=W. Europe Standard Time:20240101T100000\r\nDTEND:20240101T110000Z\r\nSUMMARY:Windows zone",
+            "DTSTART:20240101T100000Z\r\nDTEND:20240101T110000Z",
+            "DTSTART:2024-01-01\r\nDTEND:20240101T110000Z\r\nSUMMARY:Malformed",
+            "DTSTART;VALUE=DATE:20240101T100000\r\nDTEND:20240101T110000Z\r\nSUMMARY:Malformed",
+    })
+    void parse_should_throw_UnsupportedCalendarException(String properties) {
+        String calendar = CALENDAR_TEMPLATE.formatted("BEGIN:VEVENT\r\n" + properties + "\r\nEND:VEVENT");
+
+        assertThrows(UnsupportedCalendarException.class,
+                () -> parse(calendar));
+    }
+
+    @Test
+    void parse_should_throw_UnsupportedCalendarException_if_event_is_not_terminated() {
+        String calendar = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nDTSTART:20240101T100000Z\r\n";
+
+        assertThrows(UnsupportedCalendarException.class,
+                () -> parse(calendar));
+    }
+
+    private List<Event> parse(String calendar) throws IOException {
+        List<Event> events = new ArrayList<>();
+        parser.parse(new StringReader(calendar), events::add);
+        return events;
+    }
+
+    private List<Event> parseWithICal4j(String calendar) throws Exception {
+        return calendarFormatMapper.vEventsToEvents(
+                new CalendarBuilder().build(new StringReader(calendar)).getComponents(Component.VEVENT)
+        );
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.dto.response.calendar;
+
+import org.junit.jupiter.api.Test;
+import ua.mibal.booking.application.dto.response.calendar.ColumnarCalendars.ColumnarCalendar;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class ColumnarCalendars_UnitTest {
+
+    private final LocalDate day = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void of() {
+        List<Event> first = List.of(
+                Event.from(at(0, 15), at(3, 11), "Reservation"),
+                Event.from(at(5, 12), at(5, 13), "Turned off")
+        );
+        List<Event> second = List.of(
+                Event.from(at(1, 15), at(2, 11), "Reservation")
+        );
+
+        ColumnarCalendars actual = ColumnarCalendars.of(List.of(first, second, List.of()));
+
+        assertEquals(List.of("Reservation", "Turned off"), actual.names());
+        assertEquals(3, actual.calendars().size());
+        assertCalendar(actual.calendars().get(0),
+                new long[]{day.toEpochDay(), day.toEpochDay() + 5}, new int[]{3, 1}, new int[]{0, 1});
+        assertCalendar(actual.calendars().get(1),
+                new long[]{day.toEpochDay() + 1}, new int[]{1}, new int[]{0});
+        assertCalendar(actual.calendars().get(2),
+                new long[0], new int[0], new int[0]);
+    }
+
+    private void assertCalendar(ColumnarCalendar calendar, long[] start, int[] nights, int[] name) {
+        assertArrayEquals(start, calendar.start());
+        assertArrayEquals(nights, calendar.nights());
+        assertArrayEquals(name, calendar.name());
+    }
+
+    private LocalDateTime at(int plusDays, int hour) {
+        return LocalDateTime.of(day.plusDays(plusDays), LocalTime.of(hour, 0));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.mapper;
+
+import net.fortuna.ical4j.model.component.VEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.Event;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CalendarFormatMapper} conversions of {@code events} events.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ua.mibal.booking.application.mapper.CalendarFormatMapper_Benchmark}
+ * or from IDE. Add {@code -prof gc} JMH option to compare allocation rate.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarFormatMapper_Benchmark {
+
+    @Param({"100", "1000"})
+    private int events;
+
+    private CalendarFormatMapper mapper;
+    private List<Event> domainEvents;
+    private List<VEvent> vEvents;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CalendarFormatMapper_Benchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setup() {
+        mapper = new CalendarFormatMapper(new CalendarProps(ZoneId.of("Europe/Prague"), null, null));
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 15, 0);
+        domainEvents = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            LocalDateTime from = origin.plusDays(random.nextInt(2 * 366));
+            domainEvents.add(Event.from(from, from.plusDays(1 + random.nextInt(7)).withHour(11), "Event " + i));
+        }
+        vEvents = mapper.eventsToVEvents(domainEvents);
+    }
+
+    @Benchmark
+    public List<VEvent> eventsToVEvents() {
+        return mapper.eventsToVEvents(domainEvents);
+    }
+
+    @Benchmark
+    public List<Event> vEventsToEvents() {
+        return mapper.vEventsToEvents(vEvents);
+    }
+}
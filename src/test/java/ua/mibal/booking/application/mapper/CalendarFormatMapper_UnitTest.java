@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.mapper;
+
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.component.VEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.mibal.booking.config.properties.CalendarProps;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class CalendarFormatMapper_UnitTest {
+    private static final ZoneId zoneId = ZoneId.of("Europe/Prague");
+
+    private CalendarFormatMapper mapper;
+
+    @BeforeEach
+    void setup() {
+        mapper = new CalendarFormatMapper(new CalendarProps(zoneId, null, null));
+    }
+
+    @Test
+    void eventsToVEvents_and_vEventsToEvents_should_be_symmetric_across_DST() {
+        List<Event> events = List.of(
+                Event.from(LocalDateTime.of(2024, 3, 30, 15, 0), LocalDateTime.of(2024, 4, 1, 11, 0), "Spring forward"),
+                Event.from(LocalDateTime.of(2024, 10, 26, 15, 0), LocalDateTime.of(2024, 10, 28, 11, 0), "Fall back")
+        );
+
+        List<VEvent> vEvents = mapper.eventsToVEvents(events);
+
+        assertEquals(events, mapper.vEventsToEvents(vEvents));
+        assertEquals("20240330T150000", vEvents.get(0).getStartDate().getValue());
+        assertEquals(zoneId.getId(), vEvents.get(0).getStartDate().getTimeZone().getID());
+    }
+
+    @Test
+    void eventsToVEvents_should_share_resolved_time_zone() {
+        List<VEvent> vEvents = mapper.eventsToVEvents(List.of(
+                Event.from(LocalDateTime.of(2024, 1, 1, 15, 0), LocalDateTime.of(2024, 1, 2, 11, 0), "First"),
+                Event.from(LocalDateTime.of(2024, 2, 1, 15, 0), LocalDateTime.of(2024, 2, 2, 11, 0), "Second")
+        ));
+
+        assertSame(
+                ((DateTime) vEvents.get(0).getStartDate().getDate()).getTimeZone(),
+                ((DateTime) vEvents.get(1).getEndDate().getDate()).getTimeZone()
+        );
+    }
+}
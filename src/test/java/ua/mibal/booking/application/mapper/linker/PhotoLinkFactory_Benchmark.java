@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.mapper.linker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ua.mibal.booking.adapter.in.web.PhotoController;
+import ua.mibal.booking.config.properties.LinkProps;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Measures building photo links of one apartment card with {@code photos} photos
+ * by {@link PhotoLinkFactory} and by per-link {@code linkTo(methodOn(...))}
+ * inside of request.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ua.mibal.booking.application.mapper.linker.PhotoLinkFactory_Benchmark}
+ * or from IDE. Add {@code -prof gc} JMH option to compare allocation rate.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhotoLinkFactory_Benchmark {
+
+    @Param({"5", "50"})
+    private int photos;
+
+    private final Long apartmentId = 42L;
+    private PhotoLinkFactory factory;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PhotoLinkFactory_Benchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setup() {
+        factory = new PhotoLinkFactory(new LinkProps(URI.create("https://apartmany-pe.cz")));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme("https");
+        request.setServerName("apartmany-pe.cz");
+        request.setServerPort(443);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<String> photoLinkFactory() {
+        return factory.apartmentPhotoLinks(apartmentId, photos);
+    }
+
+    @Benchmark
+    public List<String> webMvcLinkBuilder() {
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < photos; i++) {
+            var getPhotoMethod = methodOn(PhotoController.class)
+                    .getApartmentPhoto(apartmentId, i);
+            links.add(linkTo(getPhotoMethod).withSelfRel().getHref());
+        }
+        return links;
+    }
+}
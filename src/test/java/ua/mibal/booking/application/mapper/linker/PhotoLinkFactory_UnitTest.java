@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.mapper.linker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ua.mibal.booking.adapter.in.web.PhotoController;
+import ua.mibal.booking.config.properties.LinkProps;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class PhotoLinkFactory_UnitTest {
+
+    private final PhotoLinkFactory factory =
+            new PhotoLinkFactory(new LinkProps(URI.create("https://apartmany-pe.cz")));
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void apartmentPhotoLinks_should_match_WebMvcLinkBuilder_links() {
+        setRequest("https", "apartmany-pe.cz", 443);
+
+        List<String> actual = factory.apartmentPhotoLinks(7L, 3);
+
+        assertEquals(List.of(
+                apartmentPhotoLink(7L, 0),
+                apartmentPhotoLink(7L, 1),
+                apartmentPhotoLink(7L, 2)
+        ), actual);
+        assertEquals("https://apartmany-pe.cz/api/apartments/7/photos/2", actual.get(2));
+    }
+
+    @Test
+    void apartmentPhotoLink_should_match_WebMvcLinkBuilder_link() {
+        setRequest("https", "apartmany-pe.cz", 443);
+
+        assertEquals(apartmentPhotoLink(42L, 5), factory.apartmentPhotoLink(42L, 5));
+    }
+
+    @Test
+    void userPhotoLink_should_match_WebMvcLinkBuilder_link() {
+        setRequest("https", "apartmany-pe.cz", 443);
+
+        String actual = factory.userPhotoLink("user name@gmail.com");
+
+        assertEquals(userPhotoLink("user name@gmail.com"), actual);
+        assertEquals("https://apartmany-pe.cz/api/users/user%20name%40gmail.com/photo", actual);
+    }
+
+    @Test
+    void links_should_not_depend_on_request_host() {
+        setRequest("http", "forged-host.com", 80);
+
+        assertEquals(List.of("https://apartmany-pe.cz/api/apartments/1/photos/0"), factory.apartmentPhotoLinks(1L, 1));
+        assertEquals("https://apartmany-pe.cz/api/users/email/photo", factory.userPhotoLink("email"));
+    }
+
+    @Test
+    void links_should_be_based_on_configured_uri_outside_of_request() {
+        PhotoLinkFactory factory = new PhotoLinkFactory(new LinkProps(URI.create("http://localhost:8080/")));
+
+        assertEquals(List.of("http://localhost:8080/api/apartments/1/photos/0"), factory.apartmentPhotoLinks(1L, 1));
+        assertEquals("http://localhost:8080/api/users/email/photo", factory.userPhotoLink("email"));
+    }
+
+    @Test
+    void apartmentPhotoLinks_should_return_empty_list_for_no_photos() {
+        assertEquals(List.of(), factory.apartmentPhotoLinks(1L, 0));
+    }
+
+    private void setRequest(String scheme, String host, int port) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme(scheme);
+        request.setServerName(host);
+        request.setServerPort(port);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private String apartmentPhotoLink(Long id, Integer index) {
+        return linkTo(methodOn(PhotoController.class).getApartmentPhoto(id, index)).withSelfRel().getHref();
+    }
+
+    private String userPhotoLink(String email) {
+        return linkTo(methodOn(PhotoController.class).getUserPhoto(email)).withSelfRel().getHref();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import ua.mibal.booking.domain.Amenity;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ua.mibal.booking.domain.Amenity.KITCHEN;
+import static ua.mibal.booking.domain.Amenity.WIFI;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class AmenityMask_UnitTest {
+
+    @Test
+    void of() {
+        assertEquals(0b01010, AmenityMask.of(Set.of(WIFI, KITCHEN)));
+        assertEquals(AmenityMask.NONE, AmenityMask.of(Set.of()));
+        assertEquals(AmenityMask.ALL, AmenityMask.of(Set.of(Amenity.values())));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0b01010, 0b01010, true",
+            "0b11111, 0b01010, true",
+            "0b01000, 0b01010, false",
+            "0b00000, 0b00000, true",
+            "0b00000, 0b00001, false",
+    })
+    void matches(String mask, String required, boolean expected) {
+        assertEquals(expected, AmenityMask.matches(parse(mask), parse(required)));
+    }
+
+    @Test
+    void supersetsOf_should_contain_every_matching_mask() {
+        for (int required = 0; required <= AmenityMask.ALL; required++) {
+            int req = required;
+            List<Integer> expected = IntStream.rangeClosed(0, AmenityMask.ALL)
+                    .filter(mask -> AmenityMask.matches(mask, req))
+                    .boxed()
+                    .toList();
+
+            List<Integer> actual = AmenityMask.supersetsOf(required).stream()
+                    .sorted()
+                    .toList();
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    private int parse(String binary) {
+        return Integer.parseInt(binary.substring(2), 2);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.junit.jupiter.api.Test;
+import ua.mibal.booking.domain.Event;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ua.mibal.booking.application.util.EventCoalescer.MERGED_EVENT_NAME;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class EventCoalescer_UnitTest {
+
+    private final LocalDateTime origin = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void coalesce_should_merge_overlapping_and_adjacent_events() {
+        Event first = event(0, 2, "first");
+        Event overlapping = event(1, 3, "overlapping");
+        Event adjacent = event(3, 4, "adjacent");
+        Event nested = event(1, 2, "nested");
+        Event separate = event(5, 6, "separate");
+
+        List<Event> actual = EventCoalescer.coalesce(List.of(separate, adjacent, nested, overlapping, first));
+
+        assertEquals(List.of(event(0, 4, MERGED_EVENT_NAME), separate), actual);
+    }
+
+    @Test
+    void coalesce_should_keep_single_events_as_is() {
+        Event first = event(0, 1, "first");
+        Event second = event(2, 3, "second");
+
+        List<Event> actual = EventCoalescer.coalesce(List.of(second, first));
+
+        assertSame(first, actual.get(0));
+        assertSame(second, actual.get(1));
+    }
+
+    @Test
+    void coalesce_should_accept_empty_collection() {
+        assertEquals(List.of(), EventCoalescer.coalesce(List.of()));
+    }
+
+    @Test
+    void coalesce_should_cover_exactly_the_same_hours_as_source_events() {
+        Random random = new Random(42);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(2_000);
+            events.add(event(start, start + 1 + random.nextInt(10), "event " + i));
+        }
+
+        List<Event> actual = EventCoalescer.coalesce(events);
+
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i).getStart().isAfter(actual.get(i - 1).getEnd()));
+        }
+        for (int hour = 0; hour < 2_020; hour++) {
+            LocalDateTime point = origin.plusHours(hour);
+            assertEquals(covers(events, point), covers(actual, point), "hour " + hour);
+        }
+    }
+
+    private boolean covers(List<Event> events, LocalDateTime point) {
+        return events.stream()
+                .anyMatch(e -> !e.getStart().isAfter(point) && e.getEnd().isAfter(point));
+    }
+
+    private Event event(int startHour, int endHour, String name) {
+        return Event.from(origin.plusHours(startHour), origin.plusHours(endHour), name);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class IntervalTree_UnitTest {
+
+    private IntervalTree tree;
+
+    @BeforeEach
+    void setup() {
+        tree = new IntervalTree();
+        tree.add(10, 20, 1);
+        tree.add(30, 40, 2);
+        tree.add(50, 60, 3);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 10, false",
+            "20, 30, false",
+            "60, 70, false",
+            "0, 11, true",
+            "19, 30, true",
+            "35, 36, true",
+            "0, 100, true",
+            "59, 61, true",
+    })
+    void overlaps(long start, long end, boolean expected) {
+        assertEquals(expected, tree.overlaps(start, end));
+    }
+
+    @Test
+    void remove() {
+        assertTrue(tree.remove(30, 40, 2));
+
+        assertFalse(tree.overlaps(30, 40));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void remove_should_not_remove_interval_with_another_key() {
+        assertFalse(tree.remove(30, 40, 42));
+
+        assertTrue(tree.overlaps(30, 40));
+        assertEquals(3, tree.size());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, " + Long.MIN_VALUE,
+            "10, " + Long.MIN_VALUE,
+            "11, 20",
+            "30, 20",
+            "45, 40",
+            "100, 60",
+    })
+    void maxEndBefore(long start, long expected) {
+        assertEquals(expected, tree.maxEndBefore(start));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 10",
+            "10, 10",
+            "20, 30",
+            "45, 50",
+            "51, " + Long.MAX_VALUE,
+    })
+    void minStartFrom(long end, long expected) {
+        assertEquals(expected, tree.minStartFrom(end));
+    }
+
+    @Test
+    void maxEndBefore_and_minStartFrom_should_match_brute_force() {
+        Random random = new Random(42);
+        IntervalTree randomTree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            long start = random.nextInt(10_000);
+            long[] added = {start, start + 1 + random.nextInt(50), i};
+            intervals.add(added);
+            randomTree.add(added[0], added[1], added[2]);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            long point = random.nextInt(11_000);
+            long expectedMaxEnd = intervals.stream()
+                    .filter(interval -> interval[0] < point)
+                    .mapToLong(interval -> interval[1])
+                    .max().orElse(Long.MIN_VALUE);
+            long expectedMinStart = intervals.stream()
+                    .filter(interval -> interval[0] >= point)
+                    .mapToLong(interval -> interval[0])
+                    .min().orElse(Long.MAX_VALUE);
+            assertEquals(expectedMaxEnd, randomTree.maxEndBefore(point));
+            assertEquals(expectedMinStart, randomTree.minStartFrom(point));
+        }
+    }
+
+    @Test
+    void overlaps_should_match_brute_force_after_random_modifications() {
+        Random random = new Random(42);
+        IntervalTree randomTree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            if (!intervals.isEmpty() && random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(randomTree.remove(removed[0], removed[1], removed[2]));
+            } else {
+                long start = random.nextInt(10_000);
+                long[] added = {start, start + 1 + random.nextInt(50), i};
+                intervals.add(added);
+                randomTree.add(added[0], added[1], added[2]);
+            }
+        }
+
+        assertEquals(intervals.size(), randomTree.size());
+        for (int i = 0; i < 2_000; i++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(50);
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval[0] < end && interval[1] > start);
+            assertEquals(expected, randomTree.overlaps(start, end));
+        }
+    }
+}
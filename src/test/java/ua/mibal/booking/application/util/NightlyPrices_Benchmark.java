@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.mibal.booking.domain.SeasonalPrice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares quote of random stays by precomputed {@link NightlyPrices}
+ * with night by night {@link BigDecimal} sum over seasonal prices.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Djmh.benchmarks=NightlyPrices_Benchmark}
+ * or {@link #main} from IDE.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NightlyPrices_Benchmark {
+    private static final int HORIZON = 730;
+    private static final int QUERIES = 1024;
+    private static final BigDecimal BASE_PRICE = new BigDecimal("99.90");
+
+    @Param({"4", "40"})
+    private int seasonalPrices;
+
+    @Param({"3", "60"})
+    private int maxNights;
+
+    private List<SeasonalPrice> seasonal;
+    private NightlyPrices nightlyPrices;
+    private LocalDate[] froms;
+    private LocalDate[] tos;
+    private int query;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NightlyPrices_Benchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.of(2024, 1, 1);
+        seasonal = new ArrayList<>();
+        for (int i = 0; i < seasonalPrices; i++) {
+            LocalDate from = origin.plusDays(random.nextInt(HORIZON));
+            seasonal.add(new SeasonalPrice(
+                    1, from, from.plusDays(1 + random.nextInt(30)), BigDecimal.valueOf(random.nextInt(100_000), 2)
+            ));
+        }
+        nightlyPrices = NightlyPrices.of(BASE_PRICE, seasonal);
+
+        froms = new LocalDate[QUERIES];
+        tos = new LocalDate[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            froms[i] = origin.plusDays(random.nextInt(HORIZON));
+            tos[i] = froms[i].plusDays(1 + random.nextInt(maxNights));
+        }
+    }
+
+    @Benchmark
+    public long precomputed() {
+        query = (query + 1) & (QUERIES - 1);
+        return nightlyPrices.totalMinor(froms[query], tos[query]);
+    }
+
+    @Benchmark
+    public BigDecimal nightByNight() {
+        query = (query + 1) & (QUERIES - 1);
+        BigDecimal total = BigDecimal.ZERO;
+        for (LocalDate night = froms[query]; night.isBefore(tos[query]); night = night.plusDays(1)) {
+            BigDecimal price = BASE_PRICE;
+            LocalDate fromDate = null;
+            for (SeasonalPrice seasonalPrice : seasonal) {
+                if (!night.isBefore(seasonalPrice.getFromDate()) && night.isBefore(seasonalPrice.getToDate())
+                    && (fromDate == null || seasonalPrice.getFromDate().isAfter(fromDate))) {
+                    price = seasonalPrice.getAmount();
+                    fromDate = seasonalPrice.getFromDate();
+                }
+            }
+            total = total.add(price);
+        }
+        return total;
+    }
+}
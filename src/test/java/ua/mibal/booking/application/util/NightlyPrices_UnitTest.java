@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import ua.mibal.booking.domain.SeasonalPrice;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class NightlyPrices_UnitTest {
+
+    private final NightlyPrices prices = NightlyPrices.of(new BigDecimal("100.50"), List.of(
+            seasonalPrice("2024-07-01", "2024-09-01", "150"),
+            seasonalPrice("2024-12-20", "2025-01-10", "200"),
+            seasonalPrice("2024-12-31", "2025-01-02", "300.25")
+    ));
+
+    @ParameterizedTest
+    @CsvSource({
+            "2024-03-01, 2024-03-04, 30150",
+            "2024-01-15, 2024-04-15, 914550",
+            "2024-06-30, 2024-07-02, 25050",
+            "2024-07-01, 2024-09-01, 930000",
+            "2024-08-31, 2024-09-02, 25050",
+            "2024-12-30, 2025-01-03, 100050",
+            "2025-01-09, 2025-01-11, 30050",
+            "2025-05-01, 2025-05-02, 10050",
+    })
+    void totalMinor(LocalDate from, LocalDate to, long expected) {
+        assertEquals(expected, prices.totalMinor(from, to));
+    }
+
+    @Test
+    void totalMinor_should_count_every_night_of_multi_month_stay() {
+        NightlyPrices basePrices = NightlyPrices.of(BigDecimal.ONE, List.of());
+
+        assertEquals(76_00, basePrices.totalMinor(LocalDate.of(2023, 12, 1), LocalDate.of(2024, 2, 15)));
+        assertEquals(366_00, basePrices.totalMinor(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void totalMinor_should_match_night_by_night_sum() {
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.of(2024, 1, 1);
+        List<SeasonalPrice> seasonalPrices = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            LocalDate from = origin.plusDays(random.nextInt(700));
+            seasonalPrices.add(new SeasonalPrice(
+                    1, from, from.plusDays(1 + random.nextInt(90)), BigDecimal.valueOf(random.nextInt(100_000), 2)
+            ));
+        }
+        BigDecimal base = new BigDecimal("99.99");
+        NightlyPrices randomPrices = NightlyPrices.of(base, seasonalPrices);
+
+        for (int i = 0; i < 2_000; i++) {
+            LocalDate from = origin.plusDays(random.nextInt(900) - 100);
+            LocalDate to = from.plusDays(1 + random.nextInt(120));
+            assertEquals(
+                    nightByNightMinor(base, seasonalPrices, from, to),
+                    randomPrices.totalMinor(from, to)
+            );
+        }
+    }
+
+    @Test
+    void totalMinor_should_support_seasonal_prices_far_from_each_other() {
+        NightlyPrices farPrices = NightlyPrices.of(BigDecimal.ONE, List.of(
+                seasonalPrice("2025-01-01", "2025-01-03", "2"),
+                seasonalPrice("9999-12-01", "9999-12-31", "3")
+        ));
+
+        assertEquals(4_00, farPrices.totalMinor(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-01-03")));
+        assertEquals(6_00, farPrices.totalMinor(LocalDate.parse("2024-12-31"), LocalDate.parse("2025-01-04")));
+        assertEquals(30_00, farPrices.totalMinor(LocalDate.parse("9999-11-01"), LocalDate.parse("9999-12-01")));
+        assertEquals(6_00, farPrices.totalMinor(LocalDate.parse("9999-12-29"), LocalDate.parse("9999-12-31")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "0.01, 1",
+            "100000, 10000000",
+            "12.345, 1235",
+    })
+    void toMinor(BigDecimal amount, long expected) {
+        assertEquals(expected, NightlyPrices.toMinor(amount));
+    }
+
+    @Test
+    void fromMinor() {
+        assertEquals(new BigDecimal("1235.07"), NightlyPrices.fromMinor(123507));
+    }
+
+    private long nightByNightMinor(BigDecimal base, List<SeasonalPrice> seasonalPrices,
+                                   LocalDate from, LocalDate to) {
+        List<SeasonalPrice> byStart = seasonalPrices.stream()
+                .sorted(Comparator.comparing(SeasonalPrice::getFromDate))
+                .toList();
+        long total = 0;
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            BigDecimal price = base;
+            for (SeasonalPrice seasonalPrice : byStart) {
+                if (!night.isBefore(seasonalPrice.getFromDate()) && night.isBefore(seasonalPrice.getToDate())) {
+                    price = seasonalPrice.getAmount();
+                }
+            }
+            total += NightlyPrices.toMinor(price);
+        }
+        return total;
+    }
+
+    private static SeasonalPrice seasonalPrice(String from, String to, String amount) {
+        return new SeasonalPrice(1, LocalDate.parse(from), LocalDate.parse(to), new BigDecimal(amount));
+    }
+}
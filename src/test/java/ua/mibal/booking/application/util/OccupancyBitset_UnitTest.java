@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import ua.mibal.test.annotation.UnitTest;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@UnitTest
+class OccupancyBitset_UnitTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 10, true",
+            "60, 70, true",
+            "63, 64, false",
+            "64, 70, true",
+            "70, 130, true",
+            "130, 199, false",
+            "-10, 1, false",
+            "150, 300, true",
+    })
+    void anySet(int from, int to, boolean expected) {
+        OccupancyBitset bitset = new OccupancyBitset(200);
+        bitset.set(5, 63);
+        bitset.set(65, 129);
+        bitset.set(199, 250);
+
+        assertEquals(expected, bitset.anySet(from, to));
+    }
+
+    @Test
+    void anySet_should_union_with_other_bitset() {
+        OccupancyBitset bitset = new OccupancyBitset(100);
+        OccupancyBitset other = new OccupancyBitset(100);
+        other.set(80, 81);
+
+        assertFalse(bitset.anySet(0, 80, other));
+        assertTrue(bitset.anySet(70, 90, other));
+    }
+
+    @Test
+    void clear() {
+        OccupancyBitset bitset = new OccupancyBitset(100);
+        bitset.set(10, 20);
+
+        bitset.clear(15);
+
+        assertFalse(bitset.get(15));
+        assertTrue(bitset.get(14));
+        assertTrue(bitset.get(16));
+    }
+
+    @Test
+    void anySet_should_match_brute_force() {
+        Random random = new Random(42);
+        int capacity = 1_000;
+        OccupancyBitset bitset = new OccupancyBitset(capacity);
+        BitSet expected = new BitSet(capacity);
+
+        for (int i = 0; i < 100; i++) {
+            int from = random.nextInt(capacity);
+            int to = from + 1 + random.nextInt(20);
+            bitset.set(from, to);
+            expected.set(from, Math.min(to, capacity));
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int from = random.nextInt(capacity);
+            int to = from + 1 + random.nextInt(200);
+            int nextSet = expected.nextSetBit(from);
+            assertEquals(nextSet != -1 && nextSet < to, bitset.anySet(from, to));
+        }
+    }
+
+    @Test
+    void concurrent_writers_should_not_lose_nights_while_readers_see_published_words() throws Exception {
+        int threads = 4;
+        int capacity = 1_024;
+        OccupancyBitset bitset = new OccupancyBitset(capacity);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int night = thread; night < capacity; night += threads) {
+                        bitset.set(night, night + 1);
+                    }
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    bitset.anySet(0, capacity);
+                }
+            });
+            for (Future<?> future : futures) {
+                future.get(10, SECONDS);
+            }
+            reader.get(10, SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int night = 0; night < capacity; night++) {
+            assertTrue(bitset.get(night), "night " + night);
+        }
+    }
+}
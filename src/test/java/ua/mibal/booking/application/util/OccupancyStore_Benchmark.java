@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.application.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.mibal.booking.domain.ApartmentInstance;
+import ua.mibal.booking.domain.Reservation;
+import ua.mibal.booking.domain.ReservationDetails;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Compares availability check of one apartment instance by
+ * {@link ApartmentInstance#hasReservationsAt}, {@link IntervalTree}
+ * and {@link OccupancyStore}.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Djmh.benchmarks=OccupancyStore_Benchmark}
+ * or {@link #main} from IDE.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OccupancyStore_Benchmark {
+    private static final LocalTime CHECK_IN = LocalTime.of(15, 0);
+    private static final LocalTime CHECK_OUT = LocalTime.of(11, 0);
+    private static final int HORIZON = 2 * 366;
+    private static final int QUERIES = 1024;
+
+    @Param({"10", "100", "500"})
+    private int reservations;
+
+    private ApartmentInstance instance;
+    private IntervalTree tree;
+    private OccupancyStore store;
+    private LocalDateTime[] queryFrom;
+    private LocalDateTime[] queryTo;
+    private int query;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OccupancyStore_Benchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.now();
+        instance = ApartmentInstance.of(1L, "instance", null, null, new ArrayList<>(), new ArrayList<>());
+        tree = new IntervalTree();
+        store = new OccupancyStore(origin, HORIZON, CHECK_IN);
+
+        for (long i = 0; i < reservations; i++) {
+            LocalDate date = origin.plusDays(random.nextInt(HORIZON - 10));
+            LocalDateTime from = LocalDateTime.of(date, CHECK_IN);
+            LocalDateTime to = LocalDateTime.of(date.plusDays(1 + random.nextInt(7)), CHECK_OUT);
+            instance.addReservation(Reservation.of(null, instance, ReservationDetails.of(from, to, null, null)));
+            tree.add(from.toEpochSecond(UTC), to.toEpochSecond(UTC), i);
+            store.occupy(1L, from, to);
+        }
+
+        queryFrom = new LocalDateTime[QUERIES];
+        queryTo = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            LocalDate date = origin.plusDays(random.nextInt(HORIZON - 10));
+            queryFrom[i] = LocalDateTime.of(date, CHECK_IN);
+            queryTo[i] = LocalDateTime.of(date.plusDays(1 + random.nextInt(7)), CHECK_OUT);
+        }
+    }
+
+    @Benchmark
+    public boolean hasReservationsAt() {
+        int i = nextQuery();
+        return instance.hasReservationsAt(queryFrom[i], queryTo[i]);
+    }
+
+    @Benchmark
+    public boolean intervalTree() {
+        int i = nextQuery();
+        return tree.overlaps(queryFrom[i].toEpochSecond(UTC), queryTo[i].toEpochSecond(UTC));
+    }
+
+    @Benchmark
+    public boolean occupancyStore() {
+        int i = nextQuery();
+        return !store.isFree(1L, queryFrom[i], queryTo[i]);
+    }
+
+    private int nextQuery() {
+        query = (query + 1) & (QUERIES - 1);
+        return query;
+    }
+}
@@ -30,6 +30,7 @@ import ua.mibal.booking.application.dto.response.ApartmentCardDto;
 import ua.mibal.booking.application.dto.response.ApartmentDto;
 import ua.mibal.booking.application.mapper.ApartmentInstanceMapper;
 import ua.mibal.booking.application.mapper.ApartmentMapper;
+import ua.mibal.booking.application.mapper.ApartmentMapperImpl;
 import ua.mibal.booking.application.mapper.PriceMapper;
 import ua.mibal.booking.application.mapper.RoomMapper;
 import ua.mibal.booking.application.mapper.linker.ApartmentPhotoLinker;
@@ -74,7 +75,6 @@ class ApartmentMapper_UnitTest {
     @Mock
     private List<Bed> beds;
 
-    private final Integer people = 1_000_003;
     @Mock
     private BigDecimal price;
     @Spy
@@ -120,8 +120,6 @@ class ApartmentMapper_UnitTest {
     void toCardDto(Apartment source) {
         when(photoLinker.toLinks(source))
                 .thenReturn(photos);
-        when(roomMapper.roomsToPeopleCount(source.getRooms()))
-                .thenReturn(people);
         when(priceMapper.findMinPrice(source.getPrices()))
                 .thenReturn(price);
 
@@ -131,7 +129,7 @@ class ApartmentMapper_UnitTest {
         assertThat(actual.photos(), is(photos));
         assertThat(actual.options(), is(source.getOptions()));
         assertThat(actual.rating(), is(source.getRating()));
-        assertThat(actual.people(), is(people));
+        assertThat(actual.people(), is(source.getCapacity()));
         assertThat(actual.price(), is(price));
     }
 
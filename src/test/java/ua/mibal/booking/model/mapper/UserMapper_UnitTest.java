@@ -29,6 +29,7 @@ import ua.mibal.booking.application.dto.request.ChangeUserDetailsDto;
 import ua.mibal.booking.application.dto.response.UserDto;
 import ua.mibal.booking.application.mapper.PhoneMapper;
 import ua.mibal.booking.application.mapper.UserMapper;
+import ua.mibal.booking.application.mapper.UserMapperImpl;
 import ua.mibal.booking.application.mapper.linker.UserPhotoLinker;
 import ua.mibal.booking.domain.NotificationSettings;
 import ua.mibal.booking.domain.Phone;
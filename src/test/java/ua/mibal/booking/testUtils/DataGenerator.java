@@ -134,7 +134,9 @@ public class DataGenerator {
                 Arguments.of(ZERO, first, fifth, ZERO),
                 Arguments.of(ONE, first, fifth, valueOf(4)),
                 Arguments.of(valueOf(100_000), first, sixth, valueOf(500_000)),
-                Arguments.of(valueOf(100_000), first, second, valueOf(100_000))
+                Arguments.of(valueOf(100_000), first, second, valueOf(100_000)),
+                Arguments.of(ONE, first, LocalDate.of(2024, 2, 15), valueOf(76)),
+                Arguments.of(ONE, first, LocalDate.of(2024, 12, 1), valueOf(366))
         );
     }
 
@@ -286,6 +288,9 @@ public class DataGenerator {
                 .set(field(Apartment::getId), null)
                 .set(field(Apartment::getComments), null)
                 .set(field(Apartment::getApartmentInstances), null)
+                .set(field(Apartment::getRatingSum), 0.0)
+                .set(field(Apartment::getRatingCount), 0)
+                .set(field(Apartment::getCapacity), 0)
                 .create();
     }
 
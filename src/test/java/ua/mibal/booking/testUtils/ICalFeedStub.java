@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024. Mykhailo Balakhon mailto:9mohapx9@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ua.mibal.booking.testUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local HTTP server that serves single ICalendar feed
+ * and honours {@code If-None-Match} conditional requests.
+ *
+ * @author Mykhailo Balakhon
+ * @link <a href="mailto:9mohapx9@gmail.com">9mohapx9@gmail.com</a>
+ */
+public class ICalFeedStub implements AutoCloseable {
+    private static final String PATH = "/calendar.ics";
+
+    private final HttpServer server;
+    private final List<String> receivedETags = new CopyOnWriteArrayList<>();
+    private volatile String body = "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n";
+    private volatile String eTag = "\"1\"";
+    private volatile long delayMillis;
+    private volatile long bodyDelayMillis;
+    private volatile int status = 200;
+
+    public ICalFeedStub() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext(PATH, this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + PATH;
+    }
+
+    public ICalFeedStub serve(String body, String eTag) {
+        this.body = body;
+        this.eTag = eTag;
+        return this;
+    }
+
+    public ICalFeedStub delay(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    /**
+     * Delays the second half of the body after headers and the first half are sent
+     */
+    public ICalFeedStub bodyDelay(long bodyDelayMillis) {
+        this.bodyDelayMillis = bodyDelayMillis;
+        return this;
+    }
+
+    public ICalFeedStub status(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public int hits() {
+        return receivedETags.size();
+    }
+
+    /**
+     * @return {@code If-None-Match} header values of received requests,
+     * empty string for unconditional ones
+     */
+    public List<String> receivedETags() {
+        return receivedETags;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        receivedETags.add(ifNoneMatch == null ? "" : ifNoneMatch);
+        sleep(delayMillis);
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+        } else if (eTag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            byte[] bytes = body.getBytes(UTF_8);
+            exchange.getResponseHeaders().add("ETag", eTag);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes, 0, bytes.length / 2);
+                out.flush();
+                sleep(bodyDelayMillis);
+                out.write(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+            }
+        }
+        exchange.close();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}